@@ -0,0 +1,64 @@
+package com.example.mysqlautoin;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.List;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import java.util.zip.ZipOutputStream;
+
+import static com.example.mysqlautoin.FixtureCheck.expect;
+
+// 检查解压前的预检：ZIP 的根目录、版本、mysqld 和按解压配置统计的大小，tar 包从文件名和压缩流尾部得到的估计值
+final class ArchiveInspectorCheck {
+
+    private ArchiveInspectorCheck() {
+    }
+
+    static void verify(List<String> failures) throws Exception {
+        FixtureCheck.inTempDirectory(work -> {
+            Path zip = work.resolve("mysql-8.0.99-winx64.zip");
+            SyntheticDistribution.write(zip, SyntheticDistribution.Shape.TINY, 3);
+            int files = 0;
+            long bytes = 0;
+            try (ZipFile zipFile = new ZipFile(zip.toFile())) {
+                for (ZipEntry entry : Collections.list(zipFile.entries())) {
+                    if (entry.isDirectory()) continue;
+                    files++;
+                    bytes += entry.getSize();
+                }
+            }
+            ArchiveInspector.Inspection full = ArchiveInspector.inspect(zip.toString(), ExtractionProfile.FULL);
+            ArchiveInspector.Inspection minimal = ArchiveInspector.inspect(zip.toString(), ExtractionProfile.SERVER_MINIMAL);
+            expect(failures, SyntheticDistribution.ROOT.equals(full.getRootName()) && "8.0.99".equals(full.getVersion())
+                            && full.hasServer() && !full.isEstimated()
+                            && full.getEntryCount() == files && full.getTotalBytes() == bytes
+                            && minimal.getEntryCount() < files && minimal.getTotalBytes() < bytes,
+                    "ZIP 预检结果不正确: " + full + " / " + minimal);
+
+            Path multiRoot = work.resolve("multi-root.zip");
+            try (ZipOutputStream out = new ZipOutputStream(Files.newOutputStream(multiRoot))) {
+                out.putNextEntry(new ZipEntry("mysql-a/bin/mysqld.exe"));
+                out.closeEntry();
+                out.putNextEntry(new ZipEntry("mysql-b/bin/mysqld.exe"));
+                out.closeEntry();
+            }
+            ArchiveInspector.Inspection multi = ArchiveInspector.inspect(multiRoot.toString(), ExtractionProfile.FULL);
+            expect(failures, multi.getRootName() == null, "多个顶层目录的 ZIP 不应报告根目录: " + multi.getRootName());
+
+            for (String ext : List.of(".tar.gz", ".tar.xz")) {
+                Path tar = work.resolve(SyntheticDistribution.TAR_ROOT + ext);
+                // 硬链接与目标共用同一个数组，在 tar 流中只存一份
+                long tarBytes = SyntheticDistribution.writeTar(tar, 4).values().stream()
+                        .distinct().mapToLong(content -> content.length).sum();
+                ArchiveInspector.Inspection inspection = ArchiveInspector.inspect(tar.toString(), ExtractionProfile.FULL);
+                // 估计值是 tar 流本身的长度，包含头部和填充，不小于文件内容之和
+                expect(failures, SyntheticDistribution.TAR_ROOT.equals(inspection.getRootName())
+                                && "8.0.99".equals(inspection.getVersion()) && inspection.isEstimated()
+                                && inspection.getTotalBytes() >= tarBytes && inspection.getTotalBytes() % 512 == 0,
+                        ext + " 预检结果不正确: " + inspection);
+            }
+        });
+    }
+}
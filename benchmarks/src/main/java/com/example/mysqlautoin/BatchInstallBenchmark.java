@@ -0,0 +1,115 @@
+package com.example.mysqlautoin;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+// 同一主机安装多个实例：separate 为原来的做法（每个实例单独安装一次，各自解压），
+// batch 为 BatchInstaller（解压一次，初始化按并发上限同时进行，服务注册与其他实例的初始化重叠）
+// batchWithTemplates 另外开启数据目录模板（每次从空模板目录开始：一个实例初始化，其余等它完成后复制模板），
+// 各实例端口上由 GreetingStub 应答，模拟服务首次启动执行完 init-file 后就绪
+// mysqld --initialize 用固定耗时模拟，假设磁盘能同时承受 initConcurrency 个初始化；其余外部命令同 InstallPipelineBenchmark
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BatchInstallBenchmark {
+
+    private static final Consumer<String> SILENT = msg -> { };
+
+    @Param({"6"})
+    public int instances;
+
+    @Param({"2", "6"})
+    public int initConcurrency;
+
+    @Param({"50"})
+    public int spawnMillis;
+
+    @Param({"600"})
+    public int initMillis;
+
+    private Path workDir;
+    private Path zip;
+    private Path installDir;
+    private Path templateDir;
+    private ProcessRunner previous;
+    private final List<GreetingStub> servers = new ArrayList<>();
+
+    @Setup(Level.Trial)
+    public void prepare() throws IOException {
+        workDir = Files.createTempDirectory("mysqlauto-bench");
+        zip = workDir.resolve(SyntheticDistribution.ROOT + ".zip");
+        SyntheticDistribution.write(zip, SyntheticDistribution.Shape.SMALL, 42L);
+        installDir = workDir.resolve("install");
+        templateDir = workDir.resolve("templates");
+        for (int i = 0; i < instances; i++) servers.add(new GreetingStub("8.0.42", Duration.ZERO));
+
+        FakeProcessRunner fake = new FakeProcessRunner()
+                .respond("--initialize", ProcessResult.of(0, ""), Duration.ofMillis(initMillis))
+                .setLatency(Duration.ofMillis(spawnMillis));
+        previous = ProcessRunner.getDefault();
+        ProcessRunner.setDefault(fake);
+    }
+
+    @Setup(Level.Invocation)
+    public void cleanInstallDir() throws IOException {
+        FileTrees.deleteTree(installDir);
+        FileTrees.deleteTree(templateDir);
+    }
+
+    @TearDown(Level.Trial)
+    public void restore() throws IOException {
+        ProcessRunner.setDefault(previous);
+        for (GreetingStub server : servers) server.close();
+        FileTrees.deleteTree(workDir);
+    }
+
+    @Benchmark
+    public List<InstallReport> separate() {
+        List<InstallReport> reports = new ArrayList<>();
+        for (GreetingStub server : servers) {
+            String port = Integer.toString(server.getPort());
+            reports.add(check(MySQLInstaller.install(zip.toString(), installDir.resolve(port).toString(), "bench-Pass1", port,
+                    false, InstallOptions.defaults(), SILENT)));
+        }
+        return reports;
+    }
+
+    @Benchmark
+    public InstallReport batch() {
+        List<BatchInstaller.Instance> list = instanceList();
+        return check(BatchInstaller.install(zip.toString(), installDir.toString(), list, false,
+                InstallOptions.defaults().setInitConcurrency(initConcurrency), SILENT));
+    }
+
+    @Benchmark
+    public InstallReport batchWithTemplates() {
+        List<BatchInstaller.Instance> list = instanceList();
+        return check(BatchInstaller.install(zip.toString(), installDir.toString(), list, false,
+                InstallOptions.defaults().setInitConcurrency(initConcurrency)
+                        .setDataDirTemplates(new DataDirTemplateStore(templateDir)), SILENT));
+    }
+
+    private List<BatchInstaller.Instance> instanceList() {
+        List<BatchInstaller.Instance> list = new ArrayList<>();
+        for (GreetingStub server : servers) list.add(new BatchInstaller.Instance(Integer.toString(server.getPort()), "bench-Pass1"));
+        return list;
+    }
+
+    private static InstallReport check(InstallReport report) {
+        if (report == null || !report.isSuccess()) {
+            throw new IllegalStateException("安装未完成: " + (report != null ? report.describe() : "已中断"));
+        }
+        return report;
+    }
+}
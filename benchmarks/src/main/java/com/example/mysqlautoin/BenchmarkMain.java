@@ -0,0 +1,106 @@
+package com.example.mysqlautoin;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+// 基准测试入口：接受所有 JMH 命令行参数，结果固定写成 JSON（默认 target/jmh-result.json）
+// 指定 -Djmh.baseline=上次发布的结果.json 时与基线逐项对比，超出阈值（默认 10%）则以退出码 2 结束
+// 开始前先用 FixtureCheck 核对解析结果，不一致时以退出码 3 结束
+public class BenchmarkMain {
+
+    public static void main(String[] args) throws Exception {
+        // 解析结果不对时，基准数字没有意义
+        List<String> failures = FixtureCheck.verify();
+        if (!failures.isEmpty()) {
+            failures.forEach(System.out::println);
+            System.exit(3);
+        }
+
+        Path result = Paths.get(System.getProperty("jmh.result", "target/jmh-result.json")).toAbsolutePath();
+        Files.createDirectories(result.getParent());
+
+        CommandLineOptions cli = new CommandLineOptions(args);
+        new Runner(new OptionsBuilder()
+                .parent(cli)
+                .resultFormat(ResultFormatType.JSON)
+                .result(result.toString())
+                .build()).run();
+        System.out.println("📄 基准结果已写入: " + result);
+
+        String baseline = System.getProperty("jmh.baseline");
+        if (baseline != null) {
+            double threshold = Double.parseDouble(System.getProperty("jmh.threshold", "0.10"));
+            if (!compare(Paths.get(baseline), result, threshold)) {
+                System.exit(2);
+            }
+        }
+    }
+
+    // 平均时间/单次时间越小越好，吞吐越大越好
+    static boolean compare(Path baselineFile, Path currentFile, double threshold) throws IOException {
+        Map<String, JsonObject> baseline = load(baselineFile);
+        Map<String, JsonObject> current = load(currentFile);
+        boolean ok = true;
+        for (Map.Entry<String, JsonObject> e : current.entrySet()) {
+            JsonObject before = baseline.get(e.getKey());
+            if (before == null) {
+                System.out.println("🆕 " + e.getKey() + "（基线中不存在）");
+                continue;
+            }
+            double oldScore = score(before);
+            double newScore = score(e.getValue());
+            boolean higherIsBetter = "thrpt".equals(e.getValue().get("mode").getAsString());
+            double change = (newScore - oldScore) / oldScore;
+            boolean regressed = higherIsBetter ? change < -threshold : change > threshold;
+            String unit = e.getValue().getAsJsonObject("primaryMetric").get("scoreUnit").getAsString();
+            System.out.printf("%s %s: %.3f → %.3f %s (%+.1f%%)%n", regressed ? "❌" : "✅",
+                    e.getKey(), oldScore, newScore, unit, change * 100);
+            if (regressed) ok = false;
+        }
+        return ok;
+    }
+
+    private static Map<String, JsonObject> load(Path file) throws IOException {
+        Map<String, JsonObject> byKey = new TreeMap<>();
+        try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            JsonArray runs = JsonParser.parseReader(reader).getAsJsonArray();
+            for (JsonElement run : runs) {
+                JsonObject obj = run.getAsJsonObject();
+                byKey.put(key(obj), obj);
+            }
+        }
+        return byKey;
+    }
+
+    // 基准方法名 + 排序后的参数，作为两次结果之间的对应关系
+    private static String key(JsonObject run) {
+        StringBuilder sb = new StringBuilder(run.get("benchmark").getAsString());
+        JsonObject params = run.getAsJsonObject("params");
+        if (params != null) {
+            for (String name : new TreeMap<>(params.asMap()).keySet()) {
+                sb.append(' ').append(name).append('=').append(params.get(name).getAsString());
+            }
+        }
+        return sb.toString();
+    }
+
+    private static double score(JsonObject run) {
+        return run.getAsJsonObject("primaryMetric").get("score").getAsDouble();
+    }
+}
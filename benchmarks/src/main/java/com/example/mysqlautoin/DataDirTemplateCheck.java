@@ -0,0 +1,50 @@
+package com.example.mysqlautoin;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.example.mysqlautoin.FixtureCheck.expect;
+
+// 检查数据目录模板的键只取不可修改的选项，且复制时不带走实例身份文件
+final class DataDirTemplateCheck {
+
+    private DataDirTemplateCheck() {
+    }
+
+    static void verify(List<String> failures) throws Exception {
+        FixtureCheck.inTempDirectory(work -> {
+            Path myIni = work.resolve("my.ini");
+            Files.writeString(myIni, "[mysqld]\nport=3306\n[client]\ninnodb_page_size=4k\n");
+            String plain = DataDirTemplateStore.key("8.0.42", myIni);
+            Files.writeString(myIni, "[mysqld]\nport=3306\ninnodb-page-size=4k\n");
+            String pageSize = DataDirTemplateStore.key("8.0.42", myIni);
+            expect(failures, plain.equals("8.0.42-default") && !pageSize.equals(plain),
+                    "数据目录模板键不正确: " + plain + " / " + pageSize);
+
+            DataDirTemplateStore store = new DataDirTemplateStore(work.resolve("templates"));
+            Path first = Files.createDirectories(work.resolve("first"));
+            DataDirTemplateStore.Initializer initializer = () -> {
+                Files.createDirectories(first.resolve("mysql"));
+                for (String name : new String[]{"ibdata1", "mysql.ibd", "mysql/general_log.sdi", "auto.cnf", "server-key.pem",
+                        "HOST.err", "binlog.000001", "binlog.index"}) {
+                    Files.writeString(first.resolve(name), name);
+                }
+                return true;
+            };
+            DataDirTemplateStore.Source created = store.populate(plain, first, initializer, msg -> { });
+            Path second = Files.createDirectories(work.resolve("second"));
+            DataDirTemplateStore.Source cloned = store.populate(plain, second, () -> false, msg -> { });
+            List<String> files = new ArrayList<>();
+            try (var walk = Files.walk(second)) {
+                walk.filter(Files::isRegularFile).forEach(f -> files.add(second.relativize(f).toString().replace('\\', '/')));
+            }
+            files.sort(null);
+            expect(failures, created == DataDirTemplateStore.Source.INITIALIZED && cloned == DataDirTemplateStore.Source.TEMPLATE
+                            && files.equals(List.of("ibdata1", "mysql.ibd", "mysql/general_log.sdi"))
+                            && Files.readString(second.resolve("mysql.ibd")).equals("mysql.ibd"),
+                    "数据目录模板复制结果不正确: " + created + " / " + cloned + " " + files);
+        });
+    }
+}
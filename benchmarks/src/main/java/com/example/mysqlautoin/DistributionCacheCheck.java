@@ -0,0 +1,60 @@
+package com.example.mysqlautoin;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static com.example.mysqlautoin.FixtureCheck.expect;
+
+// 检查发行包缓存的未命中、命中和按大小淘汰；淘汰缓存条目后，已经由它填充的安装目录仍然完整
+final class DistributionCacheCheck {
+
+    private DistributionCacheCheck() {
+    }
+
+    static void verify(List<String> failures) throws Exception {
+        FixtureCheck.inTempDirectory(work -> {
+            Path first = work.resolve("first.zip");
+            Path second = work.resolve("second.zip");
+            SyntheticDistribution.write(first, SyntheticDistribution.Shape.TINY, 1);
+            SyntheticDistribution.write(second, SyntheticDistribution.Shape.TINY, 2);
+            // 上限小于任何一个条目：每次填充后淘汰其他所有条目
+            Path root = work.resolve("cache");
+            DistributionCache cache = new DistributionCache(root, 1);
+            ZipExtractor extractor = new ZipExtractor(4);
+
+            DistributionCache.PopulateResult miss = cache.populate(first.toString(), work.resolve("install1"), extractor, msg -> { });
+            DistributionCache.PopulateResult hit = cache.populate(first.toString(), work.resolve("install2"), extractor, msg -> { });
+            String missDiff = ZipExtractionCheck.compare(first, work.resolve("install1"));
+            String hitDiff = ZipExtractionCheck.compare(first, work.resolve("install2"));
+            expect(failures, !miss.isHit() && hit.isHit() && missDiff == null && hitDiff == null
+                            && hit.getSha256().equals(DistributionCache.sha256(first)),
+                    "发行包缓存未命中/命中结果不正确: " + miss.isHit() + "/" + hit.isHit() + " " + missDiff + " " + hitDiff);
+
+            DistributionCache.PopulateResult other = cache.populate(second.toString(), work.resolve("install3"), extractor, msg -> { });
+            String evictedDiff = ZipExtractionCheck.compare(first, work.resolve("install1"));
+            long entriesAfterEviction = countEntries(root);
+            DistributionCache.PopulateResult again = cache.populate(first.toString(), work.resolve("install4"), extractor, msg -> { });
+            expect(failures, !other.isHit() && !again.isHit() && entriesAfterEviction == 1 && evictedDiff == null
+                            && ZipExtractionCheck.compare(first, work.resolve("install4")) == null,
+                    "发行包缓存淘汰不正确: 剩余 " + entriesAfterEviction + " 个条目, 再次填充命中 " + again.isHit() + " " + evictedDiff);
+
+            boolean rejected = false;
+            try {
+                cache.populate(second.toString(), work.resolve("install5"), extractor,
+                        new ArchiveChecksum(ArchiveChecksum.SHA_256, "0".repeat(64)), msg -> { });
+            } catch (ChecksumMismatchException e) {
+                rejected = true;
+            }
+            expect(failures, rejected && !Files.exists(work.resolve("install5")) && countEntries(root) == 1,
+                    "校验和不匹配的发行包不应进入缓存或填充安装目录");
+        });
+    }
+
+    private static long countEntries(Path root) throws Exception {
+        try (Stream<Path> entries = Files.list(root)) {
+            return entries.filter(Files::isDirectory).count();
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.example.mysqlautoin;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+// 解压吞吐：单流 ZipInputStream 与并行中央目录解压在同一合成发行包上的对比
+// 每次调用都解压到空目录，度量的是完整一次安装中解压阶段的耗时
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ExtractionBenchmark {
+
+    private static final Consumer<String> SILENT = msg -> { };
+
+    @Param({"SMALL", "STANDARD"})
+    public String shape;
+
+    // sequential 为原 unzip 实现；parallel-N 为 N 个线程的 ZipExtractor
+    @Param({"sequential", "parallel-1", "parallel-4", "parallel-8"})
+    public String mode;
+
+    @Param({"full", "server-minimal"})
+    public String profile;
+
+    private Path workDir;
+    private Path zip;
+    private Path out;
+
+    @Setup(Level.Trial)
+    public void createArchive() throws IOException {
+        workDir = Files.createTempDirectory("mysqlauto-bench");
+        zip = workDir.resolve(SyntheticDistribution.ROOT + ".zip");
+        SyntheticDistribution.write(zip, SyntheticDistribution.Shape.valueOf(shape), 42L);
+        out = workDir.resolve("out");
+    }
+
+    @Setup(Level.Invocation)
+    public void cleanOutput() throws IOException {
+        FileTrees.deleteTree(out);
+        Files.createDirectories(out);
+    }
+
+    @TearDown(Level.Trial)
+    public void deleteArchive() throws IOException {
+        FileTrees.deleteTree(workDir);
+    }
+
+    @Benchmark
+    public ExtractStats extract() throws IOException {
+        ExtractionProfile p = ExtractionProfile.byName(profile);
+        if (mode.equals("sequential")) {
+            return ZipExtractor.extractSequential(zip.toString(), out.toString(), p, null, SILENT);
+        }
+        int workers = Integer.parseInt(mode.substring("parallel-".length()));
+        return new ZipExtractor(workers, p, false).extract(zip.toString(), out.toString(), SILENT);
+    }
+}
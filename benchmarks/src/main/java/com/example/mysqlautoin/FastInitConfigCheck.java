@@ -0,0 +1,27 @@
+package com.example.mysqlautoin;
+
+import java.util.List;
+
+import static com.example.mysqlautoin.FixtureCheck.expect;
+
+// 检查快速初始化的临时配置保留不可修改的选项，只替换可以在初始化后修改的选项
+final class FastInitConfigCheck {
+
+    private FastInitConfigCheck() {
+    }
+
+    static void verify(List<String> failures) {
+        List<String> myIni = List.of("[mysqld]", "basedir=C:\\\\mysql", "datadir=C:\\\\mysql\\\\data", "port=3306",
+                "innodb-page-size=4k", "innodb_buffer_pool_size=12G", "innodb_redo_log_capacity=2G", "log-bin=mysql-bin",
+                "[client]", "port=3306");
+        String rendered = FastInitConfig.render(myIni, "8.0.42");
+        List<String> lines = List.of(rendered.split("\n"));
+        expect(failures, lines.contains("innodb-page-size=4k") && lines.contains("datadir=C:\\\\mysql\\\\data")
+                        && lines.contains("innodb_buffer_pool_size=128M") && lines.contains("innodb_redo_log_capacity=8M")
+                        && lines.contains("skip-log-bin") && !lines.contains("log-bin=mysql-bin")
+                        && !lines.contains("innodb_buffer_pool_size=12G") && !lines.contains("[client]"),
+                "快速初始化临时配置不正确:\n" + rendered);
+        expect(failures, FastInitConfig.render(myIni, "5.7.44").contains("innodb_log_file_size=4M"),
+                "5.7 快速初始化应使用 innodb_log_file_size");
+    }
+}
@@ -0,0 +1,81 @@
+package com.example.mysqlautoin;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// 依次执行各功能的回归检查；BenchmarkMain 在跑基准之前先执行，也可单独运行: java -cp target/benchmarks.jar com.example.mysqlautoin.FixtureCheck
+public class FixtureCheck {
+
+    @FunctionalInterface
+    interface Check {
+        void verify(List<String> failures) throws Exception;
+    }
+
+    @FunctionalInterface
+    interface InDirectory {
+        void run(Path dir) throws Exception;
+    }
+
+    static final Map<String, Check> CHECKS = new LinkedHashMap<>();
+
+    static {
+        CHECKS.put("服务列表解析", ServiceParsingCheck::verify);
+        CHECKS.put("ReadinessProbe", ReadinessProbeCheck::verify);
+        CHECKS.put("InstallPipeline", InstallPipelineCheck::verify);
+        CHECKS.put("数据目录模板", DataDirTemplateCheck::verify);
+        CHECKS.put("性能参数", MyIniTunerCheck::verify);
+        CHECKS.put("快速初始化", FastInitConfigCheck::verify);
+        CHECKS.put("热重启", WarmRestartCheck::verify);
+        CHECKS.put("ZIP 解压", ZipExtractionCheck::verify);
+        CHECKS.put("tar 解压", TarExtractionCheck::verify);
+        CHECKS.put("发行包预检", ArchiveInspectorCheck::verify);
+        CHECKS.put("发行包缓存", DistributionCacheCheck::verify);
+        CHECKS.put("服务列表缓存", ServiceRegistryCheck::verify);
+        CHECKS.put("进程超时", ProcessRunnerCheck::verify);
+    }
+
+    public static void main(String[] args) {
+        List<String> failures = verify();
+        failures.forEach(System.out::println);
+        if (!failures.isEmpty()) System.exit(3);
+        System.out.println("✅ " + CHECKS.size() + " 项回归检查全部通过");
+    }
+
+    static List<String> verify() {
+        List<String> failures = new ArrayList<>();
+        CHECKS.forEach((name, check) -> {
+            try {
+                check.verify(failures);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                failures.add("❌ " + name + " 检查被中断");
+            } catch (Exception e) {
+                failures.add("❌ " + name + " 检查出错: " + e);
+            }
+        });
+        return failures;
+    }
+
+    static void expect(List<String> failures, boolean condition, String message) {
+        if (!condition) failures.add("❌ " + message);
+    }
+
+    // 在临时目录中执行，结束后删除
+    static void inTempDirectory(InDirectory body) throws Exception {
+        Path dir = Files.createTempDirectory("mysqlauto-check");
+        try {
+            body.run(dir);
+        } finally {
+            try {
+                FileTrees.deleteTree(dir);
+            } catch (IOException e) {
+                System.err.println("⚠️ 删除临时目录失败: " + dir);
+            }
+        }
+    }
+}
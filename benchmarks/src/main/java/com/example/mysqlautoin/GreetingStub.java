@@ -0,0 +1,97 @@
+package com.example.mysqlautoin;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+
+// 最小的 MySQL 服务端替身：延迟一段时间后才开始监听（模拟 mysqld 启动），
+// 对每个连接发送一个 HandshakeV10 握手包后关闭。用于在没有 MySQL 的环境中检验 ReadinessProbe
+public class GreetingStub implements AutoCloseable {
+
+    private final int port;
+    private final String serverVersion;
+    private final Thread thread;
+    private volatile ServerSocket server;
+    private volatile boolean closed;
+
+    // 先占用一个空闲端口再释放，startDelay 之后在该端口上开始监听
+    public GreetingStub(String serverVersion, Duration startDelay) throws IOException {
+        try (ServerSocket probe = new ServerSocket(0, 50, InetAddress.getLoopbackAddress())) {
+            port = probe.getLocalPort();
+        }
+        this.serverVersion = serverVersion;
+        thread = new Thread(() -> serve(startDelay), "greeting-stub");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    public int getPort() {
+        return port;
+    }
+
+    private void serve(Duration startDelay) {
+        try {
+            Thread.sleep(startDelay.toMillis());
+            server = new ServerSocket(port, 50, InetAddress.getLoopbackAddress());
+            int connectionId = 1;
+            while (!closed) {
+                try (Socket socket = server.accept()) {
+                    // 探测方可能提前断开，不影响下一个连接
+                    writeQuietly(socket.getOutputStream(), greeting(serverVersion, connectionId++));
+                }
+            }
+        } catch (InterruptedException | IOException e) {
+            // close() 关闭监听套接字时结束
+        }
+    }
+
+    static byte[] greeting(String serverVersion, int connectionId) throws IOException {
+        ByteArrayOutputStream payload = new ByteArrayOutputStream();
+        payload.write(10);
+        payload.write(serverVersion.getBytes(StandardCharsets.US_ASCII));
+        payload.write(0);
+        for (int i = 0; i < 4; i++) payload.write(connectionId >>> (8 * i));
+        payload.write("12345678".getBytes(StandardCharsets.US_ASCII)); // auth-plugin-data-part-1
+        payload.write(0);
+        payload.write(new byte[]{(byte) 0xFF, (byte) 0xF7, 45, 2, 0, (byte) 0xFF, (byte) 0xC1, 21});
+        payload.write(new byte[10]);
+        payload.write("123456789012".getBytes(StandardCharsets.US_ASCII));
+        payload.write(0);
+        payload.write("caching_sha2_password".getBytes(StandardCharsets.US_ASCII));
+        payload.write(0);
+
+        ByteArrayOutputStream packet = new ByteArrayOutputStream();
+        int length = payload.size();
+        packet.write(length);
+        packet.write(length >>> 8);
+        packet.write(length >>> 16);
+        packet.write(0);
+        payload.writeTo(packet);
+        return packet.toByteArray();
+    }
+
+    // 等监听线程退出后才返回：阻塞在 accept 中的套接字要等该线程醒来才真正关闭
+    @Override
+    public void close() throws IOException {
+        closed = true;
+        thread.interrupt();
+        if (server != null) server.close();
+        try {
+            thread.join(1000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void writeQuietly(OutputStream out, byte[] data) {
+        try {
+            out.write(data);
+        } catch (IOException ignored) {
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.example.mysqlautoin;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+// 一次完整安装：真实解压合成发行包，外部命令（net session、reg query、mysqld、sc、net start、setx）
+// 由 FakeProcessRunner 按固定耗时模拟。parallelism=1 时按声明顺序逐个执行步骤，
+// 与默认并行度的差值就是管理员检测、端口检查、读取 PATH 与解压重叠，配置 PATH 与注册服务重叠所节省的时间
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class InstallPipelineBenchmark {
+
+    private static final Consumer<String> SILENT = msg -> { };
+
+    @Param({"1", "4"})
+    public int parallelism;
+
+    // 在 Windows 上启动一次 cmd.exe / sc.exe / reg.exe 的典型耗时
+    @Param({"50"})
+    public int spawnMillis;
+
+    private Path workDir;
+    private Path zip;
+    private Path installDir;
+    private ProcessRunner previous;
+
+    @Setup(Level.Trial)
+    public void prepare() throws IOException {
+        workDir = Files.createTempDirectory("mysqlauto-bench");
+        zip = workDir.resolve(SyntheticDistribution.ROOT + ".zip");
+        SyntheticDistribution.write(zip, SyntheticDistribution.Shape.SMALL, 42L);
+        installDir = workDir.resolve("install");
+
+        FakeProcessRunner fake = new FakeProcessRunner()
+                .respond("^reg query", ProcessResult.of(0, "\r\nHKEY_LOCAL_MACHINE\\SYSTEM\\CurrentControlSet\\Control\\Session Manager\\Environment\r\n"
+                        + "    Path    REG_EXPAND_SZ    %SystemRoot%\\system32;%SystemRoot%;C:\\Program Files\\Git\\cmd\r\n\r\n"))
+                .setLatency(Duration.ofMillis(spawnMillis));
+        previous = ProcessRunner.getDefault();
+        ProcessRunner.setDefault(fake);
+        System.setProperty("mysqlauto.install.parallelism", Integer.toString(parallelism));
+    }
+
+    @Setup(Level.Invocation)
+    public void cleanInstallDir() throws IOException {
+        FileTrees.deleteTree(installDir);
+    }
+
+    @TearDown(Level.Trial)
+    public void restore() throws IOException {
+        ProcessRunner.setDefault(previous);
+        System.clearProperty("mysqlauto.install.parallelism");
+        FileTrees.deleteTree(workDir);
+    }
+
+    @Benchmark
+    public InstallReport install() {
+        InstallReport report = MySQLInstaller.install(zip.toString(), installDir.toString(), "bench-Pass1", "3399",
+                true, InstallOptions.defaults(), SILENT);
+        if (report == null || !report.isSuccess()) {
+            throw new IllegalStateException("安装未完成: " + (report != null ? report.describe() : "已中断"));
+        }
+        return report;
+    }
+}
@@ -0,0 +1,39 @@
+package com.example.mysqlautoin;
+
+import java.util.List;
+
+import static com.example.mysqlautoin.FixtureCheck.expect;
+
+// 检查 InstallPipeline 的依赖传递（失败步骤的下游不执行）与并行执行，以及 reg query 输出的解析
+final class InstallPipelineCheck {
+
+    private InstallPipelineCheck() {
+    }
+
+    static void verify(List<String> failures) throws InterruptedException {
+        InstallStep.Action sleep = context -> {
+            Thread.sleep(200);
+            return InstallStep.Outcome.SUCCEEDED;
+        };
+        InstallPipeline pipeline = new InstallPipeline()
+                .setParallelism(4)
+                .add(InstallStep.of("a", sleep))
+                .add(InstallStep.of("b", sleep))
+                .add(InstallStep.of("broken", context -> InstallStep.Outcome.FAILED))
+                .add(InstallStep.of("after-broken", sleep).after("a", "broken"))
+                .add(InstallStep.of("after-a", context -> InstallStep.Outcome.WARNED).after("a"));
+        InstallReport report = pipeline.run(new InstallContext(null, null, null, "3306", false,
+                InstallOptions.defaults(), new FakeProcessRunner(), msg -> { }));
+        expect(failures, report.getOutcome("broken") == InstallStep.Outcome.FAILED
+                        && report.getOutcome("after-broken") == InstallStep.Outcome.NOT_RUN
+                        && report.getOutcome("after-a") == InstallStep.Outcome.WARNED && !report.isSuccess(),
+                "InstallPipeline 依赖传递不正确:\n" + report.describe());
+        expect(failures, report.getStep("b").getStartMillis() < 200 && report.getTotalMillis() < 390,
+                "InstallPipeline 互不依赖的步骤未并行执行:\n" + report.describe());
+
+        String regOutput = "\r\nHKEY_LOCAL_MACHINE\\SYSTEM\\CurrentControlSet\\Control\\Session Manager\\Environment\r\n"
+                + "    Path    REG_EXPAND_SZ    %SystemRoot%\\system32;C:\\Program Files\\Git\\cmd\r\n\r\n";
+        String path = MySQLInstaller.parseRegValue(regOutput, "Path");
+        expect(failures, "%SystemRoot%\\system32;C:\\Program Files\\Git\\cmd".equals(path), "reg query 输出解析错误: " + path);
+    }
+}
@@ -0,0 +1,39 @@
+package com.example.mysqlautoin;
+
+import java.util.List;
+
+import static com.example.mysqlautoin.FixtureCheck.expect;
+
+// 检查缓冲池大小符合 MySQL 的取整规则且不超过每个实例可用的内存，以及 redo 选项随版本切换、磁盘类型解析
+final class MyIniTunerCheck {
+
+    private MyIniTunerCheck() {
+    }
+
+    static void verify(List<String> failures) {
+        for (long memory : new long[]{2 * MyIniTuner.GB, 16 * MyIniTuner.GB, 256 * MyIniTuner.GB}) {
+            for (int instances : new int[]{1, 3, 8}) {
+                for (MyIniTuner.Profile profile : MyIniTuner.Profile.values()) {
+                    MyIniTuner.Settings settings = MyIniTuner.tune(
+                            new MyIniTuner.Hardware(memory, 16, MyIniTuner.DiskType.SSD), instances, profile, "8.0.42");
+                    long pool = parseSize(settings.getValues().get("innodb_buffer_pool_size"));
+                    int poolInstances = Integer.parseInt(settings.getValues().get("innodb_buffer_pool_instances"));
+                    boolean aligned = pool >= MyIniTuner.BUFFER_POOL_CHUNK * poolInstances
+                            ? pool % (MyIniTuner.BUFFER_POOL_CHUNK * poolInstances) == 0 : poolInstances == 1;
+                    expect(failures, aligned && pool * instances <= memory
+                            && settings.getValues().containsKey("innodb_redo_log_capacity"), "性能参数不合理: " + settings.describe());
+                }
+            }
+        }
+        expect(failures, MyIniTuner.tune(new MyIniTuner.Hardware(MyIniTuner.GB * 8, 4, MyIniTuner.DiskType.HDD), 1,
+                        MyIniTuner.Profile.OLTP, "5.7.44").getValues().containsKey("innodb_log_file_size")
+                        && MyIniTuner.parseMediaType("SSD\r\n") == MyIniTuner.DiskType.SSD
+                        && MyIniTuner.parseMediaType("Unspecified") == MyIniTuner.DiskType.UNKNOWN,
+                "性能参数的版本或磁盘类型判断不正确");
+    }
+
+    private static long parseSize(String value) {
+        long number = Long.parseLong(value.substring(0, value.length() - 1));
+        return value.endsWith("G") ? number * MyIniTuner.GB : number * MyIniTuner.MB;
+    }
+}
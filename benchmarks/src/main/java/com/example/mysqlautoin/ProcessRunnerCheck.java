@@ -0,0 +1,51 @@
+package com.example.mysqlautoin;
+
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import static com.example.mysqlautoin.FixtureCheck.expect;
+
+// 检查进程超时：SystemProcessRunner 到时强制结束子进程并保留已读到的输出；FakeProcessRunner 的模拟延迟超过超时时同样报告超时
+final class ProcessRunnerCheck {
+
+    private ProcessRunnerCheck() {
+    }
+
+    // 子进程入口：输出一行后，带 --wait 参数时一直等待直到被结束
+    public static void main(String[] args) throws InterruptedException {
+        System.out.println("started");
+        if (args.length > 0 && args[0].equals("--wait")) {
+            Thread.sleep(Long.MAX_VALUE);
+        }
+    }
+
+    static void verify(List<String> failures) throws Exception {
+        String java = Paths.get(System.getProperty("java.home"), "bin", "java").toString();
+        String classPath = System.getProperty("java.class.path");
+        SystemProcessRunner runner = new SystemProcessRunner();
+
+        ProcessResult finished = runner.run(ProcessCommand.of(java, "-cp", classPath, ProcessRunnerCheck.class.getName()));
+        expect(failures, finished.isSuccess() && !finished.isTimedOut() && finished.getOutput().contains("started"),
+                "子进程未正常结束: " + finished);
+
+        List<String> lines = new CopyOnWriteArrayList<>();
+        ProcessResult hung = runner.start(ProcessCommand.of(java, "-cp", classPath, ProcessRunnerCheck.class.getName(), "--wait")
+                        .setTimeout(Duration.ofSeconds(3))
+                        .setLineConsumer(lines::add))
+                .get(30, TimeUnit.SECONDS);
+        expect(failures, hung.isTimedOut() && hung.getExitCode() == -1 && hung.getOutput().contains("started")
+                        && lines.contains("started") && hung.getElapsedMillis() < 15_000,
+                "超时的子进程未被结束或丢失了输出: " + hung);
+
+        FakeProcessRunner fake = new FakeProcessRunner().respond(".*", ProcessResult.of(0, "ok"), Duration.ofSeconds(5));
+        long start = System.nanoTime();
+        ProcessResult slow = fake.start(ProcessCommand.of("sc", "query").setTimeout(Duration.ofMillis(100)))
+                .get(10, TimeUnit.SECONDS);
+        long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        expect(failures, slow.isTimedOut() && slow.getExitCode() == -1 && elapsed < 2_000,
+                "FakeProcessRunner 的延迟超过超时未报告超时: " + slow + ", 用时 " + elapsed + " ms");
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.mysqlautoin;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+// 从“服务已启动”到确认可以连接的等待时间：GreetingStub 在 startupMillis 后才开始监听，
+// ReadinessProbe 的得分应略高于 startupMillis（退避的粒度），而原来的做法固定等待 5000 ms
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 10)
+@Fork(1)
+@State(Scope.Thread)
+public class ReadinessBenchmark {
+
+    @Param({"200", "1500"})
+    public int startupMillis;
+
+    private GreetingStub stub;
+
+    @Setup(Level.Invocation)
+    public void startServer() throws IOException {
+        stub = new GreetingStub("8.4.2", Duration.ofMillis(startupMillis));
+    }
+
+    @TearDown(Level.Invocation)
+    public void stopServer() throws IOException {
+        stub.close();
+    }
+
+    @Benchmark
+    public ReadinessProbe.Result awaitReady() throws InterruptedException {
+        return new ReadinessProbe("127.0.0.1", stub.getPort()).setDeadline(Duration.ofSeconds(10)).await();
+    }
+}
@@ -0,0 +1,31 @@
+package com.example.mysqlautoin;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+
+import static com.example.mysqlautoin.FixtureCheck.expect;
+
+// 用 GreetingStub 检查 ReadinessProbe 的握手解析，以及端口关闭时按期限放弃
+final class ReadinessProbeCheck {
+
+    private ReadinessProbeCheck() {
+    }
+
+    static void verify(List<String> failures) throws IOException, InterruptedException {
+        int port;
+        try (GreetingStub stub = new GreetingStub("8.4.2", Duration.ofMillis(300))) {
+            port = stub.getPort();
+            ReadinessProbe.Result result = new ReadinessProbe("127.0.0.1", port)
+                    .setDeadline(Duration.ofSeconds(5)).await();
+            expect(failures, result.isReady() && "8.4.2".equals(result.getGreeting().getServerVersion())
+                    && result.getGreeting().getProtocolVersion() == 10, "ReadinessProbe 未能识别握手包: " + result);
+        }
+
+        // 替身已关闭，同一端口不再监听
+        ReadinessProbe.Result closed = new ReadinessProbe("127.0.0.1", port)
+                .setDeadline(Duration.ofMillis(300)).await();
+        expect(failures, !closed.isReady() && closed.getElapsed().toMillis() <= 2000,
+                "ReadinessProbe 在端口关闭时未按期限放弃: " + closed);
+    }
+}
@@ -0,0 +1,81 @@
+package com.example.mysqlautoin;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// 服务发现的纯 CPU 部分：解析录制的 sc query 输出、筛选 MySQL 服务、从 BINARY_PATH_NAME 提取 bin 目录
+// 分配情况可加 -prof gc 查看（gc.alloc.rate.norm 为每次调用分配的字节数）
+// 不启动任何进程，也不调用 sc qc（binPath 查询传入空实现）
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ServiceDiscoveryBenchmark {
+
+    @Param({"sc-query-workstation.txt", "sc-query-server.txt"})
+    public String fixture;
+
+    private String scOutput;
+    private String[] serviceNames;
+    private String[] displayNames;
+    private String[] binaryPaths;
+
+    @Setup(Level.Trial)
+    public void loadFixtures() throws IOException {
+        scOutput = readFixture(fixture);
+
+        List<String> names = new ArrayList<>();
+        List<String> displays = new ArrayList<>();
+        for (String line : scOutput.split("\r?\n")) {
+            if (line.startsWith("SERVICE_NAME:")) names.add(line.substring("SERVICE_NAME:".length()).trim());
+            else if (line.startsWith("DISPLAY_NAME:")) displays.add(line.substring("DISPLAY_NAME:".length()).trim());
+        }
+        serviceNames = names.toArray(new String[0]);
+        displayNames = displays.toArray(new String[0]);
+        binaryPaths = readFixture("binary-paths.txt").split("\r?\n");
+    }
+
+    static String readFixture(String name) throws IOException {
+        try (InputStream in = ServiceDiscoveryBenchmark.class.getResourceAsStream("/fixtures/" + name)) {
+            if (in == null) throw new IOException("找不到基准数据: " + name);
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    @Benchmark
+    public List<WindowsServiceChecker.ServiceInfo> parseScQuery() throws IOException {
+        return WindowsServiceChecker.parseScQuery(new BufferedReader(new StringReader(scOutput)), name -> null);
+    }
+
+    // 生产路径：直接在 sc query 的整段输出上解析，不切分字符串
+    @Benchmark
+    public List<WindowsServiceChecker.ServiceInfo> parseScOutput() {
+        return ScQueryParser.parse(scOutput, name -> null);
+    }
+
+    @Benchmark
+    public void isValidMysqlService(Blackhole bh) {
+        for (int i = 0; i < serviceNames.length; i++) {
+            bh.consume(WindowsServiceChecker.isValidMysqlService(serviceNames[i], displayNames[i], null));
+        }
+    }
+
+    // extractBinPath 会检查可执行文件是否存在，这里保留该文件系统调用，与真实调用路径一致
+    @Benchmark
+    public void extractBinPath(Blackhole bh) {
+        for (String path : binaryPaths) {
+            bh.consume(WindowsServiceChecker.extractBinPath(path));
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.example.mysqlautoin;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+// 录制的 sc query / wmic 输出与 .expected 中的期望结果（每行 服务名|状态|显示名）逐条对比，sc query 同时走整段解析和 Reader 流式解析
+final class ServiceParsingCheck {
+
+    static final String[] SC_QUERY_FIXTURES = {
+            "sc-query-workstation.txt", "sc-query-server.txt", "sc-query-edge-cases.txt"
+    };
+    static final String[] WMIC_FIXTURES = {"wmic-services.csv"};
+
+    private ServiceParsingCheck() {
+    }
+
+    static void verify(List<String> failures) throws IOException {
+        for (String fixture : SC_QUERY_FIXTURES) {
+            String output = ServiceDiscoveryBenchmark.readFixture(fixture);
+            List<String> expected = expected(fixture);
+            compare(fixture, expected, ScQueryParser.parse(output, name -> null), failures);
+            compare(fixture + " (Reader)", expected,
+                    WindowsServiceChecker.parseScQuery(new BufferedReader(new StringReader(output)), name -> null), failures);
+        }
+        for (String fixture : WMIC_FIXTURES) {
+            String output = ServiceDiscoveryBenchmark.readFixture(fixture);
+            compare(fixture, expected(fixture), WindowsServiceChecker.parseWmicCsv(output), failures);
+        }
+    }
+
+    private static List<String> expected(String fixture) throws IOException {
+        String name = fixture.substring(0, fixture.lastIndexOf('.')) + ".expected";
+        List<String> lines = new ArrayList<>();
+        for (String line : ServiceDiscoveryBenchmark.readFixture(name).split("\r?\n")) {
+            if (!line.isEmpty()) lines.add(line);
+        }
+        return lines;
+    }
+
+    private static void compare(String fixture, List<String> expected, List<WindowsServiceChecker.ServiceInfo> actual,
+                                List<String> failures) {
+        List<String> got = new ArrayList<>();
+        for (WindowsServiceChecker.ServiceInfo service : actual) {
+            got.add(service.getName() + "|" + service.getState() + "|"
+                    + (service.getDisplayName() != null ? service.getDisplayName() : ""));
+        }
+        if (got.equals(expected)) return;
+
+        failures.add("❌ " + fixture + ": 期望 " + expected.size() + " 个服务，实际 " + got.size() + " 个");
+        for (String line : expected) {
+            if (!got.contains(line)) failures.add("   缺少: " + line);
+        }
+        for (String line : got) {
+            if (!expected.contains(line)) failures.add("   多出: " + line);
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.example.mysqlautoin;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// 一次完整的服务列表刷新：用 FakeProcessRunner 代替真实进程，每次进程调用模拟固定的启动开销，
+// 度量的是刷新过程中进程调用的次数和串行程度，而不是 sc 本身的速度
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ServiceRefreshBenchmark {
+
+    private static final Pattern SC_QC = Pattern.compile("sc qc \"([^\"]+)\"");
+
+    @Param({"sc-query-workstation.txt", "sc-query-server.txt"})
+    public String fixture;
+
+    // 在 Windows 上启动一次 cmd.exe + sc.exe 的典型耗时
+    @Param({"30"})
+    public int spawnMillis;
+
+    private ProcessRunner previous;
+
+    @Setup(Level.Trial)
+    public void installFakeRunner() throws IOException {
+        String scQuery = ServiceDiscoveryBenchmark.readFixture(fixture);
+        FakeProcessRunner fake = new FakeProcessRunner()
+                .respond("^sc query type= service", ProcessResult.of(0, scQuery))
+                .respond(c -> c.getCommandLine().startsWith("sc qc"), c -> ProcessResult.of(0, scQcOutput(c.getCommandLine())))
+                .setDefaultResult(ProcessResult.of(1, ""))
+                .setLatency(Duration.ofMillis(spawnMillis));
+        previous = ProcessRunner.getDefault();
+        ProcessRunner.setDefault(fake);
+    }
+
+    @TearDown(Level.Trial)
+    public void restoreRunner() {
+        ProcessRunner.setDefault(previous);
+    }
+
+    // 按批量命令中的服务名依次生成 sc qc 输出
+    private static String scQcOutput(String commandLine) {
+        StringBuilder sb = new StringBuilder();
+        Matcher m = SC_QC.matcher(commandLine);
+        while (m.find()) {
+            String name = m.group(1);
+            sb.append("[SC] QueryServiceConfig SUCCESS\r\n\r\n")
+                    .append("SERVICE_NAME: ").append(name).append("\r\n")
+                    .append("        TYPE               : 10  WIN32_OWN_PROCESS\r\n")
+                    .append("        START_TYPE         : 2   AUTO_START\r\n")
+                    .append("        ERROR_CONTROL      : 1   NORMAL\r\n")
+                    .append("        BINARY_PATH_NAME   : \"C:\\mysql\\").append(name)
+                    .append("\\bin\\mysqld.exe\" --defaults-file=\"C:\\mysql\\").append(name).append("\\my.ini\" ")
+                    .append(name).append("\r\n")
+                    .append("        DISPLAY_NAME       : ").append(name).append("\r\n\r\n");
+        }
+        return sb.toString();
+    }
+
+    @Benchmark
+    public List<WindowsServiceChecker.ServiceInfo> refresh() {
+        return WindowsServiceChecker.checkMysqlServices();
+    }
+
+    // 界面上连续触发的 5 次刷新（如启动服务后立刻点刷新）：经 ServiceRegistry 合并后最多执行两次服务发现
+    @Benchmark
+    public List<WindowsServiceChecker.ServiceInfo> refreshBurst() {
+        ServiceRegistry registry = new ServiceRegistry(ServiceRegistry.DEFAULT_TTL,
+                onUpdate -> WindowsServiceChecker.checkMysqlServices(WindowsServiceChecker.DiscoveryMode.PARALLEL, onUpdate));
+        List<CompletableFuture<List<WindowsServiceChecker.ServiceInfo>>> requests = new ArrayList<>();
+        for (int i = 0; i < 5; i++) requests.add(registry.refresh());
+        requests.forEach(CompletableFuture::join);
+        return requests.get(requests.size() - 1).join();
+    }
+}
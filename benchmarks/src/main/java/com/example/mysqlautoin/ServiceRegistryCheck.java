@@ -0,0 +1,65 @@
+package com.example.mysqlautoin;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.example.mysqlautoin.FixtureCheck.expect;
+
+// 检查 ServiceRegistry 把查询期间的多次强制刷新合并成一次补查，且同一次查询中先于首个结果到达的补充信息不会被覆盖
+final class ServiceRegistryCheck {
+
+    private static final WindowsServiceChecker.ServiceInfo BASIC =
+            new WindowsServiceChecker.ServiceInfo("MySQL80", "RUNNING", null, "MySQL80");
+    private static final WindowsServiceChecker.ServiceInfo ENRICHED =
+            new WindowsServiceChecker.ServiceInfo("MySQL80", "RUNNING", "\"C:\\mysql\\bin\\mysqld.exe\" MySQL80", "MySQL80");
+
+    private ServiceRegistryCheck() {
+    }
+
+    static void verify(List<String> failures) throws Exception {
+        AtomicInteger calls = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        ServiceRegistry registry = new ServiceRegistry(Duration.ofMinutes(1), onUpdate -> {
+            // 第一次查询一直挂起，直到所有刷新请求都已发出
+            if (calls.incrementAndGet() == 1) {
+                try {
+                    release.await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            return List.of(BASIC);
+        });
+        CompletableFuture<List<WindowsServiceChecker.ServiceInfo>> first = registry.refresh();
+        List<CompletableFuture<List<WindowsServiceChecker.ServiceInfo>>> burst = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            burst.add(registry.refresh());
+        }
+        release.countDown();
+        first.get(10, TimeUnit.SECONDS);
+        for (CompletableFuture<List<WindowsServiceChecker.ServiceInfo>> future : burst) {
+            future.get(10, TimeUnit.SECONDS);
+        }
+        registry.get().get(10, TimeUnit.SECONDS);
+        expect(failures, calls.get() == 2 && burst.stream().allMatch(f -> f == burst.get(0)) && burst.get(0) != first,
+                "重叠的刷新未合并: 服务发现执行了 " + calls.get() + " 次");
+
+        // 补充结果在首个结果返回之前就已送达（回调同步执行）
+        ServiceRegistry early = new ServiceRegistry(Duration.ofMinutes(1), onUpdate -> {
+            onUpdate.accept(List.of(ENRICHED));
+            return List.of(BASIC);
+        });
+        List<ServiceRegistry.Change> changes = new CopyOnWriteArrayList<>();
+        early.addListener(changes::add);
+        List<WindowsServiceChecker.ServiceInfo> result = early.refresh().get(10, TimeUnit.SECONDS);
+        expect(failures, result.equals(List.of(ENRICHED)) && early.peek().equals(List.of(ENRICHED))
+                        && !changes.isEmpty() && changes.get(changes.size() - 1).getSnapshot().equals(List.of(ENRICHED)),
+                "提前到达的补充信息被首个结果覆盖: " + early.peek());
+    }
+}
@@ -0,0 +1,189 @@
+package com.example.mysqlautoin;
+
+import org.tukaani.xz.LZMA2Options;
+import org.tukaani.xz.XZOutputStream;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+// 生成与 MySQL Windows 发行包形状相近的 ZIP：大量小文本文件（测试套件、字符集、错误信息）
+// 加上少量巨大的二进制文件（mysqld.exe、*.pdb、libmysql.dll），内容按固定种子生成，结果可复现
+public class SyntheticDistribution {
+
+    public static final String ROOT = "mysql-8.0.99-winx64";
+    public static final String TAR_ROOT = "mysql-8.0.99-linux-glibc2.28-x86_64";
+
+    public enum Shape {
+        // 回归检查用：几十个小文件 + 一个跨多个解压缓冲区的二进制文件
+        TINY(40, 1, 2L * 1024 * 1024 + 4321),
+        // 本地快速验证用
+        SMALL(600, 2, 8L * 1024 * 1024),
+        // 接近真实发行包：数千个小文件 + 几个数十 MB 的二进制文件
+        STANDARD(4000, 4, 48L * 1024 * 1024);
+
+        final int smallFiles;
+        final int hugeFiles;
+        final long hugeSize;
+
+        Shape(int smallFiles, int hugeFiles, long hugeSize) {
+            this.smallFiles = smallFiles;
+            this.hugeFiles = hugeFiles;
+            this.hugeSize = hugeSize;
+        }
+    }
+
+    private static final String[] SMALL_DIRS = {
+            "mysql-test/suite/innodb/t", "mysql-test/suite/innodb/r", "mysql-test/suite/rpl/t",
+            "mysql-test/suite/rpl/r", "mysql-test/include", "share/charsets", "share/english",
+            "share/chinese", "lib/plugin", "include/mysql", "docs"
+    };
+
+    private static final String[] HUGE_FILES = {
+            "bin/mysqld.exe", "bin/mysqld.pdb", "lib/libmysql.dll", "bin/mysqlpump.pdb",
+            "lib/plugin/group_replication.dll", "bin/mysql.exe"
+    };
+
+    private static final String[] WORDS = {
+            "SELECT", "INSERT", "UPDATE", "DELETE", "CREATE", "TABLE", "INDEX", "PRIMARY", "KEY",
+            "innodb", "buffer", "pool", "replication", "--source", "--echo", "let", "eval", "t1", "t2",
+            "VARCHAR(255)", "INT", "NOT", "NULL", "DEFAULT", "ENGINE=InnoDB", "CHARSET=utf8mb4", ";", "\n"
+    };
+
+    public static void write(Path zipPath, Shape shape, long seed) throws IOException {
+        Random random = new Random(seed);
+        try (ZipOutputStream zip = new ZipOutputStream(new BufferedOutputStream(Files.newOutputStream(zipPath), 1 << 16))) {
+            zip.putNextEntry(new ZipEntry(ROOT + "/"));
+            zip.closeEntry();
+            for (String dir : SMALL_DIRS) {
+                zip.putNextEntry(new ZipEntry(ROOT + "/" + dir + "/"));
+                zip.closeEntry();
+            }
+            zip.putNextEntry(new ZipEntry(ROOT + "/bin/"));
+            zip.closeEntry();
+
+            for (int i = 0; i < shape.smallFiles; i++) {
+                String dir = SMALL_DIRS[i % SMALL_DIRS.length];
+                zip.putNextEntry(new ZipEntry(ROOT + "/" + dir + "/file" + i + ".test"));
+                writeText(zip, 1024 + random.nextInt(24 * 1024), random);
+                zip.closeEntry();
+            }
+
+            for (int i = 0; i < shape.hugeFiles; i++) {
+                zip.putNextEntry(new ZipEntry(ROOT + "/" + HUGE_FILES[i % HUGE_FILES.length]));
+                writeBinary(zip, shape.hugeSize, random);
+                zip.closeEntry();
+            }
+        }
+    }
+
+    // 回归检查用的 tar 包，按扩展名选择 gzip 或 xz：目录、跨多个数据块的文件、空文件、超过 100 字节的 GNU 长路径和硬链接；
+    // 返回解压后应得到的文件内容
+    public static Map<String, byte[]> writeTar(Path archivePath, long seed) throws IOException {
+        Random random = new Random(seed);
+        Map<String, byte[]> files = new LinkedHashMap<>();
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        ByteArrayOutputStream tar = new ByteArrayOutputStream();
+        tarEntry(tar, TAR_ROOT + "/", '5', new byte[0], "");
+        tarEntry(tar, TAR_ROOT + "/bin/", '5', new byte[0], "");
+
+        writeBinary(buffer, 600 * 1024 + 77, random);
+        files.put(TAR_ROOT + "/bin/mysqld", buffer.toByteArray());
+        buffer.reset();
+        writeText(buffer, 3000, random);
+        files.put(TAR_ROOT + "/share/english/errmsg.sys", buffer.toByteArray());
+        files.put(TAR_ROOT + "/share/empty.cnf", new byte[0]);
+        buffer.reset();
+        writeText(buffer, 700, random);
+        files.put(TAR_ROOT + "/mysql-test/suite/innodb/t/" + "innodb_buffer_pool_resize_with_chunks_".repeat(3) + "test.test",
+                buffer.toByteArray());
+        for (Map.Entry<String, byte[]> file : files.entrySet()) {
+            tarEntry(tar, file.getKey(), '0', file.getValue(), "");
+        }
+        tarEntry(tar, TAR_ROOT + "/bin/mysqld-debug", '1', new byte[0], TAR_ROOT + "/bin/mysqld");
+        files.put(TAR_ROOT + "/bin/mysqld-debug", files.get(TAR_ROOT + "/bin/mysqld"));
+        tar.write(new byte[1024]);
+
+        try (OutputStream out = archivePath.getFileName().toString().toLowerCase(Locale.ROOT).endsWith(".xz")
+                ? new XZOutputStream(Files.newOutputStream(archivePath), new LZMA2Options(1))
+                : new GZIPOutputStream(Files.newOutputStream(archivePath))) {
+            tar.writeTo(out);
+        }
+        return files;
+    }
+
+    private static void tarEntry(ByteArrayOutputStream tar, String name, char type, byte[] data, String linkName)
+            throws IOException {
+        byte[] nameBytes = name.getBytes(StandardCharsets.UTF_8);
+        if (nameBytes.length > 100) {
+            byte[] longName = Arrays.copyOf(nameBytes, nameBytes.length + 1);
+            tarEntry(tar, "././@LongLink", 'L', longName, "");
+        }
+        byte[] header = new byte[512];
+        System.arraycopy(nameBytes, 0, header, 0, Math.min(nameBytes.length, 100));
+        tarNumber(header, 100, 8, type == '5' ? 0755 : 0644);
+        tarNumber(header, 108, 8, 0);
+        tarNumber(header, 116, 8, 0);
+        tarNumber(header, 124, 12, data.length);
+        tarNumber(header, 136, 12, 0);
+        header[156] = (byte) type;
+        byte[] link = linkName.getBytes(StandardCharsets.UTF_8);
+        System.arraycopy(link, 0, header, 157, link.length);
+        System.arraycopy(("ustar\u0000" + "00").getBytes(StandardCharsets.US_ASCII), 0, header, 257, 8);
+        Arrays.fill(header, 148, 156, (byte) ' ');
+        int sum = 0;
+        for (byte b : header) sum += b & 0xFF;
+        tarNumber(header, 148, 7, sum);
+        tar.write(header);
+        tar.write(data);
+        tar.write(new byte[(512 - data.length % 512) % 512]);
+    }
+
+    // 八进制文本，以 NUL 结尾
+    private static void tarNumber(byte[] header, int offset, int length, long value) {
+        String text = String.format("%0" + (length - 1) + "o", value);
+        System.arraycopy(text.getBytes(StandardCharsets.US_ASCII), 0, header, offset, length - 1);
+        header[offset + length - 1] = 0;
+    }
+
+    private static void writeText(OutputStream out, int size, Random random) throws IOException {
+        StringBuilder sb = new StringBuilder(size + 32);
+        while (sb.length() < size) {
+            sb.append(WORDS[random.nextInt(WORDS.length)]).append(' ');
+        }
+        out.write(sb.substring(0, size).getBytes(StandardCharsets.UTF_8));
+    }
+
+    // 可执行文件的压缩比通常在 2~3 倍：随机代码段、零填充和重复的导入表交替出现
+    private static void writeBinary(OutputStream out, long size, Random random) throws IOException {
+        byte[] block = new byte[4096];
+        long written = 0;
+        while (written < size) {
+            int kind = random.nextInt(4);
+            if (kind == 0) {
+                random.nextBytes(block);
+            } else if (kind == 1) {
+                Arrays.fill(block, (byte) 0);
+            } else {
+                for (int i = 0; i < block.length; i++) {
+                    block[i] = (byte) (random.nextInt(16) + (i & 0x3F));
+                }
+            }
+            int len = (int) Math.min(block.length, size - written);
+            out.write(block, 0, len);
+            written += len;
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.mysqlautoin;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static com.example.mysqlautoin.FixtureCheck.expect;
+
+// tar.gz / tar.xz 解压往返：长路径、硬链接和空文件的内容与写入时一致，校验和不匹配时回滚
+final class TarExtractionCheck {
+
+    private TarExtractionCheck() {
+    }
+
+    static void verify(List<String> failures) throws Exception {
+        FixtureCheck.inTempDirectory(work -> {
+            for (String name : List.of("dist.tar.gz", "dist.tar.xz")) {
+                Path archive = work.resolve(name);
+                Map<String, byte[]> files = SyntheticDistribution.writeTar(archive, 5);
+                ArchiveChecksum checksum = new ArchiveChecksum(ArchiveChecksum.SHA_256, DistributionCache.sha256(archive));
+                Path dest = work.resolve(name + "-out");
+                ExtractStats stats = new TarExtractor(ExtractionProfile.FULL).extract(archive.toString(), dest.toString(),
+                        checksum, msg -> { });
+                List<String> mismatched = new ArrayList<>();
+                for (Map.Entry<String, byte[]> file : files.entrySet()) {
+                    Path extracted = dest.resolve(file.getKey());
+                    if (!Files.isRegularFile(extracted) || !Arrays.equals(Files.readAllBytes(extracted), file.getValue())) {
+                        mismatched.add(file.getKey());
+                    }
+                }
+                long count;
+                try (Stream<Path> walk = Files.walk(dest)) {
+                    count = walk.filter(Files::isRegularFile).count();
+                }
+                expect(failures, mismatched.isEmpty() && count == files.size() && stats.getEntries() == files.size(),
+                        name + " 解压结果不正确: " + mismatched + ", " + count + " 个文件");
+
+                Path rejected = work.resolve(name + "-rejected");
+                boolean mismatch = false;
+                try {
+                    new TarExtractor(ExtractionProfile.FULL).extract(archive.toString(), rejected.toString(),
+                            new ArchiveChecksum(ArchiveChecksum.SHA_256, "0".repeat(64)), msg -> { });
+                } catch (ChecksumMismatchException e) {
+                    mismatch = true;
+                }
+                expect(failures, mismatch && !Files.exists(rejected.resolve(SyntheticDistribution.TAR_ROOT)),
+                        name + " 校验和不匹配时未回滚");
+            }
+        });
+    }
+}
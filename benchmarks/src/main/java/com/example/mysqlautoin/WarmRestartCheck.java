@@ -0,0 +1,26 @@
+package com.example.mysqlautoin;
+
+import java.util.List;
+
+import static com.example.mysqlautoin.FixtureCheck.expect;
+
+// 检查热重启对 Innodb_buffer_pool_load_status 各种取值的解析
+final class WarmRestartCheck {
+
+    private WarmRestartCheck() {
+    }
+
+    static void verify(List<String> failures) {
+        WarmRestart.LoadStatus loading = WarmRestart.parseLoadStatus("Loaded 5121/20480 pages");
+        WarmRestart.LoadStatus done = WarmRestart.parseLoadStatus("Buffer pool(s) load completed at 251017 10:15:02");
+        WarmRestart.LoadStatus missing = WarmRestart.parseLoadStatus(
+                "Cannot open 'C:\\mysql\\data\\ib_buffer_pool' for reading: No such file or directory");
+        WarmRestart.LoadStatus aborted = WarmRestart.parseLoadStatus("Buffer pool(s) load aborted on request");
+        expect(failures, loading.getState() == WarmRestart.LoadState.LOADING && Math.abs(loading.getFraction() - 0.25) <= 0.001
+                        && done.getState() == WarmRestart.LoadState.COMPLETED && done.getFraction() == 1
+                        && missing.getState() == WarmRestart.LoadState.FAILED && aborted.getState() == WarmRestart.LoadState.ABORTED
+                        && !WarmRestart.parseLoadStatus("Not started").isFinished(),
+                "缓冲池加载状态解析不正确: " + loading.getState() + " " + done.getState() + " "
+                        + missing.getState() + " " + aborted.getState());
+    }
+}
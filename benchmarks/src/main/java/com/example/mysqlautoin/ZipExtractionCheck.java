@@ -0,0 +1,328 @@
+package com.example.mysqlautoin;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import java.util.zip.ZipOutputStream;
+
+import static com.example.mysqlautoin.FixtureCheck.expect;
+
+// ZIP 解压往返：逐个文件与 java.util.zip 读出的内容和 CRC 比对，覆盖 STORED/DEFLATED/ZIP64 条目、CRC 损坏、
+// 截断文件后的断点续传、校验和不匹配时的回滚以及增量解压
+final class ZipExtractionCheck {
+
+    private static final String ROOT = SyntheticDistribution.ROOT + "/";
+    private static final String WRONG_SHA256 = "0".repeat(64);
+
+    private ZipExtractionCheck() {
+    }
+
+    static void verify(List<String> failures) throws Exception {
+        FixtureCheck.inTempDirectory(work -> {
+            Path synthetic = work.resolve("synthetic.zip");
+            SyntheticDistribution.write(synthetic, SyntheticDistribution.Shape.TINY, 42);
+            Path mixed = work.resolve("mixed.zip");
+            writeMixed(mixed);
+            Path zip64 = work.resolve("zip64.zip");
+            writeZip64(zip64, ROOT + "bin/zip64.bin", content(300_000, 7));
+
+            for (Path zip : List.of(synthetic, mixed, zip64)) {
+                roundTrip(failures, work, zip);
+            }
+            corruptedCrc(failures, work, mixed);
+            resume(failures, work, synthetic);
+            rollback(failures, work, synthetic);
+            delta(failures, work, synthetic);
+        });
+    }
+
+    private static void roundTrip(List<String> failures, Path work, Path zip) throws IOException {
+        String name = zip.getFileName().toString();
+        ArchiveChecksum checksum = new ArchiveChecksum(ArchiveChecksum.SHA_256, DistributionCache.sha256(zip));
+        Path parallel = work.resolve(name + "-parallel");
+        new ZipExtractor(4).extract(zip.toString(), parallel.toString(), msg -> { });
+        Path verified = work.resolve(name + "-verified");
+        new ZipExtractor(4).extract(zip.toString(), verified.toString(), checksum, msg -> { });
+        Path sequential = work.resolve(name + "-sequential");
+        ZipExtractor.extractSequential(zip.toString(), sequential.toString(), ExtractionProfile.FULL, checksum, msg -> { });
+        for (Path dest : List.of(parallel, verified, sequential)) {
+            String diff = compare(zip, dest);
+            expect(failures, diff == null, "解压结果与 " + name + " 不一致 (" + dest.getFileName() + "): " + diff);
+            FileTrees.deleteTree(dest);
+        }
+    }
+
+    // STORED 条目的数据被改动一个字节，带不带校验和都必须在写盘时发现 CRC 不一致
+    private static void corruptedCrc(List<String> failures, Path work, Path mixed) throws IOException {
+        Path corrupt = work.resolve("corrupt.zip");
+        Files.copy(mixed, corrupt);
+        try (FileChannel channel = FileChannel.open(corrupt, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            for (ZipCentralDirectory.Entry entry : ZipCentralDirectory.read(channel)) {
+                if (!entry.getName().equals(ROOT + "bin/mysqld.exe")) continue;
+                long position = ZipCentralDirectory.dataOffset(channel, entry) + 1000;
+                ByteBuffer b = ByteBuffer.allocate(1);
+                channel.read(b, position);
+                b.put(0, (byte) (b.get(0) ^ 0x5A)).rewind();
+                channel.write(b, position);
+            }
+        }
+        ArchiveChecksum checksum = new ArchiveChecksum(ArchiveChecksum.SHA_256, DistributionCache.sha256(corrupt));
+        for (ArchiveChecksum c : Arrays.asList(null, checksum)) {
+            String error = null;
+            try {
+                new ZipExtractor(4).extract(corrupt.toString(), work.resolve("corrupt-" + (c != null)).toString(), c, msg -> { });
+            } catch (IOException e) {
+                error = e.getMessage();
+            }
+            expect(failures, error != null && error.contains("CRC"),
+                    "STORED 条目数据损坏未被发现 (校验和: " + (c != null) + "): " + error);
+        }
+    }
+
+    // 模拟中断：解压日志记录了全部条目，但一个文件只写了一半、另一个被改坏，续传只重写这两个
+    private static void resume(List<String> failures, Path work, Path zip) throws IOException {
+        Path dest = work.resolve("resume");
+        ZipExtractor extractor = new ZipExtractor(4, ExtractionProfile.FULL, true);
+        extractor.extract(zip.toString(), dest.toString(), msg -> { });
+        try (FileChannel channel = FileChannel.open(zip, StandardOpenOption.READ);
+             ExtractionJournal journal = ExtractionJournal.open(dest, zip.toString())) {
+            for (ZipCentralDirectory.Entry entry : ZipCentralDirectory.read(channel)) {
+                if (!entry.isDirectory()) journal.record(entry);
+            }
+        }
+        Path truncated = dest.resolve(ROOT + "bin/mysqld.exe");
+        long truncatedSize = Files.size(truncated);
+        try (FileChannel channel = FileChannel.open(truncated, StandardOpenOption.WRITE)) {
+            channel.truncate(truncatedSize / 2);
+        }
+        Path damaged = dest.resolve(ROOT + "docs/file10.test");
+        byte[] bytes = Files.readAllBytes(damaged);
+        bytes[0] ^= 1;
+        Files.write(damaged, bytes);
+
+        List<String> log = new ArrayList<>();
+        ExtractStats stats = extractor.extract(zip.toString(), dest.toString(), log::add);
+        String diff = compare(zip, dest);
+        expect(failures, diff == null && stats.getBytes() == truncatedSize + bytes.length
+                        && log.stream().anyMatch(line -> line.startsWith("♻️ 断点续传"))
+                        && !Files.exists(dest.resolve(ExtractionJournal.FILE_NAME)),
+                "断点续传结果不正确: 写出 " + stats.getBytes() + " 字节, 期望 " + (truncatedSize + bytes.length) + " " + diff);
+    }
+
+    private static void rollback(List<String> failures, Path work, Path zip) throws IOException {
+        ArchiveChecksum wrong = new ArchiveChecksum(ArchiveChecksum.SHA_256, WRONG_SHA256);
+        Path fresh = work.resolve("rollback-fresh");
+        Path sequential = work.resolve("rollback-sequential");
+        boolean freshRejected = false;
+        boolean sequentialRejected = false;
+        try {
+            new ZipExtractor(4).extract(zip.toString(), fresh.toString(), wrong, msg -> { });
+        } catch (ChecksumMismatchException e) {
+            freshRejected = true;
+        }
+        try {
+            ZipExtractor.extractSequential(zip.toString(), sequential.toString(), ExtractionProfile.FULL, wrong, msg -> { });
+        } catch (ChecksumMismatchException e) {
+            sequentialRejected = true;
+        }
+        expect(failures, freshRejected && sequentialRejected
+                        && !Files.exists(fresh.resolve(ROOT)) && !Files.exists(sequential.resolve(ROOT)),
+                "校验和不匹配时未回滚新建的发行包目录");
+
+        // 解压到已有的安装目录：只删除本次写出的文件和新建的子目录，原有配置和数据保留
+        Path existing = work.resolve("rollback-existing");
+        Path myIni = existing.resolve(ROOT + "my.ini");
+        Path ibdata = existing.resolve(ROOT + "data/ibdata1");
+        Files.createDirectories(ibdata.getParent());
+        Files.writeString(myIni, "[mysqld]\nport=3306\n");
+        Files.writeString(ibdata, "ibdata1");
+        List<String> log = new ArrayList<>();
+        boolean existingRejected = false;
+        try {
+            new ZipExtractor(4, ExtractionProfile.FULL, true).extract(zip.toString(), existing.toString(), wrong, log::add);
+        } catch (ChecksumMismatchException e) {
+            existingRejected = true;
+        }
+        List<String> left = new ArrayList<>();
+        try (Stream<Path> walk = Files.walk(existing)) {
+            walk.filter(p -> !p.equals(existing)).forEach(p -> left.add(existing.relativize(p).toString().replace('\\', '/')));
+        }
+        left.sort(null);
+        expect(failures, existingRejected
+                        && left.equals(List.of(SyntheticDistribution.ROOT, ROOT + "data", ROOT + "data/ibdata1", ROOT + "my.ini"))
+                        && log.stream().anyMatch(line -> line.startsWith("↩️")),
+                "在已有目录上回滚不正确: " + left);
+    }
+
+    // 新版本改动一个文件、删除一个文件、新增一个文件，其余条目从旧版本目录复用，只写出变化的两个
+    private static void delta(List<String> failures, Path work, Path zip) throws IOException {
+        Path oldDir = work.resolve("delta-old");
+        new ZipExtractor(4).extract(zip.toString(), oldDir.toString(), msg -> { });
+        byte[] changed = content(5000, 11);
+        byte[] added = content(3000, 12);
+        Path next = work.resolve("next.zip");
+        try (ZipFile source = new ZipFile(zip.toFile());
+             ZipOutputStream out = new ZipOutputStream(Files.newOutputStream(next))) {
+            for (ZipEntry entry : Collections.list(source.entries())) {
+                if (entry.getName().equals(ROOT + "docs/file21.test")) continue;
+                out.putNextEntry(new ZipEntry(entry.getName()));
+                if (entry.getName().equals(ROOT + "docs/file10.test")) {
+                    out.write(changed);
+                } else {
+                    try (InputStream in = source.getInputStream(entry)) {
+                        in.transferTo(out);
+                    }
+                }
+                out.closeEntry();
+            }
+            out.putNextEntry(new ZipEntry(ROOT + "docs/added.test"));
+            out.write(added);
+            out.closeEntry();
+        }
+
+        Path newDir = work.resolve("delta-new");
+        List<String> log = new ArrayList<>();
+        ExtractStats stats = new ZipExtractor(4).extractDelta(next.toString(), newDir.resolve(SyntheticDistribution.ROOT),
+                oldDir.resolve(SyntheticDistribution.ROOT), log::add);
+        String diff = compare(next, newDir);
+        String oldDiff = compare(zip, oldDir);
+        expect(failures, diff == null && oldDiff == null && stats.getBytes() == changed.length + added.length
+                        && log.stream().anyMatch(line -> line.startsWith("🔁 增量解压")),
+                "增量解压结果不正确: 写出 " + stats.getBytes() + " 字节 " + diff + " / 旧目录 " + oldDiff);
+
+        // 条目落在新版本目录之外时，写出任何文件之前就拒绝
+        Path escaping = work.resolve("escaping.zip");
+        try (ZipOutputStream out = new ZipOutputStream(Files.newOutputStream(escaping))) {
+            out.putNextEntry(new ZipEntry(ROOT + "bin/mysqld.exe"));
+            out.write(changed);
+            out.closeEntry();
+            out.putNextEntry(new ZipEntry("mysql-other/bin/mysqld.exe"));
+            out.write(changed);
+            out.closeEntry();
+        }
+        Path rejectedDir = work.resolve("delta-rejected");
+        String error = null;
+        try {
+            new ZipExtractor(4).extractDelta(escaping.toString(), rejectedDir.resolve(SyntheticDistribution.ROOT),
+                    oldDir.resolve(SyntheticDistribution.ROOT), msg -> { });
+        } catch (IOException e) {
+            error = e.getMessage();
+        }
+        expect(failures, error != null && error.contains("不在新版本目录") && !Files.exists(rejectedDir.resolve(ROOT)),
+                "增量解压未拒绝新版本目录之外的条目: " + error);
+    }
+
+    // 与 java.util.zip 读出的内容逐个比对，返回第一处差异，一致时返回 null
+    static String compare(Path zip, Path dest) throws IOException {
+        Set<String> expected = new HashSet<>();
+        try (ZipFile zipFile = new ZipFile(zip.toFile())) {
+            for (ZipEntry entry : Collections.list(zipFile.entries())) {
+                if (entry.isDirectory()) continue;
+                expected.add(entry.getName());
+                Path file = dest.resolve(entry.getName());
+                if (!Files.isRegularFile(file)) return "缺少 " + entry.getName();
+                byte[] actual = Files.readAllBytes(file);
+                byte[] wanted;
+                try (InputStream in = zipFile.getInputStream(entry)) {
+                    wanted = in.readAllBytes();
+                }
+                CRC32 crc = new CRC32();
+                crc.update(actual);
+                if (crc.getValue() != entry.getCrc() || !Arrays.equals(actual, wanted)) {
+                    return "内容不一致 " + entry.getName();
+                }
+            }
+        }
+        List<String> extra = new ArrayList<>();
+        try (Stream<Path> walk = Files.walk(dest)) {
+            walk.filter(Files::isRegularFile)
+                    .map(f -> dest.relativize(f).toString().replace('\\', '/'))
+                    .filter(name -> !expected.contains(name))
+                    .forEach(extra::add);
+        }
+        return extra.isEmpty() ? null : "多出 " + extra;
+    }
+
+    // STORED 与 DEFLATED 混合，含空文件和中央目录中没有单独目录条目的子目录
+    private static void writeMixed(Path zipPath) throws IOException {
+        try (ZipOutputStream zip = new ZipOutputStream(Files.newOutputStream(zipPath))) {
+            zip.putNextEntry(new ZipEntry(ROOT));
+            zip.closeEntry();
+            putStored(zip, ROOT + "bin/mysqld.exe", content(3 * ZipEntryWriter.DEFAULT_BUFFER_SIZE + 17, 1));
+            putStored(zip, ROOT + "share/empty.cnf", new byte[0]);
+            zip.putNextEntry(new ZipEntry(ROOT + "lib/libmysql.dll"));
+            zip.write(content(2 * ZipEntryWriter.DEFAULT_BUFFER_SIZE + 5, 2));
+            zip.closeEntry();
+            zip.putNextEntry(new ZipEntry(ROOT + "share/english/errmsg.sys"));
+            zip.write(content(20_000, 3));
+            zip.closeEntry();
+            zip.putNextEntry(new ZipEntry(ROOT + "share/empty-deflated.cnf"));
+            zip.closeEntry();
+        }
+    }
+
+    private static void putStored(ZipOutputStream zip, String name, byte[] data) throws IOException {
+        ZipEntry entry = new ZipEntry(name);
+        CRC32 crc = new CRC32();
+        crc.update(data);
+        entry.setMethod(ZipEntry.STORED);
+        entry.setSize(data.length);
+        entry.setCompressedSize(data.length);
+        entry.setCrc(crc.getValue());
+        zip.putNextEntry(entry);
+        zip.write(data);
+        zip.closeEntry();
+    }
+
+    // ZipOutputStream 只在超过 4 GB 时才写 ZIP64 字段；这里手工写出一个 STORED 条目，大小、偏移和条目数都放在 ZIP64 记录中
+    private static void writeZip64(Path zipPath, String name, byte[] data) throws IOException {
+        byte[] nameBytes = name.getBytes(StandardCharsets.UTF_8);
+        CRC32 crc = new CRC32();
+        crc.update(data);
+        ByteBuffer buf = ByteBuffer.allocate(data.length + 2 * nameBytes.length + 256).order(ByteOrder.LITTLE_ENDIAN);
+        // 本地文件头 + ZIP64 扩展字段（原始大小、压缩大小）
+        buf.putInt(0x04034b50).putShort((short) 45).putShort((short) 0).putShort((short) 0).putInt(0)
+                .putInt((int) crc.getValue()).putInt(-1).putInt(-1)
+                .putShort((short) nameBytes.length).putShort((short) 20).put(nameBytes)
+                .putShort((short) 1).putShort((short) 16).putLong(data.length).putLong(data.length)
+                .put(data);
+        // 中央目录 + ZIP64 扩展字段（原始大小、压缩大小、本地头偏移）
+        long cenOffset = buf.position();
+        buf.putInt(0x02014b50).putShort((short) 45).putShort((short) 45).putShort((short) 0).putShort((short) 0).putInt(0)
+                .putInt((int) crc.getValue()).putInt(-1).putInt(-1)
+                .putShort((short) nameBytes.length).putShort((short) 28).putShort((short) 0)
+                .putShort((short) 0).putShort((short) 0).putInt(0).putInt(-1).put(nameBytes)
+                .putShort((short) 1).putShort((short) 24).putLong(data.length).putLong(data.length).putLong(0);
+        long cenSize = buf.position() - cenOffset;
+        // ZIP64 中央目录结束记录、定位器，以及数值全部置为 0xFFFF... 的普通结束记录
+        long zip64Eocd = buf.position();
+        buf.putInt(0x06064b50).putLong(44).putShort((short) 45).putShort((short) 45).putInt(0).putInt(0)
+                .putLong(1).putLong(1).putLong(cenSize).putLong(cenOffset);
+        buf.putInt(0x07064b50).putInt(0).putLong(zip64Eocd).putInt(1);
+        buf.putInt(0x06054b50).putShort((short) 0).putShort((short) 0).putShort((short) -1).putShort((short) -1)
+                .putInt(-1).putInt(-1).putShort((short) 0);
+        Files.write(zipPath, Arrays.copyOf(buf.array(), buf.position()));
+    }
+
+    // 一半随机、一半重复的内容，DEFLATED 条目既有可压缩部分也有不可压缩部分
+    static byte[] content(int size, long seed) {
+        Random random = new Random(seed);
+        byte[] data = new byte[size];
+        random.nextBytes(data);
+        for (int i = 0; i < size; i += 2) {
+            data[i] = (byte) (i & 0x3F);
+        }
+        return data;
+    }
+}
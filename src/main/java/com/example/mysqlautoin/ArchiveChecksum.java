@@ -0,0 +1,76 @@
+package com.example.mysqlautoin;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Locale;
+
+// 期望的发行包校验和，支持 "sha256:<hex>"、"md5:<hex>" 或按长度识别的裸十六进制串
+public class ArchiveChecksum {
+
+    public static final String SHA_256 = "SHA-256";
+    public static final String MD5 = "MD5";
+
+    private final String algorithm;
+    private final String expectedHex;
+
+    public ArchiveChecksum(String algorithm, String expectedHex) {
+        this.algorithm = algorithm;
+        this.expectedHex = expectedHex.toLowerCase(Locale.ROOT);
+    }
+
+    public static ArchiveChecksum parse(String value) {
+        String v = value.trim();
+        String algorithm = null;
+        int colon = v.indexOf(':');
+        if (colon > 0) {
+            String prefix = v.substring(0, colon).replace("-", "").toLowerCase(Locale.ROOT);
+            if (prefix.equals("sha256")) algorithm = SHA_256;
+            else if (prefix.equals("md5")) algorithm = MD5;
+            else throw new IllegalArgumentException("不支持的校验算法: " + v.substring(0, colon));
+            v = v.substring(colon + 1).trim();
+        }
+        if (!v.matches("[0-9a-fA-F]+")) {
+            throw new IllegalArgumentException("校验和必须是十六进制字符串");
+        }
+        if (algorithm == null) {
+            if (v.length() == 64) algorithm = SHA_256;
+            else if (v.length() == 32) algorithm = MD5;
+            else throw new IllegalArgumentException("无法根据长度识别校验算法: " + v.length() + " 位");
+        }
+        int expectedLength = algorithm.equals(SHA_256) ? 64 : 32;
+        if (v.length() != expectedLength) {
+            throw new IllegalArgumentException(algorithm + " 校验和长度应为 " + expectedLength + " 位");
+        }
+        return new ArchiveChecksum(algorithm, v);
+    }
+
+    public String getAlgorithm() { return algorithm; }
+    public String getExpectedHex() { return expectedHex; }
+
+    public MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance(algorithm);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("不支持的校验算法: " + algorithm, e);
+        }
+    }
+
+    public void verify(String actualHex) throws ChecksumMismatchException {
+        if (!expectedHex.equalsIgnoreCase(actualHex)) {
+            throw new ChecksumMismatchException(algorithm, expectedHex, actualHex);
+        }
+    }
+
+    public static String toHex(byte[] bytes) {
+        StringBuilder sb = new StringBuilder(bytes.length * 2);
+        for (byte b : bytes) {
+            sb.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+        }
+        return sb.toString();
+    }
+
+    @Override
+    public String toString() {
+        return algorithm + ":" + expectedHex;
+    }
+}
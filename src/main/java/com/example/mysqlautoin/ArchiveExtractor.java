@@ -0,0 +1,31 @@
+package com.example.mysqlautoin;
+
+import java.io.IOException;
+import java.util.Locale;
+import java.util.function.Consumer;
+
+// 发行包解压的统一入口：Windows ZIP 走并行的中央目录解压，Linux tar.gz / tar.xz 走流式流水线解压
+public interface ArchiveExtractor {
+
+    ExtractionProfile getProfile();
+
+    ExtractStats extract(String archivePath, String destDir, ArchiveChecksum checksum,
+                         Consumer<String> logConsumer) throws IOException;
+
+    static ArchiveExtractor forArchive(String archivePath, int workers, ExtractionProfile profile, boolean journaled) {
+        if (isTarArchive(archivePath)) {
+            return new TarExtractor(profile);
+        }
+        return new ZipExtractor(workers, profile, journaled);
+    }
+
+    static boolean isTarArchive(String archivePath) {
+        String lower = archivePath.toLowerCase(Locale.ROOT);
+        return lower.endsWith(".tar.gz") || lower.endsWith(".tgz")
+                || lower.endsWith(".tar.xz") || lower.endsWith(".txz");
+    }
+
+    static boolean isSupportedArchive(String archivePath) {
+        return isTarArchive(archivePath) || archivePath.toLowerCase(Locale.ROOT).endsWith(".zip");
+    }
+}
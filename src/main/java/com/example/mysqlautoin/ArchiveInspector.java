@@ -0,0 +1,182 @@
+package com.example.mysqlautoin;
+
+import org.tukaani.xz.SeekableFileInputStream;
+import org.tukaani.xz.SeekableXZInputStream;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.channels.FileChannel;
+import java.nio.file.*;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// 发行包预检：只读 ZIP 中央目录，在写入任何字节之前得到根目录、版本号和解压后大小
+public class ArchiveInspector {
+
+    private static final Pattern VERSION_PATTERN = Pattern.compile("mysql-(\\d+\\.\\d+\\.\\d+)", Pattern.CASE_INSENSITIVE);
+
+    // 除程序文件外，初始化数据目录（redo、undo、系统表空间）还需要的空间
+    public static final long DATA_DIR_RESERVE = 256L * 1024 * 1024;
+
+    public static class Inspection {
+        private final String archivePath;
+        private final String rootName;
+        private final String version;
+        private final boolean hasServer;
+        private final int entryCount;
+        private final long totalBytes;
+        private final boolean estimated;
+        private final long elapsedNanos;
+
+        Inspection(String archivePath, String rootName, String version, boolean hasServer,
+                   int entryCount, long totalBytes, boolean estimated, long elapsedNanos) {
+            this.archivePath = archivePath;
+            this.rootName = rootName;
+            this.version = version;
+            this.hasServer = hasServer;
+            this.entryCount = entryCount;
+            this.totalBytes = totalBytes;
+            this.estimated = estimated;
+            this.elapsedNanos = elapsedNanos;
+        }
+
+        public String getArchivePath() { return archivePath; }
+        // 唯一的顶层目录，如 mysql-8.0.42-winx64；发行包有多个顶层条目时为 null
+        public String getRootName() { return rootName; }
+        public String getVersion() { return version; }
+        public boolean hasServer() { return hasServer; }
+        public int getEntryCount() { return entryCount; }
+        public long getTotalBytes() { return totalBytes; }
+        // tar 包没有中央目录，大小取自压缩流尾部/索引，且未按解压配置过滤
+        public boolean isEstimated() { return estimated; }
+        public long getElapsedMillis() { return TimeUnit.NANOSECONDS.toMillis(elapsedNanos); }
+
+        public String describe() {
+            StringBuilder sb = new StringBuilder();
+            sb.append("MySQL ").append(version != null ? version : "未知版本");
+            sb.append("，根目录 ").append(rootName != null ? rootName : "未知");
+            if (entryCount >= 0) sb.append("，").append(entryCount).append(" 个文件");
+            sb.append(String.format("，解压后%s %.1f MB", estimated ? "约" : "", totalBytes / (1024.0 * 1024.0)));
+            if (!hasServer && !estimated) sb.append("，⚠️ 未找到 bin/mysqld");
+            sb.append(String.format(" (%d ms)", getElapsedMillis()));
+            return sb.toString();
+        }
+
+        @Override
+        public String toString() {
+            return describe();
+        }
+    }
+
+    public static Inspection inspect(String archivePath, ExtractionProfile profile) throws IOException {
+        if (ArchiveExtractor.isTarArchive(archivePath)) {
+            return inspectTar(archivePath);
+        }
+        long start = System.nanoTime();
+        String root = null;
+        boolean multipleRoots = false;
+        String version = null;
+        boolean hasServer = false;
+        int files = 0;
+        long total = 0;
+        try (FileChannel channel = FileChannel.open(Paths.get(archivePath), StandardOpenOption.READ)) {
+            for (ZipCentralDirectory.Entry entry : ZipCentralDirectory.read(channel)) {
+                String name = entry.getName().replace('\\', '/');
+                int slash = name.indexOf('/');
+                String top = slash > 0 ? name.substring(0, slash) : name;
+                if (slash <= 0 && !entry.isDirectory()) {
+                    multipleRoots = true;
+                } else if (root == null) {
+                    root = top;
+                } else if (!root.equals(top)) {
+                    multipleRoots = true;
+                }
+
+                String relative = ZipExtractor.stripRoot(name);
+                if (relative.equalsIgnoreCase("bin/mysqld.exe") || relative.equals("bin/mysqld")) {
+                    hasServer = true;
+                }
+                if (version == null) version = matchVersion(name);
+
+                if (entry.isDirectory() || !profile.accepts(entry.getName())) continue;
+                files++;
+                total += entry.getSize();
+            }
+        }
+        if (version == null) version = matchVersion(Paths.get(archivePath).getFileName().toString());
+        return new Inspection(archivePath, multipleRoots ? null : root, version, hasServer,
+                files, total, false, System.nanoTime() - start);
+    }
+
+    // tar 包只能从文件名推断根目录；解压后大小取 gzip 尾部 ISIZE 或 xz 索引，不需要解压数据
+    private static Inspection inspectTar(String archivePath) throws IOException {
+        long start = System.nanoTime();
+        Path path = Paths.get(archivePath);
+        String fileName = path.getFileName().toString();
+        String lower = fileName.toLowerCase(Locale.ROOT);
+        String root = fileName;
+        for (String ext : new String[]{".tar.gz", ".tgz", ".tar.xz", ".txz"}) {
+            if (lower.endsWith(ext)) {
+                root = fileName.substring(0, fileName.length() - ext.length());
+                break;
+            }
+        }
+
+        long compressed = Files.size(path);
+        long total;
+        if (lower.endsWith(".xz") || lower.endsWith(".txz")) {
+            try (SeekableXZInputStream xz = new SeekableXZInputStream(new SeekableFileInputStream(path.toFile()))) {
+                total = xz.length();
+            }
+        } else {
+            total = gzipSize(path, compressed);
+        }
+        return new Inspection(archivePath, root, matchVersion(fileName), false,
+                -1, total, true, System.nanoTime() - start);
+    }
+
+    // ISIZE 只保存低 32 位，发行包超过 4 GB 或被截断时按压缩比粗估
+    private static long gzipSize(Path path, long compressed) throws IOException {
+        if (compressed < 18) return compressed;
+        try (RandomAccessFile raf = new RandomAccessFile(path.toFile(), "r")) {
+            raf.seek(compressed - 4);
+            long isize = (raf.read() & 0xFFL) | (raf.read() & 0xFFL) << 8
+                    | (raf.read() & 0xFFL) << 16 | (raf.read() & 0xFFL) << 24;
+            return isize >= compressed ? isize : compressed * 4;
+        }
+    }
+
+    private static String matchVersion(String name) {
+        Matcher m = VERSION_PATTERN.matcher(name);
+        return m.find() ? m.group(1) : null;
+    }
+
+    // 安装目录尚未创建时，向上找到第一个已存在的目录来确定所在磁盘
+    public static long usableSpace(Path dir) throws IOException {
+        Path existing = dir.toAbsolutePath();
+        while (existing != null && !Files.exists(existing)) {
+            existing = existing.getParent();
+        }
+        if (existing == null) {
+            throw new IOException("无法确定安装目录所在磁盘: " + dir);
+        }
+        return Files.getFileStore(existing).getUsableSpace();
+    }
+
+    public static boolean checkFreeSpace(Inspection inspection, Path installDir, Consumer<String> logConsumer)
+            throws IOException {
+        long required = inspection.getTotalBytes() + DATA_DIR_RESERVE;
+        long usable = usableSpace(installDir);
+        if (usable < required) {
+            logConsumer.accept(String.format("❌ 磁盘空间不足: 需要 %.1f MB，可用 %.1f MB (%s)\n",
+                    required / (1024.0 * 1024.0), usable / (1024.0 * 1024.0), installDir));
+            return false;
+        }
+        logConsumer.accept(String.format("💾 磁盘空间充足: 需要 %.1f MB，可用 %.1f MB\n",
+                required / (1024.0 * 1024.0), usable / (1024.0 * 1024.0)));
+        return true;
+    }
+}
@@ -0,0 +1,158 @@
+package com.example.mysqlautoin;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.*;
+import java.util.concurrent.Semaphore;
+import java.util.function.Consumer;
+
+// 批量安装同一主机上的多个实例：发行包只解压一次，作为所有实例共用的程序目录（basedir，解压后设为只读），
+// 每个实例在 安装目录/instances/<端口> 下有自己的 my.ini 和数据目录，服务名为 MySQL<端口>
+// 各实例的 mysqld --initialize 以有限并发同时执行；某个实例初始化完成后立即注册并启动它的服务，
+// 与其他实例的初始化重叠，一个实例失败不影响其他实例
+public class BatchInstaller {
+
+    static final String INSTANCES_DIR = "instances";
+    static final String STEP_PROTECT = "程序目录设为只读";
+    static final int DEFAULT_INIT_CONCURRENCY = Math.max(1, Math.min(4, Runtime.getRuntime().availableProcessors() / 2));
+
+    public static class Instance {
+        private final String port;
+        private final String rootPassword;
+
+        public Instance(String port, String rootPassword) {
+            this.port = port;
+            this.rootPassword = rootPassword;
+        }
+
+        public String getPort() { return port; }
+        public String getRootPassword() { return rootPassword; }
+
+        @Override
+        public String toString() {
+            return "MySQL" + port;
+        }
+    }
+
+    // 每行一个实例：“端口 密码”，端口与密码之间用空白分隔，空行和 # 开头的行忽略
+    public static List<Instance> parseInstances(String text) {
+        List<Instance> instances = new ArrayList<>();
+        Set<String> ports = new HashSet<>();
+        int lineNumber = 0;
+        for (String line : text.split("\r?\n")) {
+            lineNumber++;
+            String trimmed = line.trim();
+            if (trimmed.isEmpty() || trimmed.startsWith("#")) continue;
+            String[] parts = trimmed.split("\\s+", 2);
+            if (parts.length < 2 || !parts[0].matches("\\d{1,5}")) {
+                throw new IllegalArgumentException("第 " + lineNumber + " 行应为“端口 密码”: " + trimmed);
+            }
+            int port = Integer.parseInt(parts[0]);
+            if (port < 1 || port > 65535) {
+                throw new IllegalArgumentException("第 " + lineNumber + " 行端口超出范围: " + port);
+            }
+            if (!ports.add(Integer.toString(port))) {
+                throw new IllegalArgumentException("端口 " + port + " 重复");
+            }
+            instances.add(new Instance(Integer.toString(port), parts[1].trim()));
+        }
+        if (instances.isEmpty()) throw new IllegalArgumentException("没有要安装的实例");
+        return instances;
+    }
+
+    static Path instanceDir(Path installPath, String port) {
+        return installPath.resolve(INSTANCES_DIR).resolve(port);
+    }
+
+    // 步骤：共享的管理员检测、发行包预检、解压、程序目录设为只读、读取/配置 PATH；每个实例各自的端口检查、生成配置、
+    // 初始化数据库（受并发上限限制）、注册服务、设置 root 密码
+    public static InstallReport install(String zipPath, String installDir, List<Instance> instances, boolean configureEnv,
+                                        InstallOptions options, Consumer<String> logConsumer) {
+        InstallContext shared = new InstallContext(zipPath, Paths.get(installDir), null, null, configureEnv,
+                options, ProcessRunner.getDefault(), logConsumer);
+        Semaphore initSlots = new Semaphore(options.getInitConcurrency());
+
+        // 每个实例同一时间最多有一个步骤在运行，另加共享步骤
+        InstallPipeline pipeline = new InstallPipeline()
+                .setParallelism(Math.max(InstallPipeline.DEFAULT_PARALLELISM, instances.size() + 4))
+                .add(InstallStep.of(MySQLInstaller.STEP_ADMIN, MySQLInstaller::checkAdmin))
+                .add(InstallStep.of(MySQLInstaller.STEP_INSPECT, MySQLInstaller::inspectArchive))
+                .add(InstallStep.of(MySQLInstaller.STEP_EXTRACT, MySQLInstaller::extract).after(MySQLInstaller.STEP_INSPECT))
+                .add(InstallStep.of(STEP_PROTECT, BatchInstaller::protectBasedir).after(MySQLInstaller.STEP_EXTRACT))
+                .add(InstallStep.of(MySQLInstaller.STEP_READ_PATH, MySQLInstaller::readMachinePath).after(MySQLInstaller.STEP_ADMIN))
+                .add(InstallStep.of(MySQLInstaller.STEP_PATH, MySQLInstaller::addToPath)
+                        .after(MySQLInstaller.STEP_EXTRACT, MySQLInstaller.STEP_READ_PATH));
+
+        List<InstallContext> contexts = new ArrayList<>();
+        for (Instance instance : instances) {
+            String port = instance.getPort();
+            InstallContext context = shared.forInstance(port, instance.getRootPassword(),
+                    instanceDir(shared.getInstallPath(), port));
+            context.setInstancesOnHost(instances.size());
+            contexts.add(context);
+
+            pipeline.add(InstallStep.of(step(MySQLInstaller.STEP_PORT, port), c -> MySQLInstaller.checkPort(context)))
+                    .add(InstallStep.of(step(MySQLInstaller.STEP_CONFIG, port), c -> {
+                        context.copySharedResults(shared);
+                        return MySQLInstaller.writeConfig(context);
+                    }).after(MySQLInstaller.STEP_EXTRACT, MySQLInstaller.STEP_ADMIN, step(MySQLInstaller.STEP_PORT, port)))
+                    .add(InstallStep.of(step(MySQLInstaller.STEP_INITIALIZE, port), c -> {
+                        initSlots.acquire();
+                        try {
+                            return MySQLInstaller.initializeDataDir(context);
+                        } finally {
+                            initSlots.release();
+                        }
+                    }).after(step(MySQLInstaller.STEP_CONFIG, port)))
+                    .add(InstallStep.of(step(MySQLInstaller.STEP_SERVICE, port), c -> MySQLInstaller.registerService(context))
+                            .after(step(MySQLInstaller.STEP_INITIALIZE, port)))
+                    .add(InstallStep.of(step(MySQLInstaller.STEP_PASSWORD, port), c -> MySQLInstaller.applyRootPassword(context))
+                            .after(step(MySQLInstaller.STEP_SERVICE, port)));
+        }
+
+        logConsumer.accept("📦 批量安装 " + instances.size() + " 个实例: " + instances
+                + "，同时初始化最多 " + options.getInitConcurrency() + " 个\n");
+        try {
+            InstallReport report = pipeline.run(shared);
+            contexts.forEach(MySQLInstaller::disarmFirstStartInitFile);
+            logConsumer.accept("📋 实例安装结果:\n");
+            for (InstallContext context : contexts) {
+                String port = context.getPort();
+                if (report.getOutcome(step(MySQLInstaller.STEP_PASSWORD, port)).isCompleted()) {
+                    logConsumer.accept("   🎉 " + context.getServiceName() + "  localhost:" + port + "  root  "
+                            + context.getInstanceDir() + "\n");
+                } else {
+                    logConsumer.accept("   ❌ " + context.getServiceName() + " 未完成\n");
+                }
+            }
+            if (!report.isSuccess()) {
+                logConsumer.accept("❌ 失败的步骤: " + String.join("、", report.getFailedSteps()) + "\n");
+            }
+            logConsumer.accept(report.describe());
+            return report;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            contexts.forEach(MySQLInstaller::disarmFirstStartInitFile);
+            logConsumer.accept("⏹ 批量安装已中断\n");
+            return null;
+        }
+    }
+
+    // 所有实例共用程序目录，任何一个实例（或误操作）改写其中的文件都会影响全部实例；
+    // 只读不影响运行，卸载和重新解压时会先去掉只读属性再删除
+    static InstallStep.Outcome protectBasedir(InstallContext context) {
+        try {
+            int files = FileTrees.makeTreeReadOnly(context.getMysqlRootDir());
+            context.log("🔒 共用的程序目录已设为只读: " + context.getMysqlRootDir() + "（" + files + " 个文件）\n");
+            return InstallStep.Outcome.SUCCEEDED;
+        } catch (IOException e) {
+            context.log("⚠️ 程序目录设为只读失败: " + e.getMessage() + "\n");
+            return InstallStep.Outcome.WARNED;
+        }
+    }
+
+    private static String step(String name, String port) {
+        return name + " " + port;
+    }
+}
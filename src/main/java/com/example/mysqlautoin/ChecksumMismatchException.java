@@ -0,0 +1,23 @@
+package com.example.mysqlautoin;
+
+import java.io.IOException;
+
+public class ChecksumMismatchException extends IOException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final String algorithm;
+    private final String expected;
+    private final String actual;
+
+    public ChecksumMismatchException(String algorithm, String expected, String actual) {
+        super("发行包校验失败 (" + algorithm + "): 期望 " + expected + "，实际 " + actual);
+        this.algorithm = algorithm;
+        this.expected = expected;
+        this.actual = actual;
+    }
+
+    public String getAlgorithm() { return algorithm; }
+    public String getExpected() { return expected; }
+    public String getActual() { return actual; }
+}
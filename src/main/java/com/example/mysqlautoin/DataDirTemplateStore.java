@@ -0,0 +1,227 @@
+package com.example.mysqlautoin;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
+
+// 数据目录模板：某个版本第一次安装时，把刚初始化完成的数据目录保存为模板；之后同版本（且初始化时不可更改的
+// 配置相同）的安装直接并行复制模板，不再执行 mysqld --initialize
+// 模板中不保存实例身份相关的文件：auto.cnf（server_uuid）、*.pem（证书和密钥）在首次启动时重新生成，
+// 错误日志、pid 和 binlog 也不复制；root 密码由安装流程在首次启动时通过一次性 init-file 设置
+// InnoDB 会原地改写数据文件，硬链接会让多个实例共用同一份文件，因此一律复制
+public class DataDirTemplateStore {
+
+    public enum Source { TEMPLATE, INITIALIZED }
+
+    @FunctionalInterface
+    public interface Initializer {
+        // 初始化 dataDir，返回是否成功
+        boolean initialize() throws IOException, InterruptedException;
+    }
+
+    private static final String DATA_DIR = "data";
+    private static final String META_FILE = "template.properties";
+    static final int COPY_WORKERS = 4;
+
+    // 影响 --initialize 结果、之后不能再修改的选项；取值不同的配置使用不同的模板
+    static final List<String> IMMUTABLE_OPTIONS = List.of(
+            "innodb_page_size", "lower_case_table_names", "innodb_data_file_path", "innodb_undo_tablespaces",
+            "innodb_checksum_algorithm", "default_authentication_plugin", "authentication_policy",
+            "character_set_server", "collation_server");
+
+    private static final Pattern BINLOG_FILE = Pattern.compile(".+\\.\\d{6}");
+
+    // 同一进程内同一模板只初始化一次（如批量安装时），其他实例等它完成后复制
+    private static final ConcurrentMap<Path, Object> LOCKS = new ConcurrentHashMap<>();
+
+    private final Path root;
+
+    public DataDirTemplateStore(Path root) {
+        this.root = root;
+    }
+
+    // 默认位于 %LOCALAPPDATA%\MysqlAuto\datadir-templates，可用 -Dmysqlauto.templates.dir 覆盖
+    public static DataDirTemplateStore defaultStore() {
+        String dir = System.getProperty("mysqlauto.templates.dir");
+        if (dir != null && !dir.isEmpty()) return new DataDirTemplateStore(Paths.get(dir));
+        String localAppData = System.getenv("LOCALAPPDATA");
+        return new DataDirTemplateStore(localAppData != null
+                ? Paths.get(localAppData, "MysqlAuto", "datadir-templates")
+                : Paths.get(System.getProperty("user.home"), ".mysqlauto", "datadir-templates"));
+    }
+
+    public Path getRoot() { return root; }
+
+    // 版本号 + my.ini 中不可更改选项的摘要，如 8.0.42-3f9a0c1d2e4b；没有这类选项时为 8.0.42-default
+    public static String key(String version, Path myIni) throws IOException {
+        Map<String, String> settings = immutableSettings(myIni);
+        String suffix = "default";
+        if (!settings.isEmpty()) {
+            try {
+                MessageDigest sha = MessageDigest.getInstance("SHA-256");
+                sha.update(settings.toString().getBytes(StandardCharsets.UTF_8));
+                suffix = ArchiveChecksum.toHex(sha.digest()).substring(0, 12);
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+        return version.replaceAll("[^A-Za-z0-9._-]", "_") + "-" + suffix;
+    }
+
+    // [mysqld] 段中的不可更改选项，键统一为小写下划线形式并排序
+    static Map<String, String> immutableSettings(Path myIni) throws IOException {
+        Map<String, String> settings = new TreeMap<>();
+        boolean inMysqld = false;
+        try (BufferedReader reader = Files.newBufferedReader(myIni, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String trimmed = line.trim();
+                if (trimmed.startsWith("[")) {
+                    inMysqld = trimmed.equalsIgnoreCase("[mysqld]");
+                    continue;
+                }
+                int eq = trimmed.indexOf('=');
+                if (!inMysqld || eq < 0 || trimmed.startsWith("#") || trimmed.startsWith(";")) continue;
+                String name = trimmed.substring(0, eq).trim().toLowerCase(Locale.ROOT).replace('-', '_');
+                if (IMMUTABLE_OPTIONS.contains(name)) settings.put(name, trimmed.substring(eq + 1).trim());
+            }
+        }
+        return settings;
+    }
+
+    public boolean has(String key) {
+        return Files.isRegularFile(root.resolve(key).resolve(META_FILE));
+    }
+
+    // 模板存在时复制到 dataDir（应为空目录）；不存在时调用 initializer 初始化 dataDir 并保存为模板
+    // 初始化失败返回 null；保存模板失败只记录警告，不影响本次安装
+    public Source populate(String key, Path dataDir, Initializer initializer, Consumer<String> logConsumer)
+            throws IOException, InterruptedException {
+        Path entry = root.resolve(key);
+        synchronized (LOCKS.computeIfAbsent(entry.toAbsolutePath().normalize(), k -> new Object())) {
+            if (!has(key)) {
+                logConsumer.accept("📥 没有 " + key + " 的数据目录模板，初始化后保存为模板\n");
+                if (!initializer.initialize()) return null;
+                try {
+                    snapshot(entry, dataDir, key, logConsumer);
+                } catch (IOException e) {
+                    logConsumer.accept("⚠️ 保存数据目录模板失败: " + e.getMessage() + "\n");
+                }
+                return Source.INITIALIZED;
+            }
+        }
+        copyFrom(entry, dataDir, logConsumer);
+        Files.setLastModifiedTime(entry.resolve(META_FILE), FileTime.fromMillis(System.currentTimeMillis()));
+        return Source.TEMPLATE;
+    }
+
+    private void snapshot(Path entry, Path dataDir, String key, Consumer<String> logConsumer) throws IOException {
+        Files.createDirectories(root);
+        // 先复制到临时目录再原子改名，避免其他安装进程看到半个模板
+        Path staging = Files.createTempDirectory(root, key + ".tmp-");
+        try {
+            long start = System.currentTimeMillis();
+            long[] totals = copyTree(dataDir, staging.resolve(DATA_DIR));
+            Properties meta = new Properties();
+            meta.setProperty("key", key);
+            meta.setProperty("files", Long.toString(totals[0]));
+            meta.setProperty("bytes", Long.toString(totals[1]));
+            try (Writer writer = Files.newBufferedWriter(staging.resolve(META_FILE))) {
+                meta.store(writer, "MysqlAuto data directory template");
+            }
+            try {
+                Files.move(staging, entry, StandardCopyOption.ATOMIC_MOVE);
+                logConsumer.accept(String.format("💾 已保存数据目录模板 %s: %d 个文件, %.1f MB, 用时 %.2f s%n",
+                        key, totals[0], totals[1] / 1048576.0, (System.currentTimeMillis() - start) / 1000.0));
+            } catch (FileAlreadyExistsException | DirectoryNotEmptyException e) {
+                // 其他安装进程已经保存了同一模板
+                FileTrees.deleteTree(staging);
+            }
+        } catch (IOException | RuntimeException e) {
+            FileTrees.deleteTree(staging);
+            throw e;
+        }
+    }
+
+    private static void copyFrom(Path entry, Path dataDir, Consumer<String> logConsumer) throws IOException {
+        long start = System.currentTimeMillis();
+        long[] totals = copyTree(entry.resolve(DATA_DIR), dataDir);
+        logConsumer.accept(String.format("♻️ 已从模板复制数据目录: %d 个文件, %.1f MB, 用时 %.2f s%n",
+                totals[0], totals[1] / 1048576.0, (System.currentTimeMillis() - start) / 1000.0));
+    }
+
+    // 不属于模板的文件：实例身份（auto.cnf、证书和密钥）、日志类文件以及缓冲池导出
+    static boolean isInstanceFile(String name) {
+        String lower = name.toLowerCase(Locale.ROOT);
+        return lower.equals("auto.cnf") || lower.equals("ib_buffer_pool") || lower.endsWith(".pem") || lower.endsWith(".err") || lower.endsWith(".pid")
+                || lower.endsWith(".index") || BINLOG_FILE.matcher(lower).matches();
+    }
+
+    // 先建好目录，再按文件从大到小并行复制（几个大的表空间和 redo 文件决定总耗时）；返回 {文件数, 字节数}
+    static long[] copyTree(Path source, Path target) throws IOException {
+        return copyTree(source, target, COPY_WORKERS);
+    }
+
+    static long[] copyTree(Path source, Path target, int workers) throws IOException {
+        List<Path> files = new ArrayList<>();
+        Map<Path, Long> sizes = new HashMap<>();
+        Files.walkFileTree(source, new SimpleFileVisitor<>() {
+            @Override
+            public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) throws IOException {
+                Files.createDirectories(target.resolve(source.relativize(dir).toString()));
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+                if (!isInstanceFile(file.getFileName().toString())) {
+                    files.add(file);
+                    sizes.put(file, attrs.size());
+                }
+                return FileVisitResult.CONTINUE;
+            }
+        });
+        files.sort(Comparator.comparing(sizes::get, Comparator.reverseOrder()));
+
+        ExecutorService pool = Executors.newFixedThreadPool(Math.max(1, Math.min(workers, files.size())), r -> {
+            Thread t = new Thread(r, "datadir-template-copy");
+            t.setDaemon(true);
+            return t;
+        });
+        try {
+            List<Future<?>> copies = new ArrayList<>(files.size());
+            for (Path file : files) {
+                Path dest = target.resolve(source.relativize(file).toString());
+                copies.add(pool.submit(() -> {
+                    Files.copy(file, dest, StandardCopyOption.REPLACE_EXISTING);
+                    return null;
+                }));
+            }
+            for (Future<?> copy : copies) copy.get();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) throw (IOException) cause;
+            throw new IOException("复制数据目录失败: " + cause.getMessage(), cause);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("复制数据目录被中断");
+        } finally {
+            pool.shutdownNow();
+        }
+
+        long bytes = 0;
+        for (long size : sizes.values()) bytes += size;
+        return new long[]{files.size(), bytes};
+    }
+}
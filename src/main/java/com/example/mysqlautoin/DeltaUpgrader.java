@@ -0,0 +1,146 @@
+package com.example.mysqlautoin;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// 补丁版本增量升级：新版本解压到旧 basedir 的同级目录，未变化的文件硬链接复用，
+// 只有切换 my.ini basedir 和服务路径、重启服务这一步需要停机
+public class DeltaUpgrader {
+
+    public static boolean upgrade(String zipPath, WindowsServiceChecker.ServiceInfo service,
+                                  ExtractionProfile profile, Consumer<String> logConsumer) {
+        try {
+            if (service.getBinPath() == null) {
+                logConsumer.accept("❌ 未找到服务对应的安装目录，无法升级: " + service.getName() + "\n");
+                return false;
+            }
+            if (!WindowsServiceChecker.isAdmin()) {
+                logConsumer.accept("❌ 当前非管理员，无法修改服务配置\n");
+                return false;
+            }
+
+            Path oldBase = Paths.get(service.getBinPath()).getParent().toAbsolutePath().normalize();
+            String commandLine = WindowsServiceChecker.getServiceCommandLine(service.getName());
+            if (commandLine == null) {
+                logConsumer.accept("❌ 无法读取服务启动命令: " + service.getName() + "\n");
+                return false;
+            }
+            // 批量安装的实例的 my.ini 在 instances\<端口> 下，以服务的 --defaults-file 为准，没有时才取 basedir 下的 my.ini
+            Path myIni = WindowsServiceChecker.extractDefaultsFile(commandLine);
+            if (myIni == null) myIni = oldBase.resolve("my.ini");
+            if (!Files.isRegularFile(myIni)) {
+                logConsumer.accept("❌ 未找到配置文件: " + myIni + "\n");
+                return false;
+            }
+
+            String rootName = archiveRootName(zipPath);
+            Path newBase = oldBase.resolveSibling(rootName);
+            if (newBase.toString().equalsIgnoreCase(oldBase.toString())) {
+                logConsumer.accept("ℹ️ 新发行包与当前版本目录相同，无需升级: " + rootName + "\n");
+                return false;
+            }
+
+            // 1. 服务继续运行，增量准备新版本目录
+            logConsumer.accept("⚙️ 准备新版本目录: " + newBase + "\n");
+            int workers = Integer.getInteger("mysqlauto.unzip.workers", ZipExtractor.DEFAULT_WORKERS);
+            new ZipExtractor(Math.max(1, workers), profile, true)
+                    .extractDelta(zipPath, newBase, oldBase, logConsumer);
+            if (!Files.exists(MySQLInstaller.executable(newBase.resolve("bin"), "mysqld"))) {
+                logConsumer.accept("❌ 新版本目录中未找到 mysqld，升级中止\n");
+                return false;
+            }
+
+            // 2. 停止服务，切换 basedir 和服务路径
+            boolean wasRunning = "正在运行".equals(service.getState());
+            StringBuilder log = new StringBuilder();
+            if (wasRunning && !WindowsServiceChecker.startStopService(service.getName(), false, log)) {
+                logConsumer.accept(log.toString());
+                logConsumer.accept("❌ 停止服务失败，升级中止（新版本目录已保留）\n");
+                return false;
+            }
+            logConsumer.accept(log.toString());
+
+            List<String> originalIni = Files.readAllLines(myIni, StandardCharsets.UTF_8);
+            String newCommandLine = replaceIgnoreCase(commandLine,
+                    oldBase.resolve("bin").toString(), newBase.resolve("bin").toString());
+            Files.write(myIni, rewriteBasedir(originalIni, newBase), StandardCharsets.UTF_8);
+            if (!configureBinPath(service.getName(), newCommandLine)) {
+                Files.write(myIni, originalIni, StandardCharsets.UTF_8);
+                logConsumer.accept("❌ 修改服务路径失败，已恢复 my.ini\n");
+                restart(service.getName(), wasRunning, logConsumer);
+                return false;
+            }
+            logConsumer.accept("📄 已切换 basedir: " + newBase + "\n");
+
+            // 3. 启动新版本，失败则回退到旧版本
+            log.setLength(0);
+            if (WindowsServiceChecker.startStopService(service.getName(), true, log)) {
+                logConsumer.accept(log.toString());
+                logConsumer.accept("🎉 升级完成: " + oldBase.getFileName() + " → " + newBase.getFileName() + "\n");
+                if (myIni.startsWith(oldBase)) {
+                    logConsumer.accept("💡 旧版本目录仍包含数据目录和 my.ini，请勿删除: " + oldBase + "\n");
+                } else {
+                    logConsumer.accept("💡 旧版本目录可能仍被同一主机上的其他实例使用，确认后再删除: " + oldBase + "\n");
+                }
+                return true;
+            }
+            logConsumer.accept(log.toString());
+            logConsumer.accept("❌ 新版本启动失败，回退到旧版本\n");
+            Files.write(myIni, originalIni, StandardCharsets.UTF_8);
+            configureBinPath(service.getName(), commandLine);
+            restart(service.getName(), wasRunning, logConsumer);
+            return false;
+        } catch (Exception e) {
+            logConsumer.accept("❌ 升级失败: " + e.getMessage() + "\n");
+            return false;
+        }
+    }
+
+    // 发行包唯一的顶层目录名，如 mysql-8.0.42-winx64
+    static String archiveRootName(String zipPath) throws IOException {
+        String root = ArchiveInspector.inspect(zipPath, ExtractionProfile.FULL).getRootName();
+        if (root == null) {
+            throw new IOException("发行包包含多个顶层条目，无法识别根目录");
+        }
+        return root;
+    }
+
+    static List<String> rewriteBasedir(List<String> lines, Path newBase) {
+        List<String> result = new ArrayList<>(lines.size());
+        boolean inMysqld = false;
+        for (String line : lines) {
+            String trimmed = line.trim();
+            if (trimmed.startsWith("[")) {
+                inMysqld = trimmed.equalsIgnoreCase("[mysqld]");
+            } else if (inMysqld && trimmed.toLowerCase().startsWith("basedir")) {
+                line = "basedir=" + newBase.toAbsolutePath().toString().replace("\\", "\\\\");
+            }
+            result.add(line);
+        }
+        return result;
+    }
+
+    private static String replaceIgnoreCase(String text, String target, String replacement) {
+        Matcher m = Pattern.compile(Pattern.quote(target), Pattern.CASE_INSENSITIVE).matcher(text);
+        return m.replaceAll(Matcher.quoteReplacement(replacement));
+    }
+
+    private static boolean configureBinPath(String serviceName, String commandLine) throws IOException, InterruptedException {
+        String scCommand = "sc config \"" + serviceName + "\" binPath= \"" + commandLine.replace("\"", "\\\"") + "\"";
+        return ProcessRunner.getDefault().run(ProcessCommand.shell(scCommand)
+                .setTimeout(WindowsServiceChecker.QUERY_TIMEOUT)).isSuccess();
+    }
+
+    private static void restart(String serviceName, boolean wasRunning, Consumer<String> logConsumer) {
+        if (!wasRunning) return;
+        StringBuilder log = new StringBuilder();
+        WindowsServiceChecker.startStopService(serviceName, true, log);
+        logConsumer.accept(log.toString());
+    }
+}
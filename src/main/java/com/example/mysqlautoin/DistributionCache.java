@@ -0,0 +1,239 @@
+package com.example.mysqlautoin;
+
+import java.io.*;
+import java.nio.file.*;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+import java.util.function.Consumer;
+
+// 按 ZIP 的 SHA-256 缓存解压结果；命中时用硬链接（跨卷时退化为复制）填充安装目录，按总大小做 LRU 淘汰
+public class DistributionCache {
+
+    public static final long DEFAULT_MAX_BYTES = 4L * 1024 * 1024 * 1024;
+
+    private static final String TREE_DIR = "tree";
+    private static final String META_FILE = "entry.properties";
+
+    private final Path root;
+    private final long maxBytes;
+
+    public DistributionCache(Path root, long maxBytes) {
+        this.root = root;
+        this.maxBytes = maxBytes;
+    }
+
+    // 默认位于 %LOCALAPPDATA%\MysqlAuto\dist-cache，可用 -Dmysqlauto.cache.dir / -Dmysqlauto.cache.maxBytes 覆盖
+    public static DistributionCache defaultCache() {
+        String dir = System.getProperty("mysqlauto.cache.dir");
+        Path root;
+        if (dir != null && !dir.isEmpty()) {
+            root = Paths.get(dir);
+        } else {
+            String localAppData = System.getenv("LOCALAPPDATA");
+            root = localAppData != null
+                    ? Paths.get(localAppData, "MysqlAuto", "dist-cache")
+                    : Paths.get(System.getProperty("user.home"), ".mysqlauto", "dist-cache");
+        }
+        long maxBytes = Long.getLong("mysqlauto.cache.maxBytes", DEFAULT_MAX_BYTES);
+        return new DistributionCache(root, maxBytes);
+    }
+
+    public Path getRoot() { return root; }
+    public long getMaxBytes() { return maxBytes; }
+
+    public static class PopulateResult {
+        private final String sha256;
+        private final boolean hit;
+        private final int linkedFiles;
+        private final int copiedFiles;
+        private final long elapsedMillis;
+
+        public PopulateResult(String sha256, boolean hit, int linkedFiles, int copiedFiles, long elapsedMillis) {
+            this.sha256 = sha256;
+            this.hit = hit;
+            this.linkedFiles = linkedFiles;
+            this.copiedFiles = copiedFiles;
+            this.elapsedMillis = elapsedMillis;
+        }
+
+        public String getSha256() { return sha256; }
+        public boolean isHit() { return hit; }
+        public int getLinkedFiles() { return linkedFiles; }
+        public int getCopiedFiles() { return copiedFiles; }
+        public long getElapsedMillis() { return elapsedMillis; }
+    }
+
+    // 用缓存中的发行包填充安装目录；未命中时先解压进缓存再填充
+    public PopulateResult populate(String zipFilePath, Path installDir, ArchiveExtractor extractor,
+                                   Consumer<String> logConsumer) throws IOException {
+        return populate(zipFilePath, installDir, extractor, null, logConsumer);
+    }
+
+    // 缓存键本身就是完整读一遍 ZIP 得到的 SHA-256，期望校验和在同一遍读取中一并验证
+    public PopulateResult populate(String zipFilePath, Path installDir, ArchiveExtractor extractor,
+                                   ArchiveChecksum checksum, Consumer<String> logConsumer) throws IOException {
+        long start = System.currentTimeMillis();
+        MessageDigest extra = checksum != null && !checksum.getAlgorithm().equals(ArchiveChecksum.SHA_256)
+                ? checksum.newDigest() : null;
+        String sha256 = sha256(Paths.get(zipFilePath), extra);
+        if (checksum != null) {
+            try {
+                checksum.verify(extra != null ? ArchiveChecksum.toHex(extra.digest()) : sha256);
+            } catch (ChecksumMismatchException e) {
+                logConsumer.accept("❌ " + e.getMessage() + "\n");
+                throw e;
+            }
+            logConsumer.accept("✅ 发行包校验通过 (" + checksum.getAlgorithm() + ")\n");
+        }
+        String key = sha256 + "-" + extractor.getProfile().getName().replaceAll("[^A-Za-z0-9._-]", "_");
+        Path entryDir = root.resolve(key);
+        boolean hit = Files.isRegularFile(entryDir.resolve(META_FILE));
+
+        if (hit) {
+            logConsumer.accept("♻️ 命中发行包缓存: " + entryDir + "\n");
+        } else {
+            logConsumer.accept("📥 发行包缓存未命中，解压到缓存: " + entryDir + "\n");
+            fill(zipFilePath, entryDir, extractor, logConsumer);
+        }
+        touch(entryDir);
+
+        int[] counts = linkTree(entryDir.resolve(TREE_DIR), installDir);
+        long elapsed = System.currentTimeMillis() - start;
+        logConsumer.accept(String.format("🔗 已从缓存填充安装目录: %d 个硬链接, %d 个复制, 用时 %.2f s%n",
+                counts[0], counts[1], elapsed / 1000.0));
+
+        evict(entryDir, logConsumer);
+        return new PopulateResult(sha256, hit, counts[0], counts[1], elapsed);
+    }
+
+    private void fill(String zipFilePath, Path entryDir, ArchiveExtractor extractor, Consumer<String> logConsumer) throws IOException {
+        Files.createDirectories(root);
+        // 先解压到临时目录再原子改名，避免并发安装或中途崩溃留下半成品
+        Path staging = Files.createTempDirectory(root, entryDir.getFileName() + ".tmp-");
+        try {
+            ExtractStats stats = extractor.extract(zipFilePath, staging.resolve(TREE_DIR).toString(), null, logConsumer);
+            Properties meta = new Properties();
+            meta.setProperty("zip", Paths.get(zipFilePath).getFileName().toString());
+            meta.setProperty("profile", extractor.getProfile().getName());
+            meta.setProperty("bytes", Long.toString(stats.getBytes()));
+            try (Writer writer = Files.newBufferedWriter(staging.resolve(META_FILE))) {
+                meta.store(writer, "MysqlAuto distribution cache entry");
+            }
+            try {
+                Files.move(staging, entryDir, StandardCopyOption.ATOMIC_MOVE);
+            } catch (FileAlreadyExistsException | DirectoryNotEmptyException e) {
+                // 其他安装进程已经填充了同一条目
+                FileTrees.deleteTree(staging);
+            }
+        } catch (IOException | RuntimeException e) {
+            FileTrees.deleteTree(staging);
+            throw e;
+        }
+    }
+
+    // 返回 {硬链接数, 复制数}
+    private static int[] linkTree(Path source, Path target) throws IOException {
+        int[] counts = new int[2];
+        boolean[] linksSupported = {true};
+        Files.walkFileTree(source, new SimpleFileVisitor<>() {
+            @Override
+            public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) throws IOException {
+                Files.createDirectories(target.resolve(source.relativize(dir).toString()));
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
+                Path dest = target.resolve(source.relativize(file).toString());
+                FileTrees.deleteFile(dest);
+                if (linksSupported[0]) {
+                    try {
+                        // 缓存文件设为只读：安装目录里的硬链接与缓存共用同一文件，原地改写会同时破坏缓存和其他实例
+                        FileTrees.makeReadOnly(file);
+                        Files.createLink(dest, file);
+                        counts[0]++;
+                        return FileVisitResult.CONTINUE;
+                    } catch (UnsupportedOperationException | FileSystemException e) {
+                        // 跨卷或文件系统不支持硬链接，后续文件直接复制
+                        linksSupported[0] = false;
+                    }
+                }
+                Files.copy(file, dest, StandardCopyOption.REPLACE_EXISTING);
+                // 复制出的文件是独立的，不保留缓存的只读属性
+                dest.toFile().setWritable(true);
+                counts[1]++;
+                return FileVisitResult.CONTINUE;
+            }
+        });
+        return counts;
+    }
+
+    // 按最近使用时间淘汰，直到总大小不超过上限；刚使用的条目不淘汰
+    private void evict(Path keep, Consumer<String> logConsumer) {
+        List<Path> entries = new ArrayList<>();
+        Map<Path, Long> sizes = new HashMap<>();
+        Map<Path, FileTime> lastUsed = new HashMap<>();
+        long total = 0;
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(root)) {
+            for (Path dir : stream) {
+                Path meta = dir.resolve(META_FILE);
+                if (!Files.isRegularFile(meta)) continue;
+                Properties props = new Properties();
+                try (Reader reader = Files.newBufferedReader(meta)) {
+                    props.load(reader);
+                }
+                long size = Long.parseLong(props.getProperty("bytes", "0"));
+                entries.add(dir);
+                sizes.put(dir, size);
+                lastUsed.put(dir, Files.getLastModifiedTime(meta));
+                total += size;
+            }
+        } catch (IOException | NumberFormatException e) {
+            logConsumer.accept("⚠️ 读取发行包缓存失败: " + e.getMessage() + "\n");
+            return;
+        }
+
+        entries.sort(Comparator.comparing(lastUsed::get));
+        for (Path dir : entries) {
+            if (total <= maxBytes) break;
+            if (dir.equals(keep)) continue;
+            try {
+                FileTrees.deleteTree(dir);
+                total -= sizes.get(dir);
+                logConsumer.accept("🗑 淘汰发行包缓存: " + dir.getFileName() + "\n");
+            } catch (IOException e) {
+                logConsumer.accept("⚠️ 淘汰发行包缓存失败: " + dir + " (" + e.getMessage() + ")\n");
+            }
+        }
+    }
+
+    private static void touch(Path entryDir) throws IOException {
+        Files.setLastModifiedTime(entryDir.resolve(META_FILE), FileTime.fromMillis(System.currentTimeMillis()));
+    }
+
+    public static String sha256(Path file) throws IOException {
+        return sha256(file, null);
+    }
+
+    // extra 不为空时在同一遍读取中顺带更新
+    static String sha256(Path file, MessageDigest extra) throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IOException("不支持 SHA-256", e);
+        }
+        byte[] buffer = new byte[1024 * 1024];
+        try (InputStream in = Files.newInputStream(file)) {
+            int len;
+            while ((len = in.read(buffer)) > 0) {
+                digest.update(buffer, 0, len);
+                if (extra != null) extra.update(buffer, 0, len);
+            }
+        }
+        return ArchiveChecksum.toHex(digest.digest());
+    }
+}
@@ -0,0 +1,57 @@
+package com.example.mysqlautoin;
+
+import java.util.concurrent.TimeUnit;
+
+// 解压统计，用于对比不同解压路径的吞吐
+public class ExtractStats {
+
+    private final int entries;
+    private final long bytes;
+    private final long elapsedNanos;
+    private final int workers;
+    private final int skippedEntries;
+    private final long skippedBytes;
+
+    public ExtractStats(int entries, long bytes, long elapsedNanos, int workers) {
+        this(entries, bytes, elapsedNanos, workers, 0, 0);
+    }
+
+    public ExtractStats(int entries, long bytes, long elapsedNanos, int workers, int skippedEntries, long skippedBytes) {
+        this.entries = entries;
+        this.bytes = bytes;
+        this.elapsedNanos = elapsedNanos;
+        this.workers = workers;
+        this.skippedEntries = skippedEntries;
+        this.skippedBytes = skippedBytes;
+    }
+
+    public int getEntries() { return entries; }
+    public long getBytes() { return bytes; }
+    public long getElapsedMillis() { return TimeUnit.NANOSECONDS.toMillis(elapsedNanos); }
+    public int getWorkers() { return workers; }
+    public int getSkippedEntries() { return skippedEntries; }
+    public long getSkippedBytes() { return skippedBytes; }
+
+    // 按本次实际吞吐估算被跳过的条目本来需要的解压时间
+    public long getEstimatedSavedMillis() {
+        if (bytes <= 0 || skippedBytes <= 0) return 0;
+        return TimeUnit.NANOSECONDS.toMillis((long) (elapsedNanos * ((double) skippedBytes / bytes)));
+    }
+
+    public String describeSavings() {
+        return String.format("跳过 %d 个文件, 节省 %.1f MB 写入, 预计节省 %.2f s",
+                skippedEntries, skippedBytes / (1024.0 * 1024.0), getEstimatedSavedMillis() / 1000.0);
+    }
+
+    public double getMegabytesPerSecond() {
+        if (elapsedNanos <= 0) return 0;
+        return (bytes / (1024.0 * 1024.0)) / (elapsedNanos / 1_000_000_000.0);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d 个文件, %.1f MB, %.2f s, %.1f MB/s, %d 线程",
+                entries, bytes / (1024.0 * 1024.0), elapsedNanos / 1_000_000_000.0,
+                getMegabytesPerSecond(), workers);
+    }
+}
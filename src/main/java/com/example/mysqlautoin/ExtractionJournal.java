@@ -0,0 +1,78 @@
+package com.example.mysqlautoin;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.HashMap;
+import java.util.Map;
+
+// 解压日志：记录已完整写出的条目（名称、大小、中央目录 CRC32），中断后重跑时据此跳过完好的文件
+public class ExtractionJournal implements Closeable {
+
+    public static final String FILE_NAME = ".mysqlauto-extract.journal";
+
+    private final Path file;
+    private final Map<String, long[]> completed;
+    private final Writer writer;
+
+    private ExtractionJournal(Path file, Map<String, long[]> completed, Writer writer) {
+        this.file = file;
+        this.completed = completed;
+        this.writer = writer;
+    }
+
+    public static ExtractionJournal open(Path destDir, String zipFilePath) throws IOException {
+        Path file = destDir.resolve(FILE_NAME);
+        Map<String, long[]> completed = new HashMap<>();
+        if (Files.exists(file)) {
+            try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    if (line.startsWith("#")) continue;
+                    // 崩溃时最后一行可能只写了一半，格式不对的行直接忽略
+                    String[] parts = line.split("\t", 3);
+                    if (parts.length != 3) continue;
+                    try {
+                        completed.put(parts[2], new long[]{Long.parseLong(parts[0], 16), Long.parseLong(parts[1])});
+                    } catch (NumberFormatException ignored) {
+                    }
+                }
+            }
+        }
+
+        Files.createDirectories(destDir);
+        Writer writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        if (completed.isEmpty()) {
+            writer.write("# MysqlAuto extraction journal: " + Paths.get(zipFilePath).getFileName() + "\n");
+            writer.flush();
+        }
+        return new ExtractionJournal(file, completed, writer);
+    }
+
+    public int size() {
+        return completed.size();
+    }
+
+    // 日志中有记录且大小、CRC 与中央目录一致的条目才可能跳过，最终仍需校验磁盘上的文件
+    public boolean isRecorded(ZipCentralDirectory.Entry entry) {
+        long[] record = completed.get(entry.getName());
+        return record != null && record[0] == entry.getCrc() && record[1] == entry.getSize();
+    }
+
+    public synchronized void record(ZipCentralDirectory.Entry entry) throws IOException {
+        writer.write(Long.toHexString(entry.getCrc()) + "\t" + entry.getSize() + "\t" + entry.getName() + "\n");
+        writer.flush();
+    }
+
+    // 全部条目解压成功后删除日志
+    public void complete() throws IOException {
+        close();
+        Files.deleteIfExists(file);
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        writer.close();
+    }
+}
@@ -0,0 +1,118 @@
+package com.example.mysqlautoin;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.regex.Pattern;
+
+// 解压配置：在解压任何字节之前，用 include/exclude 通配规则筛选 ZIP 条目
+// 规则相对于发行包根目录匹配（即去掉 mysql-8.0.x-winx64/ 这一层），不区分大小写
+public class ExtractionProfile {
+
+    public static final ExtractionProfile FULL = new ExtractionProfile("full", "完整安装",
+            Collections.emptyList(), Collections.emptyList());
+
+    public static final ExtractionProfile SERVER_CLIENT = new ExtractionProfile("server+client", "服务端+客户端",
+            Collections.emptyList(),
+            Arrays.asList("mysql-test/**", "**/*.pdb", "docs/**", "man/**"));
+
+    public static final ExtractionProfile SERVER_MINIMAL = new ExtractionProfile("server-minimal", "最小服务端",
+            Collections.emptyList(),
+            Arrays.asList("mysql-test/**", "**/*.pdb", "docs/**", "man/**", "include/**",
+                    "lib/*.lib", "lib/*.a", "lib/*.dll.a"));
+
+    private static final List<ExtractionProfile> BUILT_INS = List.of(FULL, SERVER_CLIENT, SERVER_MINIMAL);
+
+    private final String name;
+    private final String displayName;
+    private final List<String> includes;
+    private final List<String> excludes;
+    private final List<Pattern> includePatterns = new ArrayList<>();
+    private final List<Pattern> excludePatterns = new ArrayList<>();
+
+    public ExtractionProfile(String name, String displayName, List<String> includes, List<String> excludes) {
+        this.name = name;
+        this.displayName = displayName;
+        this.includes = List.copyOf(includes);
+        this.excludes = List.copyOf(excludes);
+        for (String glob : this.includes) includePatterns.add(globToPattern(glob));
+        for (String glob : this.excludes) excludePatterns.add(globToPattern(glob));
+    }
+
+    public static List<ExtractionProfile> builtIns() {
+        return BUILT_INS;
+    }
+
+    public static ExtractionProfile byName(String name) {
+        for (ExtractionProfile profile : BUILT_INS) {
+            if (profile.name.equalsIgnoreCase(name)) return profile;
+        }
+        throw new IllegalArgumentException("未知的解压配置: " + name);
+    }
+
+    public String getName() { return name; }
+    public String getDisplayName() { return displayName; }
+    public List<String> getIncludes() { return includes; }
+    public List<String> getExcludes() { return excludes; }
+
+    public boolean isFull() {
+        return includePatterns.isEmpty() && excludePatterns.isEmpty();
+    }
+
+    // 按 ZipEntry.getName() 判断是否需要解压
+    public boolean accepts(String entryName) {
+        if (isFull()) return true;
+        String relative = ZipExtractor.stripRoot(entryName);
+        if (relative.isEmpty()) return true;
+
+        if (!includePatterns.isEmpty()) {
+            boolean included = false;
+            for (Pattern p : includePatterns) {
+                if (p.matcher(relative).matches()) {
+                    included = true;
+                    break;
+                }
+            }
+            if (!included) return false;
+        }
+        for (Pattern p : excludePatterns) {
+            if (p.matcher(relative).matches()) return false;
+        }
+        return true;
+    }
+
+    // ** 跨目录匹配，* 和 ? 只在单层目录内匹配
+    static Pattern globToPattern(String glob) {
+        StringBuilder regex = new StringBuilder();
+        for (int i = 0; i < glob.length(); i++) {
+            char c = glob.charAt(i);
+            if (c == '*') {
+                if (i + 1 < glob.length() && glob.charAt(i + 1) == '*') {
+                    i++;
+                    // "**/" 同时允许匹配零层目录
+                    if (i + 1 < glob.length() && glob.charAt(i + 1) == '/') {
+                        i++;
+                        regex.append("(?:.*/)?");
+                    } else {
+                        regex.append(".*");
+                    }
+                } else {
+                    regex.append("[^/]*");
+                }
+            } else if (c == '?') {
+                regex.append("[^/]");
+            } else if ("\\.[]{}()+-^$|".indexOf(c) >= 0) {
+                regex.append('\\').append(c);
+            } else {
+                regex.append(c);
+            }
+        }
+        return Pattern.compile(regex.toString(), Pattern.CASE_INSENSITIVE);
+    }
+
+    @Override
+    public String toString() {
+        return displayName + " (" + name + ")";
+    }
+}
@@ -0,0 +1,96 @@
+package com.example.mysqlautoin;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+// 记录一次解压写出的内容，校验和不匹配时据此撤销：本次新建的顶层目录整个删除；已存在的目录（断点续传、在已有目录上继续解压）
+// 中只删除本次写出或续传时确认过的文件，以及本次新建的子目录。被覆盖的旧文件无法恢复，删除后由重新安装补齐
+public class ExtractionRollback {
+
+    private final Path dest;
+    private final Set<Path> createdRoots = ConcurrentHashMap.newKeySet();
+    private final Set<Path> createdDirs = ConcurrentHashMap.newKeySet();
+    private final Set<Path> files = ConcurrentHashMap.newKeySet();
+
+    public ExtractionRollback(Path dest) {
+        this.dest = dest;
+    }
+
+    // 在 target 或其父目录创建之前调用
+    public void noteRoot(Path target) {
+        Path topLevel = dest.resolve(dest.relativize(target).getName(0));
+        if (!createdRoots.contains(topLevel) && !Files.exists(topLevel, LinkOption.NOFOLLOW_LINKS)) {
+            createdRoots.add(topLevel);
+        }
+    }
+
+    public void createDirectories(Path dir) throws IOException {
+        for (Path d = dir; d != null && d.startsWith(dest) && !d.equals(dest); d = d.getParent()) {
+            if (Files.exists(d, LinkOption.NOFOLLOW_LINKS)) break;
+            createdDirs.add(d);
+        }
+        Files.createDirectories(dir);
+    }
+
+    // 在写出 target 之前调用，写到一半失败的文件也会被删除
+    public void file(Path target) {
+        files.add(target);
+    }
+
+    // 全部删除成功时返回 true
+    public boolean rollback(Consumer<String> logConsumer) {
+        int roots = 0;
+        int removed = 0;
+        int failed = 0;
+        for (Path root : createdRoots) {
+            try {
+                FileTrees.deleteTree(root);
+                roots++;
+            } catch (IOException e) {
+                failed++;
+                logConsumer.accept("⚠️ 回滚失败: " + root + " (" + e.getMessage() + ")\n");
+            }
+        }
+        for (Path file : files) {
+            if (isUnderCreatedRoot(file)) continue;
+            try {
+                if (FileTrees.deleteFile(file)) removed++;
+            } catch (IOException e) {
+                failed++;
+                logConsumer.accept("⚠️ 回滚失败: " + file + " (" + e.getMessage() + ")\n");
+            }
+        }
+        // 由深到浅删除本次新建、已经清空的子目录
+        List<Path> dirs = new ArrayList<>(createdDirs);
+        dirs.sort(Comparator.comparingInt(Path::getNameCount).reversed());
+        for (Path dir : dirs) {
+            if (isUnderCreatedRoot(dir)) continue;
+            try {
+                Files.deleteIfExists(dir);
+            } catch (IOException ignored) {
+                // 目录中还有本次之前就存在的文件
+            }
+        }
+
+        if (failed > 0) {
+            logConsumer.accept("⚠️ 回滚未完成: " + failed + " 项删除失败，请删除上面列出的路径后重新安装\n");
+        } else if (roots == 0 && removed == 0) {
+            logConsumer.accept("ℹ️ 本次解压尚未写出文件，无需回滚\n");
+        } else {
+            logConsumer.accept("↩️ 已回滚本次解压的内容: 删除 " + roots + " 个新建目录、" + removed + " 个已有目录中的文件\n");
+        }
+        return failed == 0;
+    }
+
+    private boolean isUnderCreatedRoot(Path path) {
+        for (Path root : createdRoots) {
+            if (path.startsWith(root)) return true;
+        }
+        return false;
+    }
+}
@@ -0,0 +1,113 @@
+package com.example.mysqlautoin;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.regex.Pattern;
+
+// 内存中的 ProcessRunner：按命令行匹配预设的输出，不启动任何进程
+// 用于在 Linux 上基准测试/演练完整的安装和服务发现流程，可模拟命令耗时和超时
+public class FakeProcessRunner implements ProcessRunner {
+
+    private static class Rule {
+        final Predicate<ProcessCommand> matcher;
+        final Function<ProcessCommand, ProcessResult> response;
+        // 为 null 时使用 setLatency 设置的统一耗时
+        final Duration latency;
+
+        Rule(Predicate<ProcessCommand> matcher, Function<ProcessCommand, ProcessResult> response, Duration latency) {
+            this.matcher = matcher;
+            this.response = response;
+            this.latency = latency;
+        }
+    }
+
+    private final List<Rule> rules = new CopyOnWriteArrayList<>();
+    private final List<ProcessCommand> invocations = new CopyOnWriteArrayList<>();
+    private volatile ProcessResult defaultResult = ProcessResult.of(0, "");
+    private volatile Duration latency = Duration.ZERO;
+
+    // 命令行（cmd.exe /c 之后的部分）中能找到该正则时返回 result，先注册的规则优先
+    public FakeProcessRunner respond(String commandLineRegex, ProcessResult result) {
+        Pattern pattern = Pattern.compile(commandLineRegex, Pattern.CASE_INSENSITIVE);
+        return respond(c -> pattern.matcher(c.getCommandLine()).find(), c -> result);
+    }
+
+    public FakeProcessRunner respond(Predicate<ProcessCommand> matcher, Function<ProcessCommand, ProcessResult> response) {
+        rules.add(new Rule(matcher, response, null));
+        return this;
+    }
+
+    // 同上，并为匹配的命令单独指定耗时（如 mysqld --initialize 远慢于 sc 查询）
+    public FakeProcessRunner respond(String commandLineRegex, ProcessResult result, Duration latency) {
+        Pattern pattern = Pattern.compile(commandLineRegex, Pattern.CASE_INSENSITIVE);
+        rules.add(new Rule(c -> pattern.matcher(c.getCommandLine()).find(), c -> result, latency));
+        return this;
+    }
+
+    // 没有规则匹配时的结果，默认退出码 0、无输出
+    public FakeProcessRunner setDefaultResult(ProcessResult defaultResult) {
+        this.defaultResult = defaultResult;
+        return this;
+    }
+
+    // 每条命令的模拟耗时；超过命令自身的超时时间时返回超时结果
+    public FakeProcessRunner setLatency(Duration latency) {
+        this.latency = latency;
+        return this;
+    }
+
+    public List<ProcessCommand> getInvocations() {
+        return new ArrayList<>(invocations);
+    }
+
+    public int count(String commandLineRegex) {
+        Pattern pattern = Pattern.compile(commandLineRegex, Pattern.CASE_INSENSITIVE);
+        int n = 0;
+        for (ProcessCommand c : invocations) {
+            if (pattern.matcher(c.getCommandLine()).find()) n++;
+        }
+        return n;
+    }
+
+    public void reset() {
+        invocations.clear();
+    }
+
+    @Override
+    public CompletableFuture<ProcessResult> start(ProcessCommand command) {
+        invocations.add(command);
+        Rule rule = match(command);
+        Duration delay = rule != null && rule.latency != null ? rule.latency : latency;
+        if (delay.isZero()) {
+            return CompletableFuture.completedFuture(respond(command, rule, delay));
+        }
+        if (delay.compareTo(command.getTimeout()) > 0) {
+            long timeout = command.getTimeout().toMillis();
+            return CompletableFuture.supplyAsync(() -> new ProcessResult(-1, "", true, timeout),
+                    CompletableFuture.delayedExecutor(timeout, TimeUnit.MILLISECONDS));
+        }
+        return CompletableFuture.supplyAsync(() -> respond(command, rule, delay),
+                CompletableFuture.delayedExecutor(delay.toMillis(), TimeUnit.MILLISECONDS));
+    }
+
+    private Rule match(ProcessCommand command) {
+        for (Rule rule : rules) {
+            if (rule.matcher.test(command)) return rule;
+        }
+        return null;
+    }
+
+    private ProcessResult respond(ProcessCommand command, Rule rule, Duration delay) {
+        ProcessResult result = rule != null ? rule.response.apply(command) : defaultResult;
+        if (command.getLineConsumer() != null) {
+            result.getOutput().lines().forEach(command.getLineConsumer());
+        }
+        return new ProcessResult(result.getExitCode(), result.getOutput(), result.isTimedOut(), delay.toMillis());
+    }
+}
@@ -0,0 +1,103 @@
+package com.example.mysqlautoin;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+// 快速初始化：mysqld --initialize 使用一份临时的 defaults 文件，关闭 doublewrite 和 binlog、使用最小的 redo 和缓冲池、
+// 不在每次提交时刷盘，初始化完成后删除；服务首次启动时使用正式的 my.ini，redo 和 doublewrite 文件按正式配置重新创建
+// 临时文件复制正式 my.ini 的 [mysqld] 段，只替换下面这些初始化之后可以修改的选项，页大小、表名大小写等不可修改的选项原样保留
+public class FastInitConfig {
+
+    static final String FILE_NAME = "my-init.ini";
+
+    // 数据目录中 mysqld --initialize 一定会生成的文件，用于检查初始化结果
+    private static final String SYSTEM_TABLESPACE = "ibdata1";
+    private static final String DATA_DICTIONARY = "mysql.ibd";
+    private static final String SYSTEM_SCHEMA_DIR = "mysql";
+
+    // 快速初始化替换的选项及取值；旧版本没有的选项按版本添加
+    static Map<String, String> overrides(String mysqlVersion) {
+        Map<String, String> overrides = new LinkedHashMap<>();
+        overrides.put("innodb_doublewrite", "0");
+        overrides.put("innodb_flush_log_at_trx_commit", "0");
+        overrides.put("innodb_buffer_pool_size", "128M");
+        overrides.put("innodb_buffer_pool_instances", "1");
+        overrides.put("performance_schema", "OFF");
+        // 初始化用的 mysqld 停止时不导出缓冲池，数据目录中不留下 ib_buffer_pool
+        overrides.put("innodb_buffer_pool_dump_at_shutdown", "0");
+        overrides.put("innodb_buffer_pool_load_at_startup", "0");
+        if (MyIniTuner.atLeast(mysqlVersion, 8, 0, 30)) {
+            overrides.put("innodb_redo_log_capacity", "8M");
+        } else {
+            overrides.put("innodb_log_file_size", "4M");
+        }
+        // 8.0 起默认开启 binlog，初始化写入的 binlog 对新实例没有用处
+        if (MyIniTuner.atLeast(mysqlVersion, 8, 0, 0)) overrides.put("skip_log_bin", null);
+        return overrides;
+    }
+
+    // 在 my.ini 旁边生成临时 defaults 文件；返回其路径
+    public static Path write(Path myIni, String mysqlVersion) throws IOException {
+        Path target = myIni.resolveSibling(FILE_NAME);
+        Files.writeString(target, render(Files.readAllLines(myIni, StandardCharsets.UTF_8), mysqlVersion), StandardCharsets.UTF_8);
+        return target;
+    }
+
+    static String render(List<String> myIniLines, String mysqlVersion) {
+        Map<String, String> overrides = overrides(mysqlVersion);
+        for (String option : overrides.keySet()) {
+            // 防止以后有人把不可修改的选项加进来
+            if (DataDirTemplateStore.IMMUTABLE_OPTIONS.contains(option)) {
+                throw new IllegalStateException("初始化后不能修改的选项不能在快速初始化时替换: " + option);
+            }
+        }
+
+        List<String> kept = new ArrayList<>();
+        boolean inMysqld = false;
+        for (String line : myIniLines) {
+            String trimmed = line.trim();
+            if (trimmed.startsWith("[")) {
+                inMysqld = trimmed.equalsIgnoreCase("[mysqld]");
+                continue;
+            }
+            if (!inMysqld || trimmed.isEmpty() || trimmed.startsWith("#") || trimmed.startsWith(";")) continue;
+            int eq = trimmed.indexOf('=');
+            String name = (eq < 0 ? trimmed : trimmed.substring(0, eq)).trim().toLowerCase(Locale.ROOT).replace('-', '_');
+            if (isOverridden(name, overrides)) continue;
+            kept.add(trimmed);
+        }
+
+        StringBuilder sb = new StringBuilder("[mysqld]\n");
+        for (String line : kept) sb.append(line).append('\n');
+        sb.append("# 快速初始化\n");
+        overrides.forEach((name, value) -> sb.append(value == null ? name.replace('_', '-') : name + "=" + value).append('\n'));
+        return sb.toString();
+    }
+
+    // log_bin / skip_log_bin 以及 redo 的两种写法都视为同一组选项
+    private static boolean isOverridden(String name, Map<String, String> overrides) {
+        if (overrides.containsKey(name)) return true;
+        if (name.equals("log_bin") || name.equals("skip_log_bin")) return overrides.containsKey("skip_log_bin");
+        return name.equals("innodb_log_file_size") || name.equals("innodb_redo_log_capacity")
+                || name.equals("innodb_log_files_in_group");
+    }
+
+    // 检查初始化结果；返回问题描述，没有问题时返回 null
+    public static String validate(Path dataDir, String mysqlVersion) {
+        if (!Files.isRegularFile(dataDir.resolve(SYSTEM_TABLESPACE))) return "缺少系统表空间 " + SYSTEM_TABLESPACE;
+        boolean dictionary = Files.isRegularFile(dataDir.resolve(DATA_DICTIONARY));
+        boolean schemaDir = Files.isDirectory(dataDir.resolve(SYSTEM_SCHEMA_DIR));
+        // 8.0 起系统表在 mysql.ibd 中，5.7 是 mysql 目录下的表文件
+        if (MyIniTuner.atLeast(mysqlVersion, 8, 0, 0) ? !dictionary : !(dictionary || schemaDir)) {
+            return "缺少系统表（" + (MyIniTuner.atLeast(mysqlVersion, 8, 0, 0) ? DATA_DICTIONARY : SYSTEM_SCHEMA_DIR) + "）";
+        }
+        return null;
+    }
+}
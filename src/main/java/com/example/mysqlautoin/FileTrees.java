@@ -0,0 +1,73 @@
+package com.example.mysqlautoin;
+
+import java.io.IOException;
+import java.nio.file.*;
+import java.nio.file.attribute.BasicFileAttributes;
+
+// 目录树的通用文件操作
+public final class FileTrees {
+
+    private FileTrees() {
+    }
+
+    public static void deleteTree(Path dir) throws IOException {
+        if (!Files.exists(dir, LinkOption.NOFOLLOW_LINKS)) return;
+        Files.walkFileTree(dir, new SimpleFileVisitor<>() {
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
+                deleteFile(file);
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult postVisitDirectory(Path d, IOException exc) throws IOException {
+                if (exc != null) throw exc;
+                Files.delete(d);
+                return FileVisitResult.CONTINUE;
+            }
+        });
+    }
+
+    // 删除单个文件；Windows 上只读文件不能直接删除，先去掉只读属性再删
+    public static boolean deleteFile(Path file) throws IOException {
+        try {
+            return Files.deleteIfExists(file);
+        } catch (AccessDeniedException e) {
+            if (!file.toFile().setWritable(true)) throw e;
+            return Files.deleteIfExists(file);
+        }
+    }
+
+    // Windows 上设置只读属性，其他系统去掉所有写权限；同一文件的硬链接共用该属性
+    public static void makeReadOnly(Path file) throws IOException {
+        if (!file.toFile().setWritable(false, false)) {
+            throw new IOException("无法设为只读: " + file);
+        }
+    }
+
+    // 目录树中的所有文件设为只读，返回文件数
+    public static int makeTreeReadOnly(Path dir) throws IOException {
+        int[] count = {0};
+        Files.walkFileTree(dir, new SimpleFileVisitor<>() {
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
+                makeReadOnly(file);
+                count[0]++;
+                return FileVisitResult.CONTINUE;
+            }
+        });
+        return count[0];
+    }
+
+    // 优先创建硬链接，跨卷或不支持时退化为复制；返回是否为硬链接
+    public static boolean linkOrCopy(Path source, Path target) throws IOException {
+        deleteFile(target);
+        try {
+            Files.createLink(target, source);
+            return true;
+        } catch (UnsupportedOperationException | FileSystemException e) {
+            Files.copy(source, target, StandardCopyOption.REPLACE_EXISTING);
+            return false;
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package com.example.mysqlautoin;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.ArrayList;
+import java.util.List;
+
+// mysqld --initialize 的 --init-file：初始化时在同一次 mysqld 运行中设置 root 密码并执行初始化 SQL，
+// 服务第一次启动时就已经是安全的，不再需要等待启动后再用 mysql.exe 执行 ALTER USER
+// 从数据目录模板复制的实例没有初始化这一步：写入 my.ini 的 init-file 选项，在服务首次启动时执行，之后再移除
+// 文件含明文密码：只有所有者可读（支持 POSIX 权限时），用完立即删除
+public class InitFile implements AutoCloseable {
+
+    private final Path path;
+
+    private InitFile(Path path) {
+        this.path = path;
+    }
+
+    // 写在 MySQL 根目录而不是数据目录：--initialize 要求数据目录为空
+    public static InitFile create(Path mysqlRootDir, String rootPassword, String bootstrapSql) throws IOException {
+        Path path = mysqlRootDir.resolve("mysqlauto-init.sql");
+        Files.deleteIfExists(path);
+        try {
+            Files.createFile(path, PosixFilePermissions.asFileAttribute(PosixFilePermissions.fromString("rw-------")));
+        } catch (UnsupportedOperationException e) {
+            Files.createFile(path);
+        }
+
+        try (Writer writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8)) {
+            writer.write(script(rootPassword, bootstrapSql));
+        } catch (IOException e) {
+            Files.deleteIfExists(path);
+            throw e;
+        }
+        return new InitFile(path);
+    }
+
+    // 旧版本 mysqld 的 init-file 要求每条语句占一行，ALTER USER 保持单行
+    static String script(String rootPassword, String bootstrapSql) {
+        StringBuilder sql = new StringBuilder();
+        sql.append("ALTER USER 'root'@'localhost' IDENTIFIED BY '").append(quote(rootPassword)).append("';\n");
+        if (bootstrapSql != null && !bootstrapSql.isBlank()) {
+            sql.append(bootstrapSql.strip()).append('\n');
+        }
+        return sql.toString();
+    }
+
+    // 单引号字符串字面量中需要转义的字符
+    static String quote(String value) {
+        StringBuilder sb = new StringBuilder(value.length() + 8);
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '\\': sb.append("\\\\"); break;
+                case '\'': sb.append("\\'"); break;
+                case '\n': sb.append("\\n"); break;
+                case '\r': sb.append("\\r"); break;
+                case '\0': sb.append("\\0"); break;
+                default: sb.append(c);
+            }
+        }
+        return sb.toString();
+    }
+
+    public Path getPath() {
+        return path;
+    }
+
+    public String toArgument() {
+        return "--init-file=" + path.toAbsolutePath();
+    }
+
+    private static final String MY_INI_MARKER = "# mysqlauto: 首次启动后移除";
+
+    // 在 my.ini 末尾追加一段 [mysqld]，mysqld 启动时执行本文件（选项文件允许同名段重复出现）
+    public void armIn(Path myIni) throws IOException {
+        String block = "\n" + MY_INI_MARKER + "\n[mysqld]\n"
+                + "init-file=" + path.toAbsolutePath().toString().replace("\\", "\\\\") + "\n";
+        Files.writeString(myIni, block, StandardCharsets.UTF_8, StandardOpenOption.APPEND);
+    }
+
+    // 移除 armIn 追加的内容并删除本文件
+    public void disarm(Path myIni) throws IOException {
+        try {
+            List<String> kept = new ArrayList<>();
+            for (String line : Files.readAllLines(myIni, StandardCharsets.UTF_8)) {
+                if (line.equals(MY_INI_MARKER)) break;
+                kept.add(line);
+            }
+            while (!kept.isEmpty() && kept.get(kept.size() - 1).isEmpty()) kept.remove(kept.size() - 1);
+            Files.write(myIni, kept, StandardCharsets.UTF_8);
+        } finally {
+            close();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        Files.deleteIfExists(path);
+    }
+}
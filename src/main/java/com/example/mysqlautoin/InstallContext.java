@@ -0,0 +1,118 @@
+package com.example.mysqlautoin;
+
+import java.nio.file.Path;
+import java.util.function.Consumer;
+
+// 一次安装的输入参数和各步骤产生的中间结果
+// 中间结果由前面的步骤写入、后面依赖它的步骤读取；InstallPipeline 保证步骤完成先于依赖它的步骤开始
+public class InstallContext {
+
+    private final String zipPath;
+    private final Path installPath;
+    private final String rootPassword;
+    private final String port;
+    private final boolean configureEnv;
+    private final InstallOptions options;
+    private final ProcessRunner runner;
+    private final Consumer<String> log;
+    // 批量安装时实例自己的目录（my.ini、数据目录、init-file 所在处），单实例安装为 null，即 MySQL 根目录
+    private Path instanceDir;
+    // 同一主机上同时安装的实例数，性能参数按此平分内存和磁盘 IO
+    private int instancesOnHost = 1;
+
+    private boolean admin;
+    private ArchiveInspector.Inspection inspection;
+    private Path mysqlRootDir;
+    private Path binPath;
+    private Path dataDir;
+    private Path myIni;
+    private boolean credentialsApplied;
+    private boolean serverStarted;
+    // 从数据目录模板安装时写入 my.ini、等待服务首次启动执行的 init-file，处理后为 null
+    private InitFile firstStartInitFile;
+    // 安装前系统 PATH 的原始值（未展开 %变量%），读取失败时为 null
+    private String machinePath;
+
+    public InstallContext(String zipPath, Path installPath, String rootPassword, String port, boolean configureEnv,
+                          InstallOptions options, ProcessRunner runner, Consumer<String> log) {
+        this.zipPath = zipPath;
+        this.installPath = installPath;
+        this.rootPassword = rootPassword;
+        this.port = port;
+        this.configureEnv = configureEnv;
+        this.options = options;
+        this.runner = runner;
+        this.log = log;
+    }
+
+    public String getZipPath() { return zipPath; }
+    public Path getInstallPath() { return installPath; }
+    public String getRootPassword() { return rootPassword; }
+    public String getPort() { return port; }
+    public boolean isConfigureEnv() { return configureEnv; }
+    public InstallOptions getOptions() { return options; }
+    public ProcessRunner getRunner() { return runner; }
+    public String getServiceName() { return "MySQL" + port; }
+
+    // 批量安装中的一个实例：共用发行包和安装选项，日志行前加上端口
+    public InstallContext forInstance(String port, String rootPassword, Path instanceDir) {
+        InstallContext instance = new InstallContext(zipPath, installPath, rootPassword, port, configureEnv, options, runner,
+                message -> log.accept("[" + port + "] " + message));
+        instance.instanceDir = instanceDir;
+        return instance;
+    }
+
+    // 实例的步骤开始前，带上共享步骤（管理员检测、解压）的结果
+    public void copySharedResults(InstallContext shared) {
+        admin = shared.admin;
+        inspection = shared.inspection;
+        mysqlRootDir = shared.mysqlRootDir;
+        binPath = shared.binPath;
+    }
+
+    public Path getInstanceDir() { return instanceDir; }
+
+    public int getInstancesOnHost() { return instancesOnHost; }
+    public void setInstancesOnHost(int instancesOnHost) { this.instancesOnHost = instancesOnHost; }
+
+    // my.ini 和数据目录所在的目录
+    public Path getHomeDir() {
+        return instanceDir != null ? instanceDir : mysqlRootDir;
+    }
+
+    public void log(String message) {
+        log.accept(message);
+    }
+
+    public Consumer<String> getLog() { return log; }
+
+    public boolean isAdmin() { return admin; }
+    public void setAdmin(boolean admin) { this.admin = admin; }
+
+    public ArchiveInspector.Inspection getInspection() { return inspection; }
+    public void setInspection(ArchiveInspector.Inspection inspection) { this.inspection = inspection; }
+
+    public Path getMysqlRootDir() { return mysqlRootDir; }
+    public void setMysqlRootDir(Path mysqlRootDir) { this.mysqlRootDir = mysqlRootDir; }
+
+    public Path getBinPath() { return binPath; }
+    public void setBinPath(Path binPath) { this.binPath = binPath; }
+
+    public Path getDataDir() { return dataDir; }
+    public void setDataDir(Path dataDir) { this.dataDir = dataDir; }
+
+    public Path getMyIni() { return myIni; }
+    public void setMyIni(Path myIni) { this.myIni = myIni; }
+
+    public boolean isCredentialsApplied() { return credentialsApplied; }
+    public void setCredentialsApplied(boolean credentialsApplied) { this.credentialsApplied = credentialsApplied; }
+
+    public boolean isServerStarted() { return serverStarted; }
+    public void setServerStarted(boolean serverStarted) { this.serverStarted = serverStarted; }
+
+    public InitFile getFirstStartInitFile() { return firstStartInitFile; }
+    public void setFirstStartInitFile(InitFile firstStartInitFile) { this.firstStartInitFile = firstStartInitFile; }
+
+    public String getMachinePath() { return machinePath; }
+    public void setMachinePath(String machinePath) { this.machinePath = machinePath; }
+}
@@ -0,0 +1,100 @@
+package com.example.mysqlautoin;
+
+// 安装的可选参数，默认值与原有安装行为保持一致
+public class InstallOptions {
+
+    private ExtractionProfile extractionProfile = ExtractionProfile.FULL;
+    private DistributionCache distributionCache;
+    private ArchiveChecksum expectedChecksum;
+    private boolean credentialsAtInit = true;
+    private String bootstrapSql;
+    private DataDirTemplateStore dataDirTemplates;
+    private MyIniTuner.Profile tuningProfile;
+    private MyIniTuner.Hardware hardware;
+    private boolean fastInit;
+    private int initConcurrency = BatchInstaller.DEFAULT_INIT_CONCURRENCY;
+
+    public static InstallOptions defaults() {
+        return new InstallOptions();
+    }
+
+    public ExtractionProfile getExtractionProfile() { return extractionProfile; }
+
+    public InstallOptions setExtractionProfile(ExtractionProfile extractionProfile) {
+        this.extractionProfile = extractionProfile != null ? extractionProfile : ExtractionProfile.FULL;
+        return this;
+    }
+
+    // 为 null 时不使用发行包缓存，每次都重新解压
+    public DistributionCache getDistributionCache() { return distributionCache; }
+
+    public InstallOptions setDistributionCache(DistributionCache distributionCache) {
+        this.distributionCache = distributionCache;
+        return this;
+    }
+
+    // 为 null 时不校验；校验与解压（或缓存键计算）共用同一遍读取
+    public ArchiveChecksum getExpectedChecksum() { return expectedChecksum; }
+
+    public InstallOptions setExpectedChecksum(ArchiveChecksum expectedChecksum) {
+        this.expectedChecksum = expectedChecksum;
+        return this;
+    }
+
+    // 为 true 时通过 --init-file 在初始化时设置 root 密码并执行 bootstrapSql；
+    // 为 false 时沿用启动服务后再用 mysql.exe 设置密码的方式（不执行 bootstrapSql）
+    public boolean isCredentialsAtInit() { return credentialsAtInit; }
+
+    public InstallOptions setCredentialsAtInit(boolean credentialsAtInit) {
+        this.credentialsAtInit = credentialsAtInit;
+        return this;
+    }
+
+    // 初始化时额外执行的 SQL（创建用户、库、授权等），每条语句以分号结尾；为 null 时不执行
+    public String getBootstrapSql() { return bootstrapSql; }
+
+    public InstallOptions setBootstrapSql(String bootstrapSql) {
+        this.bootstrapSql = bootstrapSql;
+        return this;
+    }
+
+    // 为 null 时每次都执行 mysqld --initialize；否则同版本第一次初始化的数据目录保存为模板，之后直接复制
+    public DataDirTemplateStore getDataDirTemplates() { return dataDirTemplates; }
+
+    public InstallOptions setDataDirTemplates(DataDirTemplateStore dataDirTemplates) {
+        this.dataDirTemplates = dataDirTemplates;
+        return this;
+    }
+
+    // 为 null 时 my.ini 中不写性能参数（使用 MySQL 默认值）；否则按主机硬件和该负载类型计算
+    public MyIniTuner.Profile getTuningProfile() { return tuningProfile; }
+
+    public InstallOptions setTuningProfile(MyIniTuner.Profile tuningProfile) {
+        this.tuningProfile = tuningProfile;
+        return this;
+    }
+
+    // 为 null 时在生成配置时检测（界面在启动时已在后台检测好）
+    public MyIniTuner.Hardware getHardware() { return hardware; }
+
+    public InstallOptions setHardware(MyIniTuner.Hardware hardware) {
+        this.hardware = hardware;
+        return this;
+    }
+
+    // 为 true 时 mysqld --initialize 使用最小 I/O 的临时配置（见 FastInitConfig），服务启动时再使用正式的 my.ini
+    public boolean isFastInit() { return fastInit; }
+
+    public InstallOptions setFastInit(boolean fastInit) {
+        this.fastInit = fastInit;
+        return this;
+    }
+
+    // 批量安装时同时执行 mysqld --initialize 的实例数上限（初始化主要消耗磁盘写入和 CPU）
+    public int getInitConcurrency() { return initConcurrency; }
+
+    public InstallOptions setInitConcurrency(int initConcurrency) {
+        this.initConcurrency = Math.max(1, initConcurrency);
+        return this;
+    }
+}
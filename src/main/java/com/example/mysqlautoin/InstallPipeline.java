@@ -0,0 +1,139 @@
+package com.example.mysqlautoin;
+
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// 按声明的依赖关系执行安装步骤：互不依赖的步骤（如管理员检测、端口检查、读取 PATH 与解压）同时运行，
+// 一个步骤在它的全部依赖完成后立即开始；步骤失败时只跳过依赖它的步骤，其余步骤照常执行
+// 每个步骤的开始时间、耗时和结果记入 InstallReport
+public class InstallPipeline {
+
+    static final int DEFAULT_PARALLELISM = 4;
+    // 安装被中断后，等待正在运行的步骤（如解压写完当前文件和断点记录）结束的时间
+    private static final long INTERRUPT_GRACE_SECONDS = 10;
+
+    private final List<InstallStep> steps = new ArrayList<>();
+    private int parallelism = DEFAULT_PARALLELISM;
+
+    // 依赖的步骤必须已经添加，因此声明顺序本身就是一个拓扑序，不会出现环
+    public InstallPipeline add(InstallStep step) {
+        for (InstallStep existing : steps) {
+            if (existing.getName().equals(step.getName())) {
+                throw new IllegalArgumentException("重复的安装步骤: " + step.getName());
+            }
+        }
+        for (String dependency : step.getDependencies()) {
+            if (indexOf(dependency) < 0) {
+                throw new IllegalArgumentException("安装步骤 " + step.getName() + " 依赖的步骤不存在或尚未添加: " + dependency);
+            }
+        }
+        steps.add(step);
+        return this;
+    }
+
+    // 1 表示按声明顺序逐个执行，用于对比
+    public InstallPipeline setParallelism(int parallelism) {
+        this.parallelism = Math.max(1, parallelism);
+        return this;
+    }
+
+    public List<InstallStep> getSteps() {
+        return Collections.unmodifiableList(steps);
+    }
+
+    private int indexOf(String name) {
+        for (int i = 0; i < steps.size(); i++) {
+            if (steps.get(i).getName().equals(name)) return i;
+        }
+        return -1;
+    }
+
+    // 所有步骤结束后返回；被中断时中断正在运行的步骤，等待它们收尾后抛出 InterruptedException
+    public InstallReport run(InstallContext context) throws InterruptedException {
+        List<String> names = new ArrayList<>(steps.size());
+        for (InstallStep step : steps) names.add(step.getName());
+        InstallReport report = new InstallReport(names);
+
+        AtomicInteger threadIndex = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(parallelism, r -> {
+            Thread t = new Thread(r, "install-step-" + threadIndex.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+
+        List<CompletableFuture<InstallStep.Outcome>> futures = new ArrayList<>(steps.size());
+        try {
+            for (int i = 0; i < steps.size(); i++) {
+                InstallStep step = steps.get(i);
+                int index = i;
+                List<CompletableFuture<InstallStep.Outcome>> dependencies = new ArrayList<>();
+                for (String dependency : step.getDependencies()) dependencies.add(futures.get(indexOf(dependency)));
+
+                futures.add(CompletableFuture.allOf(dependencies.toArray(new CompletableFuture<?>[0]))
+                        .thenApplyAsync(v -> execute(index, step, dependencies, context, report), pool));
+            }
+            CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0])).get();
+            report.finish();
+            return report;
+        } catch (ExecutionException e) {
+            // execute 捕获了步骤中的所有异常，只有线程池被关闭时才会走到这里
+            throw new IllegalStateException("安装步骤调度失败", e.getCause());
+        } catch (InterruptedException e) {
+            pool.shutdownNow();
+            awaitRunningSteps(pool);
+            throw e;
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private InstallStep.Outcome execute(int index, InstallStep step, List<CompletableFuture<InstallStep.Outcome>> dependencies,
+                                        InstallContext context, InstallReport report) {
+        long start = report.elapsedMillis();
+        for (int i = 0; i < dependencies.size(); i++) {
+            if (!dependencies.get(i).join().isCompleted()) {
+                String reason = "依赖的步骤 " + step.getDependencies().get(i) + " 未完成";
+                report.record(index, InstallStep.Outcome.NOT_RUN, start, 0, reason);
+                return InstallStep.Outcome.NOT_RUN;
+            }
+        }
+
+        InstallStep.Outcome outcome;
+        String message = null;
+        try {
+            outcome = step.getAction().run(context);
+            if (outcome == null) outcome = InstallStep.Outcome.SUCCEEDED;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            outcome = InstallStep.Outcome.FAILED;
+            message = "已中断";
+        } catch (Exception e) {
+            outcome = InstallStep.Outcome.FAILED;
+            message = e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName();
+            context.log("❌ " + step.getName() + "出错: " + message + "\n");
+            // 非 I/O 类的异常通常是程序错误，堆栈写进安装日志，便于用户反馈
+            if (e instanceof RuntimeException) {
+                StringWriter trace = new StringWriter();
+                e.printStackTrace(new PrintWriter(trace));
+                context.log(trace.toString());
+            }
+        }
+        report.record(index, outcome, start, report.elapsedMillis() - start, message);
+        return outcome;
+    }
+
+    private static void awaitRunningSteps(ExecutorService pool) {
+        try {
+            pool.awaitTermination(INTERRUPT_GRACE_SECONDS, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            // 再次被中断时不再等待
+        }
+    }
+}
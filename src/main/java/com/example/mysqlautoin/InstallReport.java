@@ -0,0 +1,150 @@
+package com.example.mysqlautoin;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// 一次安装中每个步骤的开始时间（相对安装开始）、耗时和结果
+// 各步骤耗时之和大于总耗时的部分，就是并行执行节省下来的时间
+public class InstallReport {
+
+    public static class StepRecord {
+        private final String name;
+        private final InstallStep.Outcome outcome;
+        private final long startMillis;
+        private final long durationMillis;
+        private final String message;
+
+        StepRecord(String name, InstallStep.Outcome outcome, long startMillis, long durationMillis, String message) {
+            this.name = name;
+            this.outcome = outcome;
+            this.startMillis = startMillis;
+            this.durationMillis = durationMillis;
+            this.message = message;
+        }
+
+        public String getName() { return name; }
+        public InstallStep.Outcome getOutcome() { return outcome; }
+        public long getStartMillis() { return startMillis; }
+        public long getDurationMillis() { return durationMillis; }
+        // 失败原因或未执行的原因，其余为 null
+        public String getMessage() { return message; }
+
+        @Override
+        public String toString() {
+            return name + " " + outcome + " (+" + startMillis + " ms, " + durationMillis + " ms)"
+                    + (message != null ? " " + message : "");
+        }
+    }
+
+    private final List<String> names;
+    // 按步骤声明顺序存放，由各步骤所在线程写入
+    private final StepRecord[] records;
+    private final long startNanos = System.nanoTime();
+    private volatile long totalMillis = -1;
+
+    InstallReport(List<String> names) {
+        this.names = List.copyOf(names);
+        this.records = new StepRecord[names.size()];
+    }
+
+    long elapsedMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+    }
+
+    synchronized void record(int index, InstallStep.Outcome outcome, long startMillis, long durationMillis, String message) {
+        records[index] = new StepRecord(names.get(index), outcome, startMillis, durationMillis, message);
+    }
+
+    void finish() {
+        totalMillis = elapsedMillis();
+    }
+
+    // 被中断的安装中尚未结束的步骤没有记录
+    public synchronized List<StepRecord> getSteps() {
+        List<StepRecord> steps = new ArrayList<>(records.length);
+        for (StepRecord record : records) {
+            if (record != null) steps.add(record);
+        }
+        return steps;
+    }
+
+    public synchronized StepRecord getStep(String name) {
+        int index = names.indexOf(name);
+        return index >= 0 ? records[index] : null;
+    }
+
+    public InstallStep.Outcome getOutcome(String name) {
+        StepRecord record = getStep(name);
+        return record != null ? record.getOutcome() : InstallStep.Outcome.NOT_RUN;
+    }
+
+    // 所有步骤都已完成（允许警告和跳过）
+    public synchronized boolean isSuccess() {
+        for (StepRecord record : records) {
+            if (record == null || !record.getOutcome().isCompleted()) return false;
+        }
+        return true;
+    }
+
+    public synchronized List<String> getFailedSteps() {
+        List<String> failed = new ArrayList<>();
+        for (StepRecord record : records) {
+            if (record != null && record.getOutcome() == InstallStep.Outcome.FAILED) failed.add(record.getName());
+        }
+        return failed;
+    }
+
+    public long getTotalMillis() {
+        return totalMillis >= 0 ? totalMillis : elapsedMillis();
+    }
+
+    public synchronized long getStepMillisSum() {
+        long sum = 0;
+        for (StepRecord record : records) {
+            if (record != null) sum += record.getDurationMillis();
+        }
+        return sum;
+    }
+
+    // 每个步骤一行：开始时间、耗时、结果，另加一条按开始到结束画出的时间条，方便看出哪些步骤重叠
+    public String describe() {
+        List<StepRecord> steps = getSteps();
+        long total = Math.max(1, getTotalMillis());
+        int nameWidth = 0;
+        for (StepRecord step : steps) nameWidth = Math.max(nameWidth, displayWidth(step.getName()));
+
+        StringBuilder sb = new StringBuilder();
+        sb.append("⏱ 安装步骤耗时：总计 ").append(getTotalMillis()).append(" ms，各步骤合计 ")
+                .append(getStepMillisSum()).append(" ms\n");
+        for (StepRecord step : steps) {
+            sb.append("   ").append(step.getName());
+            sb.append(" ".repeat(nameWidth - displayWidth(step.getName())));
+            sb.append(String.format(" %7d ms %7d ms  ", step.getStartMillis(), step.getDurationMillis()));
+            sb.append(timeline(step, total)).append("  ").append(step.getOutcome());
+            if (step.getMessage() != null) sb.append("：").append(step.getMessage());
+            sb.append('\n');
+        }
+        return sb.toString();
+    }
+
+    // 等宽字体下中文占两个字符宽
+    private static int displayWidth(String text) {
+        int width = 0;
+        for (int i = 0; i < text.length(); i++) width += text.charAt(i) >= 0x2E80 ? 2 : 1;
+        return width;
+    }
+
+    private static String timeline(StepRecord step, long total) {
+        final int width = 20;
+        if (step.getOutcome() == InstallStep.Outcome.NOT_RUN) return "·".repeat(width);
+        int from = (int) Math.min(width - 1, step.getStartMillis() * width / total);
+        int to = (int) Math.min(width, Math.max(from + 1, (step.getStartMillis() + step.getDurationMillis()) * width / total));
+        return "·".repeat(from) + "█".repeat(to - from) + "·".repeat(width - to);
+    }
+
+    @Override
+    public String toString() {
+        return (isSuccess() ? "安装完成" : "安装未完成") + "，" + getTotalMillis() + " ms";
+    }
+}
@@ -0,0 +1,67 @@
+package com.example.mysqlautoin;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+// 安装流程中的一个步骤：名称、依赖的步骤和要执行的动作
+// 所有依赖都已完成（成功、有警告或跳过）后才执行；任一依赖失败或未执行时，本步骤记为未执行
+public class InstallStep {
+
+    public enum Outcome {
+        SUCCEEDED("✅ 完成"),
+        // 完成但有问题（如服务未能启动、PATH 未能修改），后续步骤照常执行
+        WARNED("⚠️ 警告"),
+        SKIPPED("⏭ 跳过"),
+        FAILED("❌ 失败"),
+        NOT_RUN("⛔ 未执行");
+
+        private final String label;
+
+        Outcome(String label) {
+            this.label = label;
+        }
+
+        // 依赖此步骤的步骤是否可以继续
+        public boolean isCompleted() {
+            return this == SUCCEEDED || this == WARNED || this == SKIPPED;
+        }
+
+        @Override
+        public String toString() {
+            return label;
+        }
+    }
+
+    @FunctionalInterface
+    public interface Action {
+        Outcome run(InstallContext context) throws Exception;
+    }
+
+    private final String name;
+    private final Action action;
+    private final List<String> dependencies = new ArrayList<>();
+
+    private InstallStep(String name, Action action) {
+        this.name = name;
+        this.action = action;
+    }
+
+    public static InstallStep of(String name, Action action) {
+        return new InstallStep(name, action);
+    }
+
+    public InstallStep after(String... names) {
+        Collections.addAll(dependencies, names);
+        return this;
+    }
+
+    public String getName() { return name; }
+    public Action getAction() { return action; }
+    public List<String> getDependencies() { return Collections.unmodifiableList(dependencies); }
+
+    @Override
+    public String toString() {
+        return dependencies.isEmpty() ? name : name + " ← " + String.join(", ", dependencies);
+    }
+}
@@ -0,0 +1,225 @@
+package com.example.mysqlautoin;
+
+import java.lang.management.ManagementFactory;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// 按主机硬件（内存、核数、磁盘类型）、同一主机上的实例数和负载类型计算 my.ini 中的性能参数
+// 内存先给系统和其他程序留出一部分，再由各实例平分；缓冲池之外每个连接还需要几 MB 的会话内存
+public class MyIniTuner {
+
+    public enum Profile {
+        OLTP("OLTP（读写混合）"),
+        READ_HEAVY("读多写少"),
+        DEV("开发/测试（低占用）");
+
+        private final String label;
+
+        Profile(String label) {
+            this.label = label;
+        }
+
+        @Override
+        public String toString() {
+            return label;
+        }
+    }
+
+    public enum DiskType {
+        SSD("SSD"),
+        HDD("机械硬盘"),
+        UNKNOWN("未知");
+
+        private final String label;
+
+        DiskType(String label) {
+            this.label = label;
+        }
+
+        @Override
+        public String toString() {
+            return label;
+        }
+    }
+
+    static final long MB = 1024L * 1024;
+    static final long GB = 1024 * MB;
+    // innodb_buffer_pool_chunk_size 的默认值，缓冲池大小会被调整为 chunk × 实例数的整数倍
+    static final long BUFFER_POOL_CHUNK = 128 * MB;
+    // 每个连接的会话内存（排序、连接、读缓冲等）的估计值，用于限制 max_connections
+    static final long PER_CONNECTION_MEMORY = 4 * MB;
+    private static final Duration DISK_QUERY_TIMEOUT = Duration.ofSeconds(15);
+    private static final Pattern VERSION = Pattern.compile("(\\d+)\\.(\\d+)\\.(\\d+)");
+
+    public static class Hardware {
+        private final long totalMemory;
+        private final int cores;
+        private final DiskType diskType;
+
+        public Hardware(long totalMemory, int cores, DiskType diskType) {
+            this.totalMemory = totalMemory;
+            this.cores = cores;
+            this.diskType = diskType;
+        }
+
+        // 磁盘类型取安装目录所在分区对应的物理磁盘，查询需要启动 PowerShell（约 1 秒），不要在界面线程调用
+        public static Hardware detect(Path installPath, ProcessRunner runner) {
+            long memory = ((com.sun.management.OperatingSystemMXBean) ManagementFactory.getOperatingSystemMXBean())
+                    .getTotalMemorySize();
+            return new Hardware(memory, Runtime.getRuntime().availableProcessors(), detectDiskType(installPath, runner));
+        }
+
+        public long getTotalMemory() { return totalMemory; }
+        public int getCores() { return cores; }
+        public DiskType getDiskType() { return diskType; }
+
+        public String describe() {
+            return String.format("内存 %.1f GB, %d 核, 磁盘 %s", totalMemory / (double) GB, cores, diskType);
+        }
+    }
+
+    static DiskType detectDiskType(Path installPath, ProcessRunner runner) {
+        String root = installPath.toAbsolutePath().getRoot() != null ? installPath.toAbsolutePath().getRoot().toString() : "";
+        if (!System.getProperty("os.name", "").startsWith("Windows") || !root.matches("[A-Za-z]:.*")) {
+            return DiskType.UNKNOWN;
+        }
+        String script = "(Get-PhysicalDisk | Where-Object DeviceId -eq (Get-Partition -DriveLetter " + root.charAt(0)
+                + ").DiskNumber).MediaType";
+        try {
+            ProcessResult result = runner.run(ProcessCommand.of("powershell", "-NoProfile", "-NonInteractive", "-Command", script)
+                    .setCharset(ProcessCommand.CONSOLE_CHARSET).setTimeout(DISK_QUERY_TIMEOUT));
+            return result.isSuccess() ? parseMediaType(result.getOutput()) : DiskType.UNKNOWN;
+        } catch (Exception e) {
+            if (e instanceof InterruptedException) Thread.currentThread().interrupt();
+            return DiskType.UNKNOWN;
+        }
+    }
+
+    // Get-PhysicalDisk 的 MediaType：SSD、HDD、SCM（持久内存，按 SSD 处理）或 Unspecified（虚拟机里常见）
+    static DiskType parseMediaType(String output) {
+        String value = output.trim().toUpperCase(Locale.ROOT);
+        if (value.equals("SSD") || value.equals("SCM")) return DiskType.SSD;
+        if (value.equals("HDD")) return DiskType.HDD;
+        return DiskType.UNKNOWN;
+    }
+
+    // 计算结果，按写入 my.ini 的顺序保存
+    public static class Settings {
+        private final Map<String, String> values = new LinkedHashMap<>();
+        private final String summary;
+
+        Settings(String summary) {
+            this.summary = summary;
+        }
+
+        public Map<String, String> getValues() { return values; }
+        public String getSummary() { return summary; }
+
+        public String toIni() {
+            StringBuilder sb = new StringBuilder();
+            values.forEach((name, value) -> sb.append(name).append('=').append(value).append('\n'));
+            return sb.toString();
+        }
+
+        public String describe() {
+            return "# " + summary + "\n" + toIni();
+        }
+    }
+
+    public static Settings tune(Hardware hardware, int instances, Profile profile, String mysqlVersion) {
+        instances = Math.max(1, instances);
+        long total = hardware.getTotalMemory();
+        // 给系统留 20%（至少 1 GB），开发配置只用剩余内存的一小部分
+        long available = Math.max(256 * MB, total - Math.max(GB, total / 5));
+        long perInstance = available / instances;
+        int cores = Math.max(1, hardware.getCores());
+
+        long bufferPool;
+        switch (profile) {
+            case READ_HEAVY: bufferPool = perInstance * 70 / 100; break;
+            case DEV: bufferPool = Math.min(512 * MB, perInstance / 8); break;
+            default: bufferPool = perInstance * 60 / 100;
+        }
+        int poolInstances = bufferPool < GB ? 1 : (int) Math.min(Math.min(8, cores), bufferPool / GB);
+        long unit = BUFFER_POOL_CHUNK * poolInstances;
+        bufferPool = Math.max(profile == Profile.DEV ? 64 * MB : BUFFER_POOL_CHUNK, bufferPool / unit * unit);
+
+        // redo：写得越多越需要大日志减少检查点刷盘；读多写少和开发配置不需要太大
+        long redo;
+        switch (profile) {
+            case READ_HEAVY: redo = clamp(bufferPool / 8, 128 * MB, 2 * GB); break;
+            case DEV: redo = 64 * MB; break;
+            default: redo = clamp(bufferPool / 4, 256 * MB, 4 * GB);
+        }
+
+        // 多个实例共用同一块磁盘的 IOPS
+        int io;
+        switch (hardware.getDiskType()) {
+            case SSD: io = 2000; break;
+            case HDD: io = 200; break;
+            default: io = 1000;
+        }
+        if (profile == Profile.DEV) io = Math.min(io, 200);
+        io = Math.max(100, io / instances);
+
+        int connections;
+        switch (profile) {
+            case READ_HEAVY: connections = (int) clamp(cores * 60L, 151, 2000); break;
+            case DEV: connections = 50; break;
+            default: connections = (int) clamp(cores * 40L, 151, 1000);
+        }
+        // 缓冲池以外的内存按每连接的会话内存估算上限
+        long sessionMemory = Math.max(0, perInstance - bufferPool);
+        connections = (int) Math.max(50, Math.min(connections, sessionMemory / PER_CONNECTION_MEMORY));
+
+        int threadCache = profile == Profile.DEV ? 8 : Math.min(100, 8 + connections / 20);
+        int tableCache = profile == Profile.READ_HEAVY ? 4000 : profile == Profile.DEV ? 400 : 2000;
+
+        Settings settings = new Settings(String.format("%s：%s，本机 %d 个实例", profile, hardware.describe(), instances));
+        Map<String, String> values = settings.values;
+        values.put("innodb_buffer_pool_size", size(bufferPool));
+        values.put("innodb_buffer_pool_instances", Integer.toString(poolInstances));
+        // 8.0.30 起 redo 大小由 innodb_redo_log_capacity 决定；之前的版本是两个 innodb_log_file_size 大小的文件
+        if (atLeast(mysqlVersion, 8, 0, 30)) {
+            values.put("innodb_redo_log_capacity", size(redo));
+        } else {
+            values.put("innodb_log_file_size", size(redo / 2));
+        }
+        // 重启时导出/加载的缓冲池比例：读多写少的热点数据更多
+        values.put("innodb_buffer_pool_dump_pct", profile == Profile.READ_HEAVY ? "60" : profile == Profile.DEV ? "25" : "40");
+        values.put("innodb_io_capacity", Integer.toString(io));
+        values.put("innodb_io_capacity_max", Integer.toString(io * 2));
+        values.put("max_connections", Integer.toString(connections));
+        values.put("thread_cache_size", Integer.toString(threadCache));
+        values.put("table_open_cache", Integer.toString(tableCache));
+        return settings;
+    }
+
+    // 版本未知时按旧版本处理，innodb_log_file_size 在新版本中仍然有效（已弃用）
+    static boolean atLeast(String version, int major, int minor, int patch) {
+        if (version == null) return false;
+        Matcher m = VERSION.matcher(version);
+        if (!m.find()) return false;
+        int[] actual = {Integer.parseInt(m.group(1)), Integer.parseInt(m.group(2)), Integer.parseInt(m.group(3))};
+        int[] wanted = {major, minor, patch};
+        for (int i = 0; i < 3; i++) {
+            if (actual[i] != wanted[i]) return actual[i] > wanted[i];
+        }
+        return true;
+    }
+
+    // my.ini 中的大小写法：能整除时用 G / M
+    static String size(long bytes) {
+        if (bytes % GB == 0) return bytes / GB + "G";
+        return bytes / MB + "M";
+    }
+
+    private static long clamp(long value, long min, long max) {
+        return Math.max(min, Math.min(max, value));
+    }
+}
@@ -2,261 +2,536 @@ package com.example.mysqlautoin;
 
 import java.io.*;
 import java.nio.file.*;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.function.Consumer;
-import java.util.zip.ZipEntry;
-import java.util.zip.ZipInputStream;
+import java.util.stream.Stream;
 
 public class MySQLInstaller {
 
-    public static void install(String zipPath, String installDir, String rootPassword, String port,
-                               boolean configureEnv, Consumer<String> logConsumer) {
+    // mysqld --initialize 在慢盘上创建系统表空间和 redo 可能需要数分钟
+    static final Duration INIT_TIMEOUT = Duration.ofMinutes(10);
+    // 服务启动失败或未注册服务时，仍给手动启动的实例一点时间
+    private static final Duration NOT_STARTED_READY_TIMEOUT = Duration.ofSeconds(5);
+    private static final Duration SERVICE_REMOVAL_TIMEOUT = Duration.ofSeconds(10);
+    private static final int PORT_CHECK_TIMEOUT_MILLIS = 500;
+    private static final String MACHINE_ENVIRONMENT_KEY = "HKLM\\SYSTEM\\CurrentControlSet\\Control\\Session Manager\\Environment";
+
+    // 安装步骤名称，也是 InstallReport 中的行名
+    static final String STEP_ADMIN = "管理员检测";
+    static final String STEP_INSPECT = "发行包预检";
+    static final String STEP_PORT = "端口检查";
+    static final String STEP_EXTRACT = "解压";
+    static final String STEP_READ_PATH = "读取 PATH";
+    static final String STEP_CONFIG = "生成配置";
+    static final String STEP_INITIALIZE = "初始化数据库";
+    static final String STEP_SERVICE = "注册服务";
+    static final String STEP_PASSWORD = "设置 root 密码";
+    static final String STEP_PATH = "配置 PATH";
+
+    public static InstallReport install(String zipPath, String installDir, String rootPassword, String port,
+                                        boolean configureEnv, Consumer<String> logConsumer) {
+        return install(zipPath, installDir, rootPassword, port, configureEnv, InstallOptions.defaults(), logConsumer);
+    }
+
+    // 安装步骤及其依赖：
+    //   管理员检测、发行包预检、端口检查 → 同时开始
+    //   解压 ← 发行包预检；读取 PATH ← 管理员检测（与解压同时进行）
+    //   生成配置 ← 解压；初始化数据库 ← 生成配置
+    //   注册服务 ← 初始化数据库、管理员检测；设置 root 密码 ← 注册服务
+    //   配置 PATH ← 初始化数据库、读取 PATH（与注册服务同时进行）
+    public static InstallReport install(String zipPath, String installDir, String rootPassword, String port,
+                                        boolean configureEnv, InstallOptions options, Consumer<String> logConsumer) {
+        InstallContext context = new InstallContext(zipPath, Paths.get(installDir), rootPassword, port, configureEnv,
+                options, ProcessRunner.getDefault(), logConsumer);
+        InstallPipeline pipeline = new InstallPipeline()
+                .setParallelism(Integer.getInteger("mysqlauto.install.parallelism", InstallPipeline.DEFAULT_PARALLELISM))
+                .add(InstallStep.of(STEP_ADMIN, MySQLInstaller::checkAdmin))
+                .add(InstallStep.of(STEP_INSPECT, MySQLInstaller::inspectArchive))
+                .add(InstallStep.of(STEP_PORT, MySQLInstaller::checkPort))
+                .add(InstallStep.of(STEP_EXTRACT, MySQLInstaller::extract).after(STEP_INSPECT))
+                .add(InstallStep.of(STEP_READ_PATH, MySQLInstaller::readMachinePath).after(STEP_ADMIN))
+                .add(InstallStep.of(STEP_CONFIG, MySQLInstaller::writeConfig).after(STEP_EXTRACT))
+                .add(InstallStep.of(STEP_INITIALIZE, MySQLInstaller::initializeDataDir).after(STEP_CONFIG))
+                .add(InstallStep.of(STEP_SERVICE, MySQLInstaller::registerService).after(STEP_INITIALIZE, STEP_ADMIN))
+                .add(InstallStep.of(STEP_PASSWORD, MySQLInstaller::applyRootPassword).after(STEP_SERVICE))
+                .add(InstallStep.of(STEP_PATH, MySQLInstaller::addToPath).after(STEP_INITIALIZE, STEP_READ_PATH));
+
         try {
-            if (!WindowsServiceChecker.isAdmin()) {
-                logConsumer.accept("⚠️ 当前非管理员，服务注册和 PATH 修改将无法执行\n");
+            InstallReport report = pipeline.run(context);
+            disarmFirstStartInitFile(context);
+            if (report.isSuccess()) {
+                logConsumer.accept("🎉 MySQL 安装完成！\n");
+                logConsumer.accept("📋 连接信息:\n");
+                logConsumer.accept("   主机: localhost\n");
+                logConsumer.accept("   端口: " + port + "\n");
+                logConsumer.accept("   用户: root\n");
+                logConsumer.accept("   密码: " + rootPassword + "\n");
+            } else {
+                logConsumer.accept("❌ 安装未完成，失败的步骤: " + String.join("、", report.getFailedSteps()) + "\n");
             }
+            logConsumer.accept(report.describe());
+            return report;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            disarmFirstStartInitFile(context);
+            logConsumer.accept("⏹ 安装已中断\n");
+            return null;
+        }
+    }
 
-            Path installPath = Paths.get(installDir);
-            if (!Files.exists(installPath)) Files.createDirectories(installPath);
-            logConsumer.accept("📂 创建安装目录: " + installDir + "\n");
+    static InstallStep.Outcome checkAdmin(InstallContext context) {
+        context.setAdmin(WindowsServiceChecker.isAdmin());
+        if (!context.isAdmin()) {
+            context.log("⚠️ 当前非管理员，服务注册和 PATH 修改将无法执行\n");
+        }
+        return InstallStep.Outcome.SUCCEEDED;
+    }
 
-            unzip(zipPath, installDir, logConsumer);
+    // 预检发行包：只读中央目录，确认根目录、版本和磁盘空间后再写入
+    static InstallStep.Outcome inspectArchive(InstallContext context) throws IOException {
+        ArchiveInspector.Inspection inspection = ArchiveInspector.inspect(context.getZipPath(),
+                context.getOptions().getExtractionProfile());
+        context.setInspection(inspection);
+        context.log("🔍 发行包信息: " + inspection.describe() + "\n");
+        if (!ArchiveInspector.checkFreeSpace(inspection, context.getInstallPath(), context.getLog())) {
+            return InstallStep.Outcome.FAILED;
+        }
+        if (inspection.getRootName() != null && Files.isDirectory(context.getInstallPath().resolve(inspection.getRootName()))) {
+            context.log("⚠️ 安装目录中已存在 " + inspection.getRootName() + "，将在其基础上继续解压\n");
+        }
+        return InstallStep.Outcome.SUCCEEDED;
+    }
 
-            // 找到解压后的 MySQL 根目录
-            Path mysqlRootDir = Files.list(installPath)
-                    .filter(Files::isDirectory)
-                    .filter(p -> p.getFileName().toString().toLowerCase().contains("mysql"))
-                    .findFirst().orElse(null);
+    // 端口已被占用时新服务会启动失败，提前提示；不中止安装（可能是准备替换的旧实例）
+    static InstallStep.Outcome checkPort(InstallContext context) {
+        int port;
+        try {
+            port = Integer.parseInt(context.getPort().trim());
+        } catch (NumberFormatException e) {
+            context.log("❌ 端口号无效: " + context.getPort() + "\n");
+            return InstallStep.Outcome.FAILED;
+        }
+        if (port < 1 || port > 65535) {
+            context.log("❌ 端口号超出范围: " + port + "\n");
+            return InstallStep.Outcome.FAILED;
+        }
+        try (java.net.Socket socket = new java.net.Socket()) {
+            socket.connect(new java.net.InetSocketAddress("localhost", port), PORT_CHECK_TIMEOUT_MILLIS);
+            context.log("⚠️ 端口 " + port + " 已被占用，新服务可能无法启动\n");
+            return InstallStep.Outcome.WARNED;
+        } catch (IOException e) {
+            return InstallStep.Outcome.SUCCEEDED;
+        }
+    }
 
-            if (mysqlRootDir == null) {
-                logConsumer.accept("❌ 未找到解压后的 MySQL 根目录，安装失败\n");
-                return;
+    static InstallStep.Outcome extract(InstallContext context) throws IOException {
+        Path installPath = context.getInstallPath();
+        InstallOptions options = context.getOptions();
+        boolean createdInstallDir = !Files.exists(installPath);
+        if (createdInstallDir) Files.createDirectories(installPath);
+        context.log("📂 创建安装目录: " + installPath + "\n");
+
+        try {
+            if (options.getDistributionCache() != null) {
+                options.getDistributionCache().populate(context.getZipPath(), installPath,
+                        newExtractor(context.getZipPath(), options.getExtractionProfile()), options.getExpectedChecksum(),
+                        context.getLog());
+            } else {
+                unzip(context.getZipPath(), installPath.toString(), options.getExtractionProfile(),
+                        options.getExpectedChecksum(), context.getLog());
+            }
+        } catch (ChecksumMismatchException e) {
+            // 解压内容已回滚，本次新建的安装目录也一并删除
+            if (createdInstallDir) {
+                try (DirectoryStream<Path> children = Files.newDirectoryStream(installPath)) {
+                    if (!children.iterator().hasNext()) Files.delete(installPath);
+                }
             }
+            context.log("❌ 发行包校验失败，安装已中止\n");
+            return InstallStep.Outcome.FAILED;
+        }
 
-            Path binPath = mysqlRootDir.resolve("bin");
-            if (!Files.exists(binPath)) {
-                logConsumer.accept("❌ 未找到 bin 目录，安装失败\n");
-                return;
+        // 找到解压后的 MySQL 根目录：优先使用预检得到的根目录，避免误选安装目录中的其他实例
+        ArchiveInspector.Inspection inspection = context.getInspection();
+        Path mysqlRootDir;
+        if (inspection.getRootName() != null && Files.isDirectory(installPath.resolve(inspection.getRootName()))) {
+            mysqlRootDir = installPath.resolve(inspection.getRootName());
+        } else {
+            try (Stream<Path> children = Files.list(installPath)) {
+                mysqlRootDir = children
+                        .filter(Files::isDirectory)
+                        .filter(p -> p.getFileName().toString().toLowerCase().contains("mysql"))
+                        .findFirst().orElse(null);
             }
+        }
+
+        if (mysqlRootDir == null) {
+            context.log("❌ 未找到解压后的 MySQL 根目录，安装失败\n");
+            return InstallStep.Outcome.FAILED;
+        }
 
-            // 创建 data 目录在 MySQL 根目录
-            Path dataDir = mysqlRootDir.resolve("data");
-            if (!Files.exists(dataDir)) Files.createDirectories(dataDir);
-            logConsumer.accept("📂 创建数据目录: " + dataDir + "\n");
-
-            // 生成 my.ini 在 MySQL 根目录
-            Path myIni = mysqlRootDir.resolve("my.ini");
-            try (BufferedWriter writer = Files.newBufferedWriter(myIni)) {
-                writer.write("[mysqld]\n");
-                writer.write("basedir=" + mysqlRootDir.toAbsolutePath().toString().replace("\\", "\\\\") + "\n");
-                writer.write("datadir=" + dataDir.toAbsolutePath().toString().replace("\\", "\\\\") + "\n");
-                writer.write("port=" + port + "\n");
-                writer.write("character-set-server=utf8mb4\n");
-                writer.write("sql-mode=STRICT_TRANS_TABLES,NO_ENGINE_SUBSTITUTION\n");
-                writer.write("[client]\n");
-                writer.write("port=" + port + "\n");
+        Path binPath = mysqlRootDir.resolve("bin");
+        if (!Files.exists(binPath)) {
+            context.log("❌ 未找到 bin 目录，安装失败\n");
+            return InstallStep.Outcome.FAILED;
+        }
+        context.setMysqlRootDir(mysqlRootDir);
+        context.setBinPath(binPath);
+        return InstallStep.Outcome.SUCCEEDED;
+    }
+
+    // 读取注册表中的系统 PATH 原始值（不展开 %SystemRoot% 等变量），解压的同时进行
+    static InstallStep.Outcome readMachinePath(InstallContext context) throws IOException, InterruptedException {
+        if (!context.isConfigureEnv()) return InstallStep.Outcome.SKIPPED;
+        if (!context.isAdmin()) {
+            context.log("⚠️ 非管理员模式，无法修改 PATH，请手动添加 bin 目录\n");
+            return InstallStep.Outcome.SKIPPED;
+        }
+        ProcessResult query = context.getRunner().run(ProcessCommand.of("reg", "query", MACHINE_ENVIRONMENT_KEY, "/v", "Path")
+                .setCharset(ProcessCommand.CONSOLE_CHARSET).setTimeout(WindowsServiceChecker.QUERY_TIMEOUT));
+        String path = query.isSuccess() ? parseRegValue(query.getOutput(), "Path") : null;
+        if (path == null) {
+            context.log("⚠️ 无法读取系统 PATH，" + query + "，请手动添加 bin 目录\n");
+            return InstallStep.Outcome.WARNED;
+        }
+        context.setMachinePath(path);
+        return InstallStep.Outcome.SUCCEEDED;
+    }
+
+    // reg query 输出中的一行: "    Path    REG_EXPAND_SZ    C:\Windows\system32;..."，值本身可以含空格
+    static String parseRegValue(String output, String name) {
+        for (String line : output.split("\r?\n")) {
+            String[] parts = line.trim().split("\\s+", 3);
+            if (parts.length == 3 && parts[0].equalsIgnoreCase(name) && parts[1].startsWith("REG_")) {
+                return parts[2];
             }
-            logConsumer.accept("📄 my.ini 配置文件已生成: " + myIni + "\n");
+        }
+        return null;
+    }
 
-            // 初始化数据库
-            logConsumer.accept("⚙️ 初始化数据库...\n");
-            ProcessBuilder initPb = new ProcessBuilder(
-                    binPath.resolve("mysqld.exe").toString(),
-                    "--defaults-file=" + myIni.toAbsolutePath(),
-                    "--initialize-insecure",
-                    "--console"
-            );
-            initPb.directory(mysqlRootDir.toFile());
-            initPb.redirectErrorStream(true);
-            Process initProcess = initPb.start();
-
-            // 读取初始化输出
-            try (BufferedReader reader = new BufferedReader(new InputStreamReader(initProcess.getInputStream()))) {
-                String line;
-                while ((line = reader.readLine()) != null) {
-                    logConsumer.accept(line + "\n");
-                }
+    static InstallStep.Outcome writeConfig(InstallContext context) throws IOException {
+        Path mysqlRootDir = context.getMysqlRootDir();
+        Path home = context.getHomeDir();
+
+        // 创建 data 目录在 MySQL 根目录（批量安装时在实例目录）
+        Path dataDir = home.resolve("data");
+        if (!Files.exists(dataDir)) Files.createDirectories(dataDir);
+        context.log("📂 创建数据目录: " + dataDir + "\n");
+
+        // 生成 my.ini 在 MySQL 根目录（批量安装时在实例目录）
+        Path myIni = home.resolve("my.ini");
+        try (BufferedWriter writer = Files.newBufferedWriter(myIni)) {
+            writer.write("[mysqld]\n");
+            writer.write("basedir=" + mysqlRootDir.toAbsolutePath().toString().replace("\\", "\\\\") + "\n");
+            writer.write("datadir=" + dataDir.toAbsolutePath().toString().replace("\\", "\\\\") + "\n");
+            writer.write("port=" + context.getPort() + "\n");
+            writer.write("character-set-server=utf8mb4\n");
+            writer.write("sql-mode=STRICT_TRANS_TABLES,NO_ENGINE_SUBSTITUTION\n");
+            // 停止时导出缓冲池中的页号，启动时加载回来，重启后不必从冷缓存开始（见 WarmRestart）
+            writer.write("innodb_buffer_pool_dump_at_shutdown=ON\n");
+            writer.write("innodb_buffer_pool_load_at_startup=ON\n");
+            MyIniTuner.Settings tuning = tune(context);
+            if (tuning != null) {
+                writer.write("# " + tuning.getSummary() + "\n");
+                writer.write(tuning.toIni());
             }
+            writer.write("[client]\n");
+            writer.write("port=" + context.getPort() + "\n");
+        }
+        context.log("📄 my.ini 配置文件已生成: " + myIni + "\n");
+        context.setDataDir(dataDir);
+        context.setMyIni(myIni);
+        return InstallStep.Outcome.SUCCEEDED;
+    }
+
+    private static MyIniTuner.Settings tune(InstallContext context) {
+        InstallOptions options = context.getOptions();
+        if (options.getTuningProfile() == null) return null;
+        MyIniTuner.Hardware hardware = options.getHardware() != null ? options.getHardware()
+                : MyIniTuner.Hardware.detect(context.getInstallPath(), context.getRunner());
+        MyIniTuner.Settings settings = MyIniTuner.tune(hardware, context.getInstancesOnHost(), options.getTuningProfile(),
+                context.getInspection() != null ? context.getInspection().getVersion() : null);
+        context.log("🎛️ 性能参数（" + settings.getSummary() + "）: " + settings.getValues() + "\n");
+        return settings;
+    }
+
+    // 初始化数据库：默认通过 --init-file 在同一次初始化中设置 root 密码并执行初始化 SQL
+    static InstallStep.Outcome initializeDataDir(InstallContext context) throws IOException, InterruptedException {
+        InstallOptions options = context.getOptions();
+        Consumer<String> logConsumer = context.getLog();
 
-            int initExitCode = initProcess.waitFor();
-            if (initExitCode != 0) {
-                logConsumer.accept("❌ 数据库初始化失败，退出码: " + initExitCode + "\n");
-                return;
+        DataDirTemplateStore templates = options.getDataDirTemplates();
+        String templateKey = templates != null ? templateKey(context) : null;
+        if (templateKey != null) return populateFromTemplate(context, templates, templateKey);
+
+        logConsumer.accept("⚙️ 初始化数据库...\n");
+        ProcessResult init;
+        if (options.isCredentialsAtInit()) {
+            try (InitFile initFile = InitFile.create(context.getHomeDir(), context.getRootPassword(), options.getBootstrapSql())) {
+                init = initialize(context, initFile);
             }
-            logConsumer.accept("✅ 数据库初始化完成\n");
-
-            // 注册服务 - 使用MySQL自带的安装方式
-            if (WindowsServiceChecker.isAdmin()) {
-                String serviceName = "MySQL" + port;
-                logConsumer.accept("⚙️ 注册服务: " + serviceName + "\n");
-
-                // 首先尝试删除可能存在的旧服务
-                try {
-                    Process deleteProcess = new ProcessBuilder(
-                            binPath.resolve("mysqld.exe").toString(),
-                            "--remove",
-                            serviceName
-                    ).start();
-                    deleteProcess.waitFor();
-                    logConsumer.accept("ℹ️ 已尝试删除旧服务（如果存在）\n");
-                    Thread.sleep(2000); // 等待服务完全删除
-                } catch (Exception e) {
-                    logConsumer.accept("ℹ️ 删除旧服务时出错（可能服务不存在）: " + e.getMessage() + "\n");
+            if (init.isSuccess()) {
+                context.setCredentialsApplied(true);
+            } else {
+                // init-file 中的语句出错也会让初始化失败：清空数据目录，按原方式重新初始化
+                logConsumer.accept("⚠️ 使用 init-file 初始化失败，" + init + "，将重新初始化并在启动后设置密码\n");
+                if (options.getBootstrapSql() != null && !options.getBootstrapSql().isBlank()) {
+                    logConsumer.accept("⚠️ 初始化 SQL 未执行，请检查后手动执行\n");
                 }
+                FileTrees.deleteTree(context.getDataDir());
+                Files.createDirectories(context.getDataDir());
+                init = initialize(context, null);
+            }
+        } else {
+            init = initialize(context, null);
+        }
 
-                // 使用MySQL自带的服务安装功能
-                ProcessBuilder installPb = new ProcessBuilder(
-                        binPath.resolve("mysqld.exe").toString(),
-                        "--install",
-                        serviceName,
-                        "--defaults-file=" + myIni.toAbsolutePath()
-                );
-                installPb.redirectErrorStream(true);
-                Process installProcess = installPb.start();
-
-                // 读取安装输出
-                StringBuilder installOutput = new StringBuilder();
-                try (BufferedReader reader = new BufferedReader(new InputStreamReader(installProcess.getInputStream()))) {
-                    String line;
-                    while ((line = reader.readLine()) != null) {
-                        installOutput.append(line).append("\n");
-                    }
-                }
+        if (!init.isSuccess()) {
+            logConsumer.accept("❌ 数据库初始化失败，" + init + "\n");
+            return InstallStep.Outcome.FAILED;
+        }
+        logConsumer.accept(context.isCredentialsApplied()
+                ? "✅ 数据库初始化完成，root 密码已在初始化时设置\n"
+                : "✅ 数据库初始化完成\n");
+        return InstallStep.Outcome.SUCCEEDED;
+    }
 
-                int installExitCode = installProcess.waitFor();
-                if (installExitCode == 0) {
-                    logConsumer.accept("✅ 服务注册完成\n");
-
-                    // 配置服务为自动启动
-                    Process configProcess = new ProcessBuilder(
-                            "cmd.exe", "/c",
-                            "sc config " + serviceName + " start= auto"
-                    ).start();
-                    configProcess.waitFor();
-
-                    // 配置服务账户
-                    Process accountProcess = new ProcessBuilder(
-                            "cmd.exe", "/c",
-                            "sc config " + serviceName + " obj= \"NT AUTHORITY\\LocalService\" password= \"\""
-                    ).start();
-                    accountProcess.waitFor();
-
-                    // 启动服务
-                    Process startProcess = new ProcessBuilder(
-                            "cmd.exe", "/c",
-                            "net start " + serviceName
-                    ).redirectErrorStream(true).start();
-
-                    // 读取启动输出
-                    StringBuilder startOutput = new StringBuilder();
-                    try (BufferedReader reader = new BufferedReader(new InputStreamReader(startProcess.getInputStream()))) {
-                        String line;
-                        while ((line = reader.readLine()) != null) {
-                            startOutput.append(line).append("\n");
-                        }
-                    }
-
-                    int startExitCode = startProcess.waitFor();
-                    if (startExitCode == 0) {
-                        logConsumer.accept("▶️ 服务已启动\n");
-                    } else {
-                        logConsumer.accept("❌ 服务启动失败，返回码：" + startExitCode + "\n");
-                        logConsumer.accept("服务启动输出: " + startOutput.toString() + "\n");
-
-                        // 检查MySQL是否仍在运行
-                        if (isMySQLRunning(port)) {
-                            logConsumer.accept("⚠️ 服务启动报告失败，但MySQL进程似乎在运行\n");
-                            logConsumer.accept("这可能是因为服务启动超时或权限问题，但MySQL已成功启动\n");
-                        }
-                    }
-                } else {
-                    logConsumer.accept("❌ 服务注册失败，退出码: " + installExitCode + "\n");
-                    logConsumer.accept("安装输出: " + installOutput.toString() + "\n");
-
-                    // 回退到sc create方法
-                    logConsumer.accept("尝试使用sc create方法注册服务...\n");
-                    String scCommand = String.format(
-                            "sc create %s binPath= \"\\\"%s\\\" --defaults-file=\\\"%s\\\"\" type= own start= auto displayname= \"MySQL Server %s\"",
-                            serviceName,
-                            binPath.resolve("mysqld.exe").toAbsolutePath(),
-                            myIni.toAbsolutePath(),
-                            port
-                    );
-
-                    Process scProcess = new ProcessBuilder("cmd.exe", "/c", scCommand).start();
-                    int scExitCode = scProcess.waitFor();
-
-                    if (scExitCode == 0) {
-                        logConsumer.accept("✅ 使用sc create注册服务成功\n");
-
-                        // 配置服务账户
-                        Process accountProcess = new ProcessBuilder(
-                                "cmd.exe", "/c",
-                                "sc config " + serviceName + " obj= \"NT AUTHORITY\\LocalService\" password= \"\""
-                        ).start();
-                        accountProcess.waitFor();
-
-                        // 启动服务
-                        Process startProcess = new ProcessBuilder(
-                                "cmd.exe", "/c",
-                                "net start " + serviceName
-                        ).redirectErrorStream(true).start();
-
-                        // 读取启动输出
-                        StringBuilder startOutput = new StringBuilder();
-                        try (BufferedReader reader = new BufferedReader(new InputStreamReader(startProcess.getInputStream()))) {
-                            String line;
-                            while ((line = reader.readLine()) != null) {
-                                startOutput.append(line).append("\n");
-                            }
-                        }
-
-                        int startExitCode = startProcess.waitFor();
-                        if (startExitCode == 0) {
-                            logConsumer.accept("▶️ 服务已启动\n");
-                        } else {
-                            logConsumer.accept("❌ 服务启动失败，返回码：" + startExitCode + "\n");
-                            logConsumer.accept("服务启动输出: " + startOutput.toString() + "\n");
-
-                            // 检查MySQL是否仍在运行
-                            if (isMySQLRunning(port)) {
-                                logConsumer.accept("⚠️ 服务启动报告失败，但MySQL进程似乎在运行\n");
-                                logConsumer.accept("这可能是因为服务启动超时或权限问题，但MySQL已成功启动\n");
-                            }
-                        }
-                    } else {
-                        logConsumer.accept("❌ 使用sc create注册服务失败，退出码: " + scExitCode + "\n");
-                        logConsumer.accept("💡 可能需要手动注册服务或重启系统\n");
-                    }
-                }
-            } else {
-                logConsumer.accept("⚠️ 非管理员模式，跳过服务注册\n");
+    private static String templateKey(InstallContext context) throws IOException {
+        String version = context.getInspection() != null ? context.getInspection().getVersion() : null;
+        if (version == null) {
+            context.log("⚠️ 无法确定 MySQL 版本，不使用数据目录模板\n");
+            return null;
+        }
+        return DataDirTemplateStore.key(version, context.getMyIni());
+    }
+
+    // 模板中 root 密码为空：不带 init-file 初始化（否则密码和初始化 SQL 的结果会进入模板），
+    // 密码和初始化 SQL 改为在服务首次启动时通过 my.ini 中的 init-file 执行
+    private static InstallStep.Outcome populateFromTemplate(InstallContext context, DataDirTemplateStore templates,
+                                                            String templateKey) throws IOException, InterruptedException {
+        Consumer<String> logConsumer = context.getLog();
+        DataDirTemplateStore.Source source = templates.populate(templateKey, context.getDataDir(), () -> {
+            logConsumer.accept("⚙️ 初始化数据库...\n");
+            ProcessResult init = initialize(context, null);
+            if (!init.isSuccess()) logConsumer.accept("❌ 数据库初始化失败，" + init + "\n");
+            return init.isSuccess();
+        }, logConsumer);
+        if (source == null) return InstallStep.Outcome.FAILED;
+
+        if (context.getOptions().isCredentialsAtInit()) {
+            InitFile initFile = InitFile.create(context.getHomeDir(), context.getRootPassword(),
+                    context.getOptions().getBootstrapSql());
+            initFile.armIn(context.getMyIni());
+            context.setFirstStartInitFile(initFile);
+            logConsumer.accept("🔐 root 密码将在服务首次启动时通过 init-file 设置\n");
+        }
+        logConsumer.accept(source == DataDirTemplateStore.Source.TEMPLATE
+                ? "✅ 数据目录已从模板复制，跳过初始化\n"
+                : "✅ 数据库初始化完成\n");
+        return InstallStep.Outcome.SUCCEEDED;
+    }
+
+    // 注册服务 - 使用MySQL自带的安装方式，失败时回退到 sc create；未能启动时记为警告，仍继续设置密码
+    static InstallStep.Outcome registerService(InstallContext context) throws IOException, InterruptedException {
+        if (!context.isAdmin()) {
+            context.log("⚠️ 非管理员模式，跳过服务注册\n");
+            return InstallStep.Outcome.SKIPPED;
+        }
+        ProcessRunner runner = context.getRunner();
+        Path binPath = context.getBinPath();
+        Path myIni = context.getMyIni();
+        String serviceName = context.getServiceName();
+        context.log("⚙️ 注册服务: " + serviceName + "\n");
+
+        // 首先尝试删除可能存在的旧服务
+        try {
+            runner.run(ProcessCommand.of(
+                    executable(binPath, "mysqld").toString(),
+                    "--remove",
+                    serviceName
+            ).setTimeout(WindowsServiceChecker.QUERY_TIMEOUT));
+            context.log("ℹ️ 已尝试删除旧服务（如果存在）\n");
+            // 等待服务完全删除（服务仍被打开时会处于“标记为删除”状态）
+            if (!WindowsServiceChecker.waitForServiceRemoval(serviceName, SERVICE_REMOVAL_TIMEOUT)) {
+                context.log("⚠️ 旧服务在 " + SERVICE_REMOVAL_TIMEOUT.getSeconds() + " 秒内未完全删除，继续注册\n");
             }
+        } catch (InterruptedException e) {
+            throw e;
+        } catch (Exception e) {
+            context.log("ℹ️ 删除旧服务时出错（可能服务不存在）: " + e.getMessage() + "\n");
+        }
 
-            // 设置root密码
-            setRootPassword(binPath, rootPassword, port, logConsumer);
-
-            // 配置环境变量
-            if (configureEnv && WindowsServiceChecker.isAdmin()) {
-                String pathToAdd = binPath.toAbsolutePath().toString();
-                Process envProcess = new ProcessBuilder("cmd.exe", "/c",
-                        "for /f \"skip=2 tokens=1,2*\" %a in ('reg query \"HKLM\\SYSTEM\\CurrentControlSet\\Control\\Session Manager\\Environment\" /v Path') do setx PATH \"%c;" + pathToAdd + "\" /M").start();
-                envProcess.waitFor();
-                logConsumer.accept("📌 已将 bin 加入 PATH: " + pathToAdd + "\n");
-            } else if (configureEnv) {
-                logConsumer.accept("⚠️ 非管理员模式，无法修改 PATH，请手动添加 bin 目录\n");
+        // 使用MySQL自带的服务安装功能
+        ProcessResult install = runner.run(ProcessCommand.of(
+                executable(binPath, "mysqld").toString(),
+                "--install",
+                serviceName,
+                "--defaults-file=" + myIni.toAbsolutePath()
+        ).setTimeout(WindowsServiceChecker.QUERY_TIMEOUT));
+
+        if (install.isSuccess()) {
+            context.log("✅ 服务注册完成\n");
+
+            // 配置服务为自动启动
+            runner.run(ProcessCommand.shell("sc config " + serviceName + " start= auto")
+                    .setTimeout(WindowsServiceChecker.QUERY_TIMEOUT));
+        } else {
+            context.log("❌ 服务注册失败，" + install + "\n");
+            context.log("安装输出: " + install.getOutput() + "\n");
+
+            // 回退到sc create方法
+            context.log("尝试使用sc create方法注册服务...\n");
+            String scCommand = String.format(
+                    "sc create %s binPath= \"\\\"%s\\\" --defaults-file=\\\"%s\\\"\" type= own start= auto displayname= \"MySQL Server %s\"",
+                    serviceName,
+                    executable(binPath, "mysqld").toAbsolutePath(),
+                    myIni.toAbsolutePath(),
+                    context.getPort()
+            );
+
+            ProcessResult create = runner.run(ProcessCommand.shell(scCommand)
+                    .setTimeout(WindowsServiceChecker.QUERY_TIMEOUT));
+            if (!create.isSuccess()) {
+                context.log("❌ 使用sc create注册服务失败，" + create + "\n");
+                context.log("💡 可能需要手动注册服务或重启系统\n");
+                return InstallStep.Outcome.WARNED;
             }
+            context.log("✅ 使用sc create注册服务成功\n");
+        }
 
-            logConsumer.accept("🎉 MySQL 安装完成！\n");
-            logConsumer.accept("📋 连接信息:\n");
-            logConsumer.accept("   主机: localhost\n");
-            logConsumer.accept("   端口: " + port + "\n");
-            logConsumer.accept("   用户: root\n");
-            logConsumer.accept("   密码: " + rootPassword + "\n");
+        // 配置服务账户
+        runner.run(ProcessCommand.shell("sc config " + serviceName + " obj= \"NT AUTHORITY\\LocalService\" password= \"\"")
+                .setTimeout(WindowsServiceChecker.QUERY_TIMEOUT));
+
+        // 启动服务
+        ProcessResult start = runner.run(ProcessCommand.shell("net start " + serviceName)
+                .setTimeout(WindowsServiceChecker.SERVICE_CONTROL_TIMEOUT));
+        if (start.isSuccess()) {
+            context.log("▶️ 服务已启动\n");
+            context.setServerStarted(true);
+            return InstallStep.Outcome.SUCCEEDED;
+        }
+        context.log("❌ 服务启动失败，" + start + "\n");
+        context.log("服务启动输出: " + start.getOutput() + "\n");
+
+        // 检查MySQL是否仍在运行
+        if (isMySQLRunning(context.getPort())) {
+            context.setServerStarted(true);
+            context.log("⚠️ 服务启动报告失败，但MySQL进程似乎在运行\n");
+            context.log("这可能是因为服务启动超时或权限问题，但MySQL已成功启动\n");
+        }
+        return InstallStep.Outcome.WARNED;
+    }
 
-        } catch (Exception e) {
-            logConsumer.accept("❌ 安装失败: " + e.getMessage() + "\n");
-            e.printStackTrace();
+    // 初始化时未能设置密码时，回退到启动后用 mysql.exe 设置
+    // 首次启动的 init-file：握手包在 init-file 执行完之后才会发出，等到就绪即可确认已执行
+    static InstallStep.Outcome applyRootPassword(InstallContext context) throws InterruptedException {
+        boolean serverStarted = context.isServerStarted();
+        if (context.getFirstStartInitFile() != null) {
+            boolean applied = false;
+            if (serverStarted) {
+                ReadinessProbe.Result ready = ReadinessProbe.localhost(context.getPort()).await();
+                applied = ready.isReady();
+                if (!applied) context.log("⚠️ 等待 MySQL 就绪超时: " + ready + "\n");
+                // 已经等满了完整的就绪时间，回退时不再重复等待
+                serverStarted = false;
+            }
+            disarmFirstStartInitFile(context);
+            if (applied) {
+                context.setCredentialsApplied(true);
+                context.log("✅ root 密码已在服务首次启动时设置\n");
+                return InstallStep.Outcome.SUCCEEDED;
+            }
+            context.log("⚠️ 服务未在首次启动时执行 init-file，改为直接设置密码\n");
+            String bootstrapSql = context.getOptions().getBootstrapSql();
+            if (bootstrapSql != null && !bootstrapSql.isBlank()) {
+                context.log("⚠️ 初始化 SQL 未执行，请检查后手动执行\n");
+            }
         }
+        if (context.isCredentialsApplied()) return InstallStep.Outcome.SKIPPED;
+        return setRootPassword(context.getRunner(), context.getBinPath(), context.getRootPassword(), context.getPort(),
+                serverStarted, context.getLog())
+                ? InstallStep.Outcome.SUCCEEDED : InstallStep.Outcome.WARNED;
+    }
+
+    // 从 my.ini 移除首次启动的 init-file 并删除文件（含明文密码）；安装中途失败时也要调用
+    static void disarmFirstStartInitFile(InstallContext context) {
+        InitFile initFile = context.getFirstStartInitFile();
+        if (initFile == null) return;
+        context.setFirstStartInitFile(null);
+        try {
+            initFile.disarm(context.getMyIni());
+        } catch (IOException e) {
+            context.log("⚠️ 移除 init-file 失败，请手动删除 " + initFile.getPath() + " 及 my.ini 中的 init-file 行: "
+                    + e.getMessage() + "\n");
+        }
+    }
+
+    // 配置环境变量：在读取到的原始 PATH 后追加 bin 目录；直接调用 setx，避免 cmd 展开值中的 %变量%
+    static InstallStep.Outcome addToPath(InstallContext context) throws IOException, InterruptedException {
+        String machinePath = context.getMachinePath();
+        if (machinePath == null) return InstallStep.Outcome.SKIPPED;
+
+        String pathToAdd = context.getBinPath().toAbsolutePath().toString();
+        for (String entry : machinePath.split(";")) {
+            if (entry.trim().equalsIgnoreCase(pathToAdd)) {
+                context.log("📌 bin 已在 PATH 中: " + pathToAdd + "\n");
+                return InstallStep.Outcome.SKIPPED;
+            }
+        }
+        String newPath = machinePath.endsWith(";") ? machinePath + pathToAdd : machinePath + ";" + pathToAdd;
+        ProcessResult setx = context.getRunner().run(ProcessCommand.of("setx", "PATH", newPath, "/M")
+                .setCharset(ProcessCommand.CONSOLE_CHARSET).setTimeout(WindowsServiceChecker.QUERY_TIMEOUT));
+        if (!setx.isSuccess()) {
+            context.log("⚠️ 修改 PATH 失败，" + setx + "，请手动添加 bin 目录: " + pathToAdd + "\n");
+            return InstallStep.Outcome.WARNED;
+        }
+        context.log("📌 已将 bin 加入 PATH: " + pathToAdd + "\n");
+        return InstallStep.Outcome.SUCCEEDED;
+    }
+
+    // 快速初始化时使用临时 defaults 文件，初始化结果不完整则清空数据目录，按 my.ini 重新初始化
+    private static ProcessResult initialize(InstallContext context, InitFile initFile) throws IOException, InterruptedException {
+        if (!context.getOptions().isFastInit()) return initialize(context, context.getMyIni(), initFile);
+
+        String version = context.getInspection() != null ? context.getInspection().getVersion() : null;
+        Path fastIni = FastInitConfig.write(context.getMyIni(), version);
+        context.log("⚡ 快速初始化：使用临时配置 " + fastIni.getFileName() + "（关闭 doublewrite 和 binlog，最小 redo 和缓冲池）\n");
+        long start = System.currentTimeMillis();
+        ProcessResult init;
+        try {
+            init = initialize(context, fastIni, initFile);
+        } finally {
+            Files.deleteIfExists(fastIni);
+        }
+        if (!init.isSuccess()) return init;
+
+        String problem = FastInitConfig.validate(context.getDataDir(), version);
+        if (problem == null) {
+            context.log(String.format("⚡ 快速初始化用时 %.1f s，服务首次启动时按 my.ini 创建 redo 和 doublewrite 文件%n",
+                    (System.currentTimeMillis() - start) / 1000.0));
+            return init;
+        }
+        context.log("⚠️ 快速初始化结果不完整（" + problem + "），将按 my.ini 重新初始化\n");
+        FileTrees.deleteTree(context.getDataDir());
+        Files.createDirectories(context.getDataDir());
+        return initialize(context, context.getMyIni(), initFile);
+    }
+
+    // initFile 为 null 时只初始化，root 密码为空
+    private static ProcessResult initialize(InstallContext context, Path defaultsFile, InitFile initFile)
+            throws IOException, InterruptedException {
+        Consumer<String> logConsumer = context.getLog();
+        List<String> command = new ArrayList<>(List.of(
+                executable(context.getBinPath(), "mysqld").toString(),
+                "--defaults-file=" + defaultsFile.toAbsolutePath(),
+                "--initialize-insecure",
+                "--console"));
+        if (initFile != null) command.add(initFile.toArgument());
+        return context.getRunner().run(ProcessCommand.of(command)
+                .setDirectory(context.getMysqlRootDir()).setTimeout(INIT_TIMEOUT).setLineConsumer(line -> logConsumer.accept(line + "\n")));
     }
 
     private static boolean isMySQLRunning(String port) {
@@ -267,16 +542,9 @@ public class MySQLInstaller {
             socket.close();
             return true;
         } catch (Exception e) {
-            // 检查mysqld进程是否存在
+            // 检查mysqld进程是否存在（进程内枚举，不启动 tasklist）
             try {
-                Process process = Runtime.getRuntime().exec("tasklist /fi \"imagename eq mysqld.exe\"");
-                BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream()));
-                String line;
-                while ((line = reader.readLine()) != null) {
-                    if (line.contains("mysqld.exe")) {
-                        return true;
-                    }
-                }
+                return MysqldProcesses.anyRunning();
             } catch (Exception ex) {
                 // 忽略异常
             }
@@ -284,69 +552,64 @@ public class MySQLInstaller {
         }
     }
 
-    private static void setRootPassword(Path binPath, String password, String port, Consumer<String> logConsumer) {
+    private static boolean setRootPassword(ProcessRunner runner, Path binPath, String password, String port,
+                                           boolean serverStarted, Consumer<String> logConsumer) {
         try {
             logConsumer.accept("⚙️ 设置 root 密码...\n");
 
-            // 等待MySQL服务完全启动
-            Thread.sleep(5000);
+            // 等待MySQL真正接受连接（收到握手包），而不是固定等待
+            ReadinessProbe.Result ready = ReadinessProbe.localhost(port)
+                    .setDeadline(serverStarted ? ReadinessProbe.DEFAULT_DEADLINE : NOT_STARTED_READY_TIMEOUT)
+                    .await();
+            if (ready.isReady()) {
+                logConsumer.accept("✅ MySQL 已就绪: " + ready + "\n");
+            } else {
+                logConsumer.accept("⚠️ 等待 MySQL 就绪超时: " + ready + "\n");
+            }
 
-            ProcessBuilder pb = new ProcessBuilder(
-                    binPath.resolve("mysql.exe").toString(),
+            ProcessResult result = runner.run(ProcessCommand.of(
+                    executable(binPath, "mysql").toString(),
                     "-u", "root",
                     "--protocol=tcp",
                     "--port=" + port,
                     "--execute", "ALTER USER 'root'@'localhost' IDENTIFIED BY '" + password + "'; FLUSH PRIVILEGES;"
-            );
-
-            pb.redirectErrorStream(true);
-            Process process = pb.start();
-
-            try (BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream()))) {
-                String line;
-                while (Boolean.parseBoolean((line = String.valueOf(reader.readLine() != null)))) {
-                    logConsumer.accept(line + "\n");
-                }
-            }
+            ).setTimeout(WindowsServiceChecker.QUERY_TIMEOUT).setLineConsumer(line -> logConsumer.accept(line + "\n")));
 
-            int exitCode = process.waitFor();
-            if (exitCode == 0) {
+            if (result.isSuccess()) {
                 logConsumer.accept("✅ Root 密码设置成功\n");
+                return true;
             } else {
-                logConsumer.accept("⚠️ 设置 root 密码失败，退出码: " + exitCode + "\n");
+                logConsumer.accept("⚠️ 设置 root 密码失败，" + result + "\n");
                 logConsumer.accept("💡 提示: 请手动执行以下命令设置密码:\n");
-                logConsumer.accept("   " + binPath.resolve("mysql.exe").toString() + " -u root --protocol=tcp --port=" + port + " -e \"ALTER USER 'root'@'localhost' IDENTIFIED BY '" + password + "';\"\n");
+                logConsumer.accept("   " + executable(binPath, "mysql").toString() + " -u root --protocol=tcp --port=" + port + " -e \"ALTER USER 'root'@'localhost' IDENTIFIED BY '" + password + "';\"\n");
             }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
         } catch (Exception e) {
             logConsumer.accept("⚠️ 设置 root 密码时出错: " + e.getMessage() + "\n");
         }
+        return false;
     }
 
-    private static void unzip(String zipFilePath, String destDir, Consumer<String> logConsumer) throws IOException {
-        byte[] buffer = new byte[4096];
-        try (ZipInputStream zis = new ZipInputStream(new FileInputStream(zipFilePath))) {
-            ZipEntry entry;
-            while ((entry = zis.getNextEntry()) != null) {
-                Path filePath = Paths.get(destDir, entry.getName());
-
-                if (entry.isDirectory()) {
-                    Files.createDirectories(filePath);
-                } else {
-                    // 创建父目录
-                    Files.createDirectories(filePath.getParent());
-
-                    try (FileOutputStream fos = new FileOutputStream(filePath.toFile());
-                         BufferedOutputStream bos = new BufferedOutputStream(fos, buffer.length)) {
-
-                        int len;
-                        while ((len = zis.read(buffer)) > 0) {
-                            bos.write(buffer, 0, len);
-                        }
-                    }
-                }
-                zis.closeEntry();
-            }
+    // 默认使用并行解压；设置 -Dmysqlauto.unzip.legacy=true 可切回单流解压做吞吐对比（仅 ZIP）
+    private static ExtractStats unzip(String zipFilePath, String destDir, ExtractionProfile profile,
+                                                   ArchiveChecksum checksum, Consumer<String> logConsumer) throws IOException {
+        if (Boolean.getBoolean("mysqlauto.unzip.legacy") && !ArchiveExtractor.isTarArchive(zipFilePath)) {
+            return ZipExtractor.extractSequential(zipFilePath, destDir, profile, checksum, logConsumer);
         }
-        logConsumer.accept("📦 ZIP 解压完成: " + zipFilePath + "\n");
+        return newExtractor(zipFilePath, profile).extract(zipFilePath, destDir, checksum, logConsumer);
+    }
+
+    private static ArchiveExtractor newExtractor(String archivePath, ExtractionProfile profile) {
+        int workers = Integer.getInteger("mysqlauto.unzip.workers", ZipExtractor.DEFAULT_WORKERS);
+        return ArchiveExtractor.forArchive(archivePath, Math.max(1, workers), profile, true);
+    }
+
+    // Windows 发行包是 mysqld.exe，Linux tar 包是不带扩展名的 mysqld
+    static Path executable(Path binPath, String name) {
+        Path exe = binPath.resolve(name + ".exe");
+        if (Files.exists(exe)) return exe;
+        Path plain = binPath.resolve(name);
+        return Files.exists(plain) ? plain : exe;
     }
 }
\ No newline at end of file
@@ -12,6 +12,7 @@ import javafx.stage.FileChooser;
 import javafx.stage.Stage;
 
 import java.io.File;
+import java.util.ArrayList;
 import java.util.List;
 
 public class MySQLInstallerUI extends Application {
@@ -22,9 +23,26 @@ public class MySQLInstallerUI extends Application {
     private TextArea logArea;
     private ComboBox<WindowsServiceChecker.ServiceInfo> serviceComboBox;
     private CheckBox envCheckBox;
+    private ComboBox<ExtractionProfile> profileComboBox;
+    private CheckBox cacheCheckBox;
+    private CheckBox templateCheckBox;
+    private CheckBox fastInitCheckBox;
+    private CheckBox tuningCheckBox;
+    private ComboBox<MyIniTuner.Profile> tuningProfileComboBox;
+    private TextArea tuningPreviewArea;
+    // 启动时在后台检测（磁盘类型按用户目录所在分区），检测完成前为 null
+    private MyIniTuner.Hardware hardware;
+    private String archiveVersion;
+    private TextField checksumField;
+    private TextArea bootstrapSqlArea;
+    private TextArea batchInstancesArea;
+    private Spinner<Integer> initConcurrencySpinner;
+    private Label archiveInfoLabel;
     private boolean isAdmin;
     private ProgressIndicator progressIndicator;
     private Label statusLabel;
+    private Button cancelInstallButton;
+    private Task<InstallReport> installTask;
 
     @Override
     public void start(Stage primaryStage) {
@@ -47,7 +65,7 @@ public class MySQLInstallerUI extends Application {
         // 管理选项卡
         Tab manageTab = new Tab("管理服务");
         manageTab.setClosable(false);
-        manageTab.setContent(createManageTabContent());
+        manageTab.setContent(createManageTabContent(primaryStage));
 
         tabPane.getTabs().addAll(installTab, manageTab);
 
@@ -72,8 +90,13 @@ public class MySQLInstallerUI extends Application {
 
         root.getChildren().addAll(tabPane, logArea, statusBox);
 
-        // 自动刷新服务列表
-        refreshServiceList();
+        // 服务列表只应用变化的条目；启动时加载一次并询问是否启动已停止的服务
+        ServiceRegistry.getDefault().addListener(change -> Platform.runLater(() -> applyServiceChange(change)));
+        // 之后只轮询已知服务的状态，启动/停止（包括在本工具之外）在一秒内反映到列表
+        ServiceWatcher.getDefault().addListener(change -> Platform.runLater(
+                () -> logArea.appendText("🔄 服务状态变化: " + change + "\n")));
+        loadServiceList();
+        ServiceWatcher.getDefault().start();
 
         primaryStage.setScene(new Scene(root, 900, 600));
         primaryStage.show();
@@ -88,16 +111,30 @@ public class MySQLInstallerUI extends Application {
         Button selectZipButton = new Button("选择ZIP文件");
         selectZipButton.setOnAction(e -> {
             FileChooser fc = new FileChooser();
-            fc.getExtensionFilters().add(new FileChooser.ExtensionFilter("ZIP 文件", "*.zip"));
+            fc.getExtensionFilters().addAll(
+                    new FileChooser.ExtensionFilter("MySQL 发行包", "*.zip", "*.tar.gz", "*.tgz", "*.tar.xz", "*.txz"),
+                    new FileChooser.ExtensionFilter("ZIP 文件", "*.zip"),
+                    new FileChooser.ExtensionFilter("tar 压缩包", "*.tar.gz", "*.tgz", "*.tar.xz", "*.txz"));
             File f = fc.showOpenDialog(primaryStage);
             if (f != null) {
                 zipPathField.setText(f.getAbsolutePath());
-                logArea.appendText("✅ 已选择 ZIP 文件: " + f.getAbsolutePath() + "\n");
+                logArea.appendText("✅ 已选择发行包: " + f.getAbsolutePath() + "\n");
+                inspectSelectedArchive();
             }
         });
 
         HBox zipBox = new HBox(10, new Label("MySQL ZIP 包："), zipPathField, selectZipButton);
 
+        // 发行包预检结果
+        archiveInfoLabel = new Label();
+        archiveInfoLabel.setWrapText(true);
+
+        // 校验和输入（可选）
+        checksumField = new TextField();
+        checksumField.setPrefWidth(420);
+        checksumField.setPromptText("可选，SHA-256 或 MD5，如 sha256:xxxx");
+        HBox checksumBox = new HBox(10, new Label("校验和："), checksumField);
+
         // 密码输入
         rootPasswordField = new PasswordField();
         rootPasswordField.setPromptText("请输入 root 密码");
@@ -107,6 +144,13 @@ public class MySQLInstallerUI extends Application {
         portField = new TextField("3306");
         HBox portBox = new HBox(10, new Label("端口号："), portField);
 
+        // 初始化 SQL（可选），与 root 密码一起在初始化时执行
+        bootstrapSqlArea = new TextArea();
+        bootstrapSqlArea.setPrefRowCount(3);
+        bootstrapSqlArea.setPrefWidth(420);
+        bootstrapSqlArea.setPromptText("可选，初始化时执行，如 CREATE DATABASE app; CREATE USER 'app'@'%' IDENTIFIED BY '...';（每条语句占一行）");
+        HBox bootstrapBox = new HBox(10, new Label("初始化 SQL："), bootstrapSqlArea);
+
         // 环境变量选项
         envCheckBox = new CheckBox("自动配置环境变量");
         envCheckBox.setSelected(true);
@@ -116,16 +160,151 @@ public class MySQLInstallerUI extends Application {
             envCheckBox.setTooltip(new Tooltip("需要管理员权限"));
         }
 
+        // 解压配置
+        profileComboBox = new ComboBox<>();
+        profileComboBox.getItems().addAll(ExtractionProfile.builtIns());
+        profileComboBox.getSelectionModel().select(ExtractionProfile.FULL);
+        profileComboBox.setTooltip(new Tooltip("最小服务端/服务端+客户端会跳过测试套件、调试符号等文件"));
+        profileComboBox.setOnAction(e -> inspectSelectedArchive());
+        HBox profileBox = new HBox(10, new Label("解压配置："), profileComboBox);
+
+        // 发行包缓存选项
+        cacheCheckBox = new CheckBox("使用本地发行包缓存（重复安装同一 ZIP 时免解压）");
+        cacheCheckBox.setSelected(true);
+        templateCheckBox = new CheckBox("使用数据目录模板（同一版本再次安装时免初始化）");
+        fastInitCheckBox = new CheckBox("快速初始化（初始化时关闭 doublewrite 和 binlog、使用最小 redo，启动时恢复正式配置）");
+        fastInitCheckBox.setSelected(true);
+
+        // 性能参数：按硬件和负载类型生成，预览随负载类型、发行包版本和批量实例数更新
+        tuningCheckBox = new CheckBox("按硬件生成性能参数：");
+        tuningCheckBox.setSelected(true);
+        tuningProfileComboBox = new ComboBox<>();
+        tuningProfileComboBox.getItems().addAll(MyIniTuner.Profile.values());
+        tuningProfileComboBox.getSelectionModel().select(MyIniTuner.Profile.OLTP);
+        tuningPreviewArea = new TextArea();
+        tuningPreviewArea.setEditable(false);
+        tuningPreviewArea.setPrefRowCount(6);
+        tuningPreviewArea.setPrefWidth(420);
+        tuningCheckBox.setOnAction(e -> {
+            tuningProfileComboBox.setDisable(!tuningCheckBox.isSelected());
+            updateTuningPreview();
+        });
+        tuningProfileComboBox.setOnAction(e -> updateTuningPreview());
+        HBox tuningBox = new HBox(10, tuningCheckBox, tuningProfileComboBox);
+        TitledPane tuningPane = new TitledPane("my.ini 性能参数预览", tuningPreviewArea);
+        tuningPane.setExpanded(false);
+
         // 安装按钮
         Button installButton = new Button("开始安装");
         installButton.setStyle("-fx-font-weight: bold; -fx-background-color: #2E8B57; -fx-text-fill: white;");
         installButton.setOnAction(e -> startInstallation(primaryStage));
 
-        content.getChildren().addAll(zipBox, passwordBox, portBox, envCheckBox, installButton);
+        // 取消后重新安装到同一目录时，会根据解压日志续传
+        cancelInstallButton = new Button("取消安装");
+        cancelInstallButton.setDisable(true);
+        cancelInstallButton.setOnAction(e -> {
+            if (installTask != null) installTask.cancel(true);
+        });
+        HBox installActions = new HBox(10, installButton, cancelInstallButton);
+
+        // 批量安装：使用上面的发行包、校验和、初始化 SQL、解压和环境变量选项，端口和密码按行填写
+        batchInstancesArea = new TextArea();
+        batchInstancesArea.setPrefRowCount(4);
+        batchInstancesArea.setPrefWidth(420);
+        batchInstancesArea.setPromptText("每行一个实例：端口 root密码，如\n3307 Passw0rd1\n3308 Passw0rd2");
+        batchInstancesArea.textProperty().addListener((obs, oldText, newText) -> updateTuningPreview());
+        initConcurrencySpinner = new Spinner<>(1, 16, BatchInstaller.DEFAULT_INIT_CONCURRENCY);
+        initConcurrencySpinner.setPrefWidth(80);
+        Button batchInstallButton = new Button("批量安装");
+        batchInstallButton.setOnAction(e -> startBatchInstallation(primaryStage));
+        VBox batchContent = new VBox(10,
+                new HBox(10, new Label("实例："), batchInstancesArea),
+                new HBox(10, new Label("同时初始化："), initConcurrencySpinner, batchInstallButton));
+        TitledPane batchPane = new TitledPane("批量安装多个实例（共用一份程序目录，数据目录在 instances\\端口 下）", batchContent);
+        batchPane.setExpanded(false);
+
+        content.getChildren().addAll(zipBox, archiveInfoLabel, checksumBox, passwordBox, portBox, bootstrapBox, profileBox, cacheCheckBox, templateCheckBox, fastInitCheckBox, envCheckBox, tuningBox, tuningPane, installActions, batchPane);
+        detectHardware();
         return content;
     }
 
-    private VBox createManageTabContent() {
+    // 内存和核数立即可得，磁盘类型需要启动 PowerShell 查询
+    private void detectHardware() {
+        updateTuningPreview();
+        Task<MyIniTuner.Hardware> task = new Task<>() {
+            @Override
+            protected MyIniTuner.Hardware call() {
+                return MyIniTuner.Hardware.detect(new File(System.getProperty("user.home")).toPath(), ProcessRunner.getDefault());
+            }
+        };
+        task.setOnSucceeded(e -> {
+            hardware = task.getValue();
+            updateTuningPreview();
+        });
+        task.setOnFailed(e -> tuningPreviewArea.setText("⚠️ 检测硬件失败: " + task.getException().getMessage()));
+
+        Thread thread = new Thread(task, "hardware-detect");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    private void updateTuningPreview() {
+        if (!tuningCheckBox.isSelected()) {
+            tuningPreviewArea.setText("未启用：my.ini 中不写性能参数，使用 MySQL 默认值");
+        } else if (hardware == null) {
+            tuningPreviewArea.setText("🔍 正在检测硬件...");
+        } else {
+            tuningPreviewArea.setText(MyIniTuner.tune(hardware, previewInstanceCount(),
+                    tuningProfileComboBox.getSelectionModel().getSelectedItem(), archiveVersion).describe());
+        }
+    }
+
+    // 填写了批量实例时按实例数预览，否则按单实例
+    private int previewInstanceCount() {
+        if (batchInstancesArea.getText().isBlank()) return 1;
+        try {
+            return BatchInstaller.parseInstances(batchInstancesArea.getText()).size();
+        } catch (IllegalArgumentException e) {
+            return 1;
+        }
+    }
+
+    // 选择发行包或切换解压配置后在后台预检，只读中央目录，通常几十毫秒内完成
+    private void inspectSelectedArchive() {
+        String archive = zipPathField.getText().trim();
+        ExtractionProfile profile = profileComboBox.getSelectionModel().getSelectedItem();
+        if (archive.isEmpty() || profile == null) return;
+
+        archiveInfoLabel.setText("🔍 正在读取发行包信息...");
+        Task<ArchiveInspector.Inspection> task = new Task<>() {
+            @Override
+            protected ArchiveInspector.Inspection call() throws Exception {
+                return ArchiveInspector.inspect(archive, profile);
+            }
+        };
+
+        task.setOnSucceeded(e -> {
+            // 预检期间用户可能又选了别的文件
+            if (!archive.equals(zipPathField.getText().trim())) return;
+            ArchiveInspector.Inspection inspection = task.getValue();
+            archiveInfoLabel.setText("🔍 " + inspection.describe());
+            archiveVersion = inspection.getVersion();
+            updateTuningPreview();
+            logArea.appendText("🔍 发行包信息: " + inspection.describe() + "\n");
+        });
+
+        task.setOnFailed(e -> {
+            if (!archive.equals(zipPathField.getText().trim())) return;
+            archiveInfoLabel.setText("❌ 无法读取发行包: " + task.getException().getMessage());
+            logArea.appendText("❌ 无法读取发行包: " + task.getException().getMessage() + "\n");
+        });
+
+        Thread thread = new Thread(task, "archive-inspect");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    private VBox createManageTabContent(Stage primaryStage) {
         VBox content = new VBox(10);
 
         // 服务选择
@@ -160,7 +339,21 @@ public class MySQLInstallerUI extends Application {
             }
         });
 
-        HBox serviceActions = new HBox(10, startButton, stopButton);
+        Button upgradeButton = new Button("增量升级");
+        upgradeButton.setTooltip(new Tooltip("选择新补丁版本的 ZIP，只写入变化的文件并切换服务到新版本"));
+        if (!isAdmin) upgradeButton.setDisable(true);
+        upgradeButton.setOnAction(e -> upgradeSelectedService(primaryStage));
+
+        Button warmRestartButton = new Button("热重启");
+        warmRestartButton.setTooltip(new Tooltip("停止前导出缓冲池，启动后等缓冲池加载完成再报告就绪"));
+        warmRestartButton.setOnAction(e -> {
+            WindowsServiceChecker.ServiceInfo service = serviceComboBox.getSelectionModel().getSelectedItem();
+            if (service != null) {
+                warmRestartService(service);
+            }
+        });
+
+        HBox serviceActions = new HBox(10, startButton, stopButton, warmRestartButton, upgradeButton);
 
         content.getChildren().addAll(serviceBox, serviceActions);
         return content;
@@ -173,7 +366,7 @@ public class MySQLInstallerUI extends Application {
         boolean env = envCheckBox.isSelected();
 
         if (zip.isEmpty() || !new File(zip).exists()) {
-            logArea.appendText("❌ 请先选择有效的 ZIP 文件\n");
+            logArea.appendText("❌ 请先选择有效的 MySQL 发行包（.zip / .tar.gz / .tar.xz）\n");
             return;
         }
 
@@ -182,6 +375,9 @@ public class MySQLInstallerUI extends Application {
             return;
         }
 
+        InstallOptions options = createInstallOptions();
+        if (options == null) return;
+
         if (port.isEmpty() || !port.matches("\\d+")) {
             logArea.appendText("❌ 请输入有效的端口号\n");
             return;
@@ -207,7 +403,7 @@ public class MySQLInstallerUI extends Application {
                 alert.getButtonTypes().setAll(ButtonType.YES, ButtonType.NO);
                 alert.showAndWait().ifPresent(response -> {
                     if (response == ButtonType.YES) {
-                        proceedWithInstallation(zip, installDir, pwd, port, env);
+                        proceedWithInstallation(zip, installDir, pwd, port, env, options);
                     } else {
                         logArea.appendText("❌ 用户取消安装\n");
                     }
@@ -216,36 +412,151 @@ public class MySQLInstallerUI extends Application {
             }
         }
 
-        proceedWithInstallation(zip, installDir, pwd, port, env);
+        proceedWithInstallation(zip, installDir, pwd, port, env, options);
+    }
+
+    // 单实例和批量安装共用的选项；校验和格式无效时返回 null
+    private InstallOptions createInstallOptions() {
+        InstallOptions options = InstallOptions.defaults()
+                .setExtractionProfile(profileComboBox.getSelectionModel().getSelectedItem())
+                .setDistributionCache(cacheCheckBox.isSelected() ? DistributionCache.defaultCache() : null)
+                .setDataDirTemplates(templateCheckBox.isSelected() ? DataDirTemplateStore.defaultStore() : null)
+                .setFastInit(fastInitCheckBox.isSelected())
+                .setBootstrapSql(bootstrapSqlArea.getText().isBlank() ? null : bootstrapSqlArea.getText())
+                .setTuningProfile(tuningCheckBox.isSelected() ? tuningProfileComboBox.getSelectionModel().getSelectedItem() : null)
+                .setHardware(hardware);
+
+        String checksum = checksumField.getText().trim();
+        if (!checksum.isEmpty()) {
+            try {
+                options.setExpectedChecksum(ArchiveChecksum.parse(checksum));
+            } catch (IllegalArgumentException ex) {
+                logArea.appendText("❌ 校验和格式无效: " + ex.getMessage() + "\n");
+                return null;
+            }
+        }
+        return options;
+    }
+
+    private void startBatchInstallation(Stage primaryStage) {
+        String zip = zipPathField.getText().trim();
+        if (zip.isEmpty() || !new File(zip).exists()) {
+            logArea.appendText("❌ 请先选择有效的 MySQL 发行包（.zip / .tar.gz / .tar.xz）\n");
+            return;
+        }
+
+        List<BatchInstaller.Instance> instances;
+        try {
+            instances = BatchInstaller.parseInstances(batchInstancesArea.getText());
+        } catch (IllegalArgumentException ex) {
+            logArea.appendText("❌ " + ex.getMessage() + "\n");
+            return;
+        }
+
+        InstallOptions options = createInstallOptions();
+        if (options == null) return;
+        options.setInitConcurrency(initConcurrencySpinner.getValue());
+        boolean env = envCheckBox.isSelected();
+
+        DirectoryChooser dirChooser = new DirectoryChooser();
+        dirChooser.setTitle("选择安装目录");
+        File selectedDir = dirChooser.showDialog(primaryStage);
+        if (selectedDir == null) {
+            logArea.appendText("❌ 用户取消安装\n");
+            return;
+        }
+        String installDir = selectedDir.getAbsolutePath();
+
+        List<String> conflicts = new ArrayList<>();
+        for (BatchInstaller.Instance instance : instances) {
+            for (WindowsServiceChecker.ServiceInfo service : serviceComboBox.getItems()) {
+                if (service.getName().endsWith(instance.getPort())) conflicts.add(service.getName());
+            }
+        }
+
+        Alert alert = new Alert(Alert.AlertType.CONFIRMATION);
+        alert.setTitle("确认批量安装");
+        alert.setHeaderText("确认在目录 '" + installDir + "' 安装 " + instances.size() + " 个 MySQL 实例吗？");
+        alert.setContentText("服务: " + instances + "\n解压配置: " + options.getExtractionProfile()
+                + (conflicts.isEmpty() ? "" : "\n\n⚠️ 已存在同端口的服务: " + String.join("、", conflicts)));
+        alert.showAndWait().ifPresent(resp -> {
+            if (resp != ButtonType.OK) {
+                logArea.appendText("❌ 用户取消安装\n");
+                return;
+            }
+            setProgress(true, "批量安装中...");
+            Task<InstallReport> task = new Task<>() {
+                @Override
+                protected InstallReport call() {
+                    return BatchInstaller.install(zip, installDir, instances, env, options,
+                            msg -> Platform.runLater(() -> logArea.appendText(msg)));
+                }
+            };
+
+            task.setOnSucceeded(e -> {
+                cancelInstallButton.setDisable(true);
+                InstallReport report = task.getValue();
+                setProgress(false, report != null && report.isSuccess() ? "批量安装完成" : "批量安装未全部完成");
+                refreshServiceList();
+            });
+
+            task.setOnFailed(e -> {
+                cancelInstallButton.setDisable(true);
+                setProgress(false, "批量安装失败");
+                logArea.appendText("❌ 批量安装过程中发生错误\n");
+            });
+
+            task.setOnCancelled(e -> {
+                cancelInstallButton.setDisable(true);
+                setProgress(false, "安装已取消");
+                logArea.appendText("⏹ 批量安装已取消\n");
+            });
+
+            installTask = task;
+            cancelInstallButton.setDisable(false);
+            new Thread(task).start();
+        });
     }
 
-    private void proceedWithInstallation(String zip, String installDir, String pwd, String port, boolean env) {
+    private void proceedWithInstallation(String zip, String installDir, String pwd, String port, boolean env,
+                                         InstallOptions options) {
         Alert alert = new Alert(Alert.AlertType.CONFIRMATION);
         alert.setTitle("确认安装");
         alert.setHeaderText("确认在目录 '" + installDir + "' 安装 MySQL 吗？");
-        alert.setContentText("端口: " + port + "\n服务名称: MySQL" + port);
+        alert.setContentText("端口: " + port + "\n服务名称: MySQL" + port
+                + "\n解压配置: " + options.getExtractionProfile());
         alert.showAndWait().ifPresent(resp -> {
             if (resp == ButtonType.OK) {
                 setProgress(true, "安装中...");
-                Task<Void> task = new Task<>() {
+                Task<InstallReport> task = new Task<>() {
                     @Override
-                    protected Void call() {
-                        MySQLInstaller.install(zip, installDir, pwd, port, env,
+                    protected InstallReport call() {
+                        return MySQLInstaller.install(zip, installDir, pwd, port, env, options,
                                 msg -> Platform.runLater(() -> logArea.appendText(msg)));
-                        return null;
                     }
                 };
 
                 task.setOnSucceeded(e -> {
-                    setProgress(false, "安装完成");
+                    cancelInstallButton.setDisable(true);
+                    InstallReport report = task.getValue();
+                    setProgress(false, report != null && report.isSuccess() ? "安装完成" : "安装未完成");
                     refreshServiceList();
                 });
 
                 task.setOnFailed(e -> {
+                    cancelInstallButton.setDisable(true);
                     setProgress(false, "安装失败");
                     logArea.appendText("❌ 安装过程中发生错误\n");
                 });
 
+                task.setOnCancelled(e -> {
+                    cancelInstallButton.setDisable(true);
+                    setProgress(false, "安装已取消");
+                    logArea.appendText("⏹ 安装已取消，再次安装到同一目录时将跳过已解压完好的文件\n");
+                });
+
+                installTask = task;
+                cancelInstallButton.setDisable(false);
                 new Thread(task).start();
             } else {
                 logArea.appendText("❌ 用户取消安装\n");
@@ -253,50 +564,94 @@ public class MySQLInstallerUI extends Application {
         });
     }
 
-    private void refreshServiceList() {
-        setProgress(true, "刷新服务列表...");
-        Task<List<WindowsServiceChecker.ServiceInfo>> task = new Task<>() {
-            @Override
-            protected List<WindowsServiceChecker.ServiceInfo> call() {
-                return WindowsServiceChecker.checkMysqlServices();
+    // 只移除、追加或替换变化的条目，保留当前选中的服务
+    private void applyServiceChange(ServiceRegistry.Change change) {
+        WindowsServiceChecker.ServiceInfo selected = serviceComboBox.getSelectionModel().getSelectedItem();
+        List<WindowsServiceChecker.ServiceInfo> items = serviceComboBox.getItems();
+        for (WindowsServiceChecker.ServiceInfo removed : change.getRemoved()) {
+            items.removeIf(item -> item.getName().equalsIgnoreCase(removed.getName()));
+        }
+        for (WindowsServiceChecker.ServiceInfo updated : change.getUpdated()) {
+            for (int i = 0; i < items.size(); i++) {
+                if (items.get(i).getName().equalsIgnoreCase(updated.getName())) {
+                    items.set(i, updated);
+                    break;
+                }
             }
-        };
+        }
+        items.addAll(change.getAdded());
 
-        task.setOnSucceeded(e -> {
-            serviceComboBox.getItems().clear();
-            serviceComboBox.getItems().addAll(task.getValue());
-
-            // 检查是否有MySQL服务但未启动
-            for (WindowsServiceChecker.ServiceInfo service : task.getValue()) {
-                if ("已停止".equals(service.getState())) {
-                    // 询问用户是否要自动启动服务
-                    Alert alert = new Alert(Alert.AlertType.CONFIRMATION);
-                    alert.setTitle("服务未启动");
-                    alert.setHeaderText("发现未启动的MySQL服务: " + service.getName());
-                    alert.setContentText("是否要自动启动该服务？");
-
-                    alert.showAndWait().ifPresent(response -> {
-                        if (response == ButtonType.OK) {
-                            StringBuilder log = new StringBuilder();
-                            WindowsServiceChecker.tryAutoStartMysqlService(service.getName(), log);
-                            logArea.appendText(log.toString());
-                            // 刷新服务列表以更新状态
-                            refreshServiceList();
-                        }
-                    });
+        if (selected != null) {
+            for (WindowsServiceChecker.ServiceInfo service : items) {
+                if (service.getName().equalsIgnoreCase(selected.getName())) {
+                    serviceComboBox.getSelectionModel().select(service);
                     break;
                 }
             }
+        }
+    }
 
-            logArea.appendText("✅ 服务列表刷新完成，共发现 " + task.getValue().size() + " 个服务\n");
+    private void loadServiceList() {
+        setProgress(true, "加载服务列表...");
+        ServiceRegistry.getDefault().get().whenComplete((services, e) -> Platform.runLater(() -> {
             setProgress(false, "就绪");
-        });
+            if (e != null) {
+                logArea.appendText("❌ 加载服务列表失败\n");
+                return;
+            }
+            logArea.appendText("✅ 服务列表加载完成，共发现 " + services.size() + " 个服务\n");
+            offerAutoStart(services);
+        }));
+    }
 
-        task.setOnFailed(e -> {
-            logArea.appendText("❌ 刷新服务列表失败\n");
+    // 强制重新查询；与正在进行的查询合并，列表本身由监听器更新
+    private void refreshServiceList() {
+        setProgress(true, "刷新服务列表...");
+        ServiceRegistry.getDefault().refresh().whenComplete((services, e) -> Platform.runLater(() -> {
             setProgress(false, "就绪");
-        });
+            if (e != null) {
+                logArea.appendText("❌ 刷新服务列表失败\n");
+                return;
+            }
+            logArea.appendText("✅ 服务列表刷新完成，共发现 " + services.size() + " 个服务\n");
+        }));
+    }
+
+    // 只在启动时询问一次；启动服务在后台执行，完成后刷新列表（不会再次询问）
+    private void offerAutoStart(List<WindowsServiceChecker.ServiceInfo> services) {
+        for (WindowsServiceChecker.ServiceInfo service : services) {
+            if ("已停止".equals(service.getState())) {
+                // 询问用户是否要自动启动服务
+                Alert alert = new Alert(Alert.AlertType.CONFIRMATION);
+                alert.setTitle("服务未启动");
+                alert.setHeaderText("发现未启动的MySQL服务: " + service.getName());
+                alert.setContentText("是否要自动启动该服务？");
+
+                alert.showAndWait().ifPresent(response -> {
+                    if (response == ButtonType.OK) {
+                        autoStartService(service.getName());
+                    }
+                });
+                break;
+            }
+        }
+    }
 
+    private void autoStartService(String serviceName) {
+        setProgress(true, "启动服务...");
+        Task<Void> task = new Task<>() {
+            @Override
+            protected Void call() {
+                StringBuilder log = new StringBuilder();
+                WindowsServiceChecker.tryAutoStartMysqlService(serviceName, log);
+                Platform.runLater(() -> logArea.appendText(log.toString()));
+                return null;
+            }
+        };
+        // 状态由 ServiceWatcher 快速轮询更新
+        ServiceWatcher.getDefault().expectChange();
+        task.setOnSucceeded(e -> ServiceWatcher.getDefault().expectChange());
+        task.setOnFailed(e -> ServiceWatcher.getDefault().expectChange());
         new Thread(task).start();
     }
 
@@ -392,8 +747,10 @@ public class MySQLInstallerUI extends Application {
                     @Override
                     protected Void call() {
                         StringBuilder log = new StringBuilder();
+                        // 卸载后就查不到命令行了，先记下 --defaults-file 以确定要删除的目录
+                        String commandLine = WindowsServiceChecker.getServiceCommandLine(service.getName());
                         WindowsServiceChecker.uninstallService(service, log);
-                        WindowsServiceChecker.deleteInstallDir(service, log);
+                        WindowsServiceChecker.deleteInstallDir(service, commandLine, log);
                         Platform.runLater(() -> logArea.appendText(log.toString()));
                         return null;
                     }
@@ -416,6 +773,55 @@ public class MySQLInstallerUI extends Application {
         });
     }
 
+    private void upgradeSelectedService(Stage primaryStage) {
+        WindowsServiceChecker.ServiceInfo service = serviceComboBox.getSelectionModel().getSelectedItem();
+        if (service == null) {
+            logArea.appendText("❌ 请先选择服务\n");
+            return;
+        }
+
+        FileChooser fc = new FileChooser();
+        fc.setTitle("选择新版本 MySQL ZIP 包");
+        fc.getExtensionFilters().add(new FileChooser.ExtensionFilter("ZIP 文件", "*.zip"));
+        File zip = fc.showOpenDialog(primaryStage);
+        if (zip == null) {
+            logArea.appendText("❌ 用户取消升级\n");
+            return;
+        }
+
+        Alert alert = new Alert(Alert.AlertType.CONFIRMATION);
+        alert.setTitle("确认升级");
+        alert.setHeaderText("确认将服务 '" + service.getName() + "' 升级到 " + zip.getName() + " 吗？");
+        alert.setContentText("升级期间服务会短暂重启，建议先备份数据目录。");
+        alert.showAndWait().ifPresent(resp -> {
+            if (resp != ButtonType.OK) {
+                logArea.appendText("❌ 用户取消升级\n");
+                return;
+            }
+            ExtractionProfile profile = profileComboBox.getSelectionModel().getSelectedItem();
+            setProgress(true, "升级中...");
+            Task<Boolean> task = new Task<>() {
+                @Override
+                protected Boolean call() {
+                    return DeltaUpgrader.upgrade(zip.getAbsolutePath(), service, profile,
+                            msg -> Platform.runLater(() -> logArea.appendText(msg)));
+                }
+            };
+
+            task.setOnSucceeded(e -> {
+                setProgress(false, task.getValue() ? "升级完成" : "升级失败");
+                refreshServiceList();
+            });
+
+            task.setOnFailed(e -> {
+                setProgress(false, "升级失败");
+                logArea.appendText("❌ 升级过程中发生错误\n");
+            });
+
+            new Thread(task).start();
+        });
+    }
+
     private void startStopService(String serviceName, boolean start) {
         setProgress(true, start ? "启动服务..." : "停止服务...");
         Task<Boolean> task = new Task<>() {
@@ -436,7 +842,7 @@ public class MySQLInstallerUI extends Application {
                 logArea.appendText("❌ " + (start ? "启动" : "停止") + "服务失败: " + serviceName + "\n");
             }
             setProgress(false, "就绪");
-            refreshServiceList();
+            ServiceWatcher.getDefault().expectChange();
         });
 
         task.setOnFailed(e -> {
@@ -444,6 +850,53 @@ public class MySQLInstallerUI extends Application {
             setProgress(false, "就绪");
         });
 
+        ServiceWatcher.getDefault().expectChange();
+        new Thread(task).start();
+    }
+
+    // 查询缓冲池状态需要 root 密码，经 MYSQL_PWD 传给 mysql.exe
+    private void warmRestartService(WindowsServiceChecker.ServiceInfo service) {
+        Dialog<String> dialog = new Dialog<>();
+        dialog.setTitle("热重启");
+        dialog.setHeaderText("热重启 " + service.getName() + "，请输入 root 密码");
+        PasswordField passwordField = new PasswordField();
+        dialog.getDialogPane().setContent(new HBox(10, new Label("root 密码："), passwordField));
+        dialog.getDialogPane().getButtonTypes().addAll(ButtonType.OK, ButtonType.CANCEL);
+        dialog.setResultConverter(button -> button == ButtonType.OK ? passwordField.getText() : null);
+        String password = dialog.showAndWait().orElse(null);
+        if (password == null) return;
+
+        setProgress(true, "热重启中...");
+        Task<Boolean> task = new Task<>() {
+            @Override
+            protected Boolean call() throws Exception {
+                WarmRestart restart = WarmRestart.forService(service, password,
+                        msg -> Platform.runLater(() -> logArea.appendText(msg)));
+                if (restart == null) {
+                    Platform.runLater(() -> logArea.appendText("❌ 未找到服务对应的 bin 目录: " + service.getName() + "\n"));
+                    return false;
+                }
+                restart.setProgress(fraction -> Platform.runLater(() -> {
+                    progressIndicator.setProgress(fraction < 0 ? ProgressIndicator.INDETERMINATE_PROGRESS : fraction);
+                    if (fraction >= 0) statusLabel.setText("缓冲池加载 " + (int) (fraction * 100) + "%");
+                }));
+                return restart.restart(service.getName());
+            }
+        };
+
+        task.setOnSucceeded(e -> {
+            progressIndicator.setProgress(ProgressIndicator.INDETERMINATE_PROGRESS);
+            setProgress(false, task.getValue() ? "热重启完成" : "热重启未完成");
+            ServiceWatcher.getDefault().expectChange();
+        });
+
+        task.setOnFailed(e -> {
+            progressIndicator.setProgress(ProgressIndicator.INDETERMINATE_PROGRESS);
+            logArea.appendText("❌ 热重启时发生错误: " + task.getException().getMessage() + "\n");
+            setProgress(false, "就绪");
+        });
+
+        ServiceWatcher.getDefault().expectChange();
         new Thread(task).start();
     }
 
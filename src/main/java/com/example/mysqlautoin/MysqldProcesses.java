@@ -0,0 +1,140 @@
+package com.example.mysqlautoin;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+import java.util.stream.Collectors;
+
+// 通过 ProcessHandle 在进程内枚举 mysqld，不再启动 tasklist；Windows 和 Linux 行为一致
+// 注意：读取其他账户（如 LocalService）进程的命令行需要管理员权限，否则这些进程无法识别
+public class MysqldProcesses {
+
+    public static class MysqldProcess {
+        private final long pid;
+        private final Path executable;
+        private final List<String> arguments;
+        private final Instant startTime;
+        private final Duration cpuTime;
+
+        MysqldProcess(long pid, Path executable, List<String> arguments, Instant startTime, Duration cpuTime) {
+            this.pid = pid;
+            this.executable = executable;
+            this.arguments = arguments;
+            this.startTime = startTime;
+            this.cpuTime = cpuTime;
+        }
+
+        public long getPid() { return pid; }
+        public Path getExecutable() { return executable; }
+        public List<String> getArguments() { return arguments; }
+        // 部分系统上无法读取时为 null
+        public Instant getStartTime() { return startTime; }
+        public Duration getCpuTime() { return cpuTime; }
+
+        // mysqld 位于 <basedir>/bin 下
+        public Path getBinDir() {
+            return executable.getParent();
+        }
+
+        public Path getBasedir() {
+            Path bin = getBinDir();
+            return bin != null ? bin.getParent() : null;
+        }
+
+        public String getCommandLine() {
+            StringBuilder sb = new StringBuilder(executable.toString());
+            for (String arg : arguments) sb.append(' ').append(arg);
+            return sb.toString();
+        }
+
+        public Duration getUptime() {
+            return startTime != null ? Duration.between(startTime, Instant.now()) : null;
+        }
+
+        // 同一 PID 被复用时启动时间不同；CPU 时间随时变化，不参与比较
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof MysqldProcess)) return false;
+            MysqldProcess other = (MysqldProcess) o;
+            return pid == other.pid && Objects.equals(startTime, other.startTime);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(pid, startTime);
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder sb = new StringBuilder("PID ").append(pid);
+            if (cpuTime != null) sb.append(String.format(", CPU %.1f s", cpuTime.toMillis() / 1000.0));
+            Duration uptime = getUptime();
+            if (uptime != null) sb.append(", 已运行 ").append(formatDuration(uptime));
+            return sb.toString();
+        }
+    }
+
+    public static List<MysqldProcess> list() {
+        return ProcessHandle.allProcesses()
+                .map(MysqldProcesses::toMysqldProcess)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+    }
+
+    public static boolean anyRunning() {
+        return ProcessHandle.allProcesses().anyMatch(p -> toMysqldProcess(p) != null);
+    }
+
+    private static MysqldProcess toMysqldProcess(ProcessHandle handle) {
+        ProcessHandle.Info info = handle.info();
+        Optional<String> command = info.command();
+        if (command.isEmpty()) return null;
+        Path executable = Paths.get(command.get());
+        Path fileName = executable.getFileName();
+        if (fileName == null) return null;
+        String name = fileName.toString();
+        if (!name.equalsIgnoreCase("mysqld.exe") && !name.equals("mysqld")) return null;
+
+        List<String> arguments = info.arguments().map(List::of).orElse(List.of());
+        return new MysqldProcess(handle.pid(), executable, arguments,
+                info.startInstant().orElse(null), info.totalCpuDuration().orElse(null));
+    }
+
+    // 以服务方式运行的 mysqld 最后一个参数是服务名，优先按它匹配（多个实例可能共用一个 basedir）；
+    // 其次按 bin 目录匹配，且只在该目录下恰好有一个 mysqld 时才认定
+    public static MysqldProcess findFor(WindowsServiceChecker.ServiceInfo service, List<MysqldProcess> processes) {
+        for (MysqldProcess p : processes) {
+            List<String> args = p.getArguments();
+            if (!args.isEmpty() && args.get(args.size() - 1).equalsIgnoreCase(service.getName())) {
+                return p;
+            }
+        }
+        if (service.getBinPath() == null) return null;
+        MysqldProcess match = null;
+        for (MysqldProcess p : processes) {
+            if (p.getBinDir() != null && samePath(p.getBinDir(), Paths.get(service.getBinPath()))) {
+                if (match != null) return null;
+                match = p;
+            }
+        }
+        return match;
+    }
+
+    // Windows 路径不区分大小写
+    static boolean samePath(Path a, Path b) {
+        String x = a.toAbsolutePath().normalize().toString();
+        String y = b.toAbsolutePath().normalize().toString();
+        return java.io.File.separatorChar == '\\' ? x.equalsIgnoreCase(y) : x.equals(y);
+    }
+
+    static String formatDuration(Duration d) {
+        long seconds = d.getSeconds();
+        if (seconds < 60) return seconds + " 秒";
+        if (seconds < 3600) return seconds / 60 + " 分钟";
+        if (seconds < 86400) return String.format("%d 小时 %d 分钟", seconds / 3600, seconds % 3600 / 60);
+        return String.format("%d 天 %d 小时", seconds / 86400, seconds % 86400 / 3600);
+    }
+}
@@ -0,0 +1,87 @@
+package com.example.mysqlautoin;
+
+import java.nio.charset.Charset;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.*;
+import java.util.function.Consumer;
+
+// 一次外部命令调用的描述：命令行、超时、输出编码、工作目录、环境变量、逐行输出回调
+// setter 均返回 this，便于链式构造
+public class ProcessCommand {
+
+    public static final Duration DEFAULT_TIMEOUT = Duration.ofSeconds(60);
+
+    // 中文 Windows 下 cmd 内置命令和 sc/net/tasklist 的输出编码
+    public static final Charset CONSOLE_CHARSET = Charset.forName("GBK");
+
+    private final List<String> command;
+    private Duration timeout = DEFAULT_TIMEOUT;
+    private Charset charset = Charset.defaultCharset();
+    private Path directory;
+    private final Map<String, String> environment = new LinkedHashMap<>();
+    private Consumer<String> lineConsumer;
+
+    private ProcessCommand(List<String> command) {
+        this.command = List.copyOf(command);
+    }
+
+    public static ProcessCommand of(String... command) {
+        return new ProcessCommand(Arrays.asList(command));
+    }
+
+    public static ProcessCommand of(List<String> command) {
+        return new ProcessCommand(command);
+    }
+
+    // 通过 cmd.exe /c 执行一行命令，输出按 GBK 解码
+    public static ProcessCommand shell(String commandLine) {
+        return new ProcessCommand(List.of("cmd.exe", "/c", commandLine)).setCharset(CONSOLE_CHARSET);
+    }
+
+    public List<String> getCommand() { return command; }
+    public Duration getTimeout() { return timeout; }
+    public Charset getCharset() { return charset; }
+    public Path getDirectory() { return directory; }
+    public Map<String, String> getEnvironment() { return Collections.unmodifiableMap(environment); }
+    public Consumer<String> getLineConsumer() { return lineConsumer; }
+
+    public ProcessCommand setTimeout(Duration timeout) {
+        this.timeout = timeout;
+        return this;
+    }
+
+    public ProcessCommand setCharset(Charset charset) {
+        this.charset = charset;
+        return this;
+    }
+
+    public ProcessCommand setDirectory(Path directory) {
+        this.directory = directory;
+        return this;
+    }
+
+    public ProcessCommand setEnvironment(String name, String value) {
+        environment.put(name, value);
+        return this;
+    }
+
+    // 每读到一行输出回调一次（在输出读取线程上调用），用于把长时间运行命令的输出实时写到日志
+    public ProcessCommand setLineConsumer(Consumer<String> lineConsumer) {
+        this.lineConsumer = lineConsumer;
+        return this;
+    }
+
+    // cmd.exe /c 的命令返回最后一个参数，其余返回完整命令行，供日志和假实现匹配使用
+    public String getCommandLine() {
+        if (command.size() == 3 && command.get(0).equalsIgnoreCase("cmd.exe") && command.get(1).equalsIgnoreCase("/c")) {
+            return command.get(2);
+        }
+        return String.join(" ", command);
+    }
+
+    @Override
+    public String toString() {
+        return getCommandLine();
+    }
+}
@@ -0,0 +1,44 @@
+package com.example.mysqlautoin;
+
+import java.util.List;
+
+// 外部命令的执行结果；超时被强制结束时 exitCode 为 -1、timedOut 为 true
+public class ProcessResult {
+
+    private final int exitCode;
+    private final String output;
+    private final boolean timedOut;
+    private final long elapsedMillis;
+
+    public ProcessResult(int exitCode, String output, boolean timedOut, long elapsedMillis) {
+        this.exitCode = exitCode;
+        this.output = output;
+        this.timedOut = timedOut;
+        this.elapsedMillis = elapsedMillis;
+    }
+
+    public static ProcessResult of(int exitCode, String output) {
+        return new ProcessResult(exitCode, output, false, 0);
+    }
+
+    public int getExitCode() { return exitCode; }
+    // 标准输出与标准错误合并后的全部内容
+    public String getOutput() { return output; }
+    public boolean isTimedOut() { return timedOut; }
+    public long getElapsedMillis() { return elapsedMillis; }
+
+    public boolean isSuccess() {
+        return !timedOut && exitCode == 0;
+    }
+
+    public List<String> lines() {
+        return output.lines().toList();
+    }
+
+    @Override
+    public String toString() {
+        return timedOut
+                ? "超时 (" + elapsedMillis + " ms)"
+                : "退出码 " + exitCode + " (" + elapsedMillis + " ms)";
+    }
+}
@@ -0,0 +1,43 @@
+package com.example.mysqlautoin;
+
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+// 所有外部命令的统一入口：异步执行、并发读取输出、按命令超时
+// 默认实现启动真实进程；测试和基准测试中可换成 FakeProcessRunner，在任何系统上跑完整安装流程
+public interface ProcessRunner {
+
+    CompletableFuture<ProcessResult> start(ProcessCommand command);
+
+    // 同步执行；被中断时取消命令并结束进程
+    default ProcessResult run(ProcessCommand command) throws IOException, InterruptedException {
+        CompletableFuture<ProcessResult> future = start(command);
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            throw e;
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) throw (IOException) cause;
+            throw new IOException("执行命令失败: " + command + " (" + cause.getMessage() + ")", cause);
+        }
+    }
+
+    static ProcessRunner getDefault() {
+        return DefaultProcessRunner.runner;
+    }
+
+    static void setDefault(ProcessRunner runner) {
+        DefaultProcessRunner.runner = runner;
+    }
+}
+
+// 全局默认实现的持有者（接口中不能声明可变静态字段）
+class DefaultProcessRunner {
+    static volatile ProcessRunner runner = new SystemProcessRunner();
+
+    private DefaultProcessRunner() {
+    }
+}
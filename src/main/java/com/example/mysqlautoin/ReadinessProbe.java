@@ -0,0 +1,165 @@
+package com.example.mysqlautoin;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.function.BooleanSupplier;
+
+// 等待 MySQL 真正可用：按指数退避反复连接端口，读到服务器握手包（协议版本 10 + 服务器版本）才算就绪，
+// 超过总期限仍未就绪则放弃。替代安装流程中固定时长的 Thread.sleep
+public class ReadinessProbe {
+
+    static final Duration DEFAULT_DEADLINE = Duration.ofSeconds(60);
+    private static final Duration INITIAL_DELAY = Duration.ofMillis(50);
+    private static final Duration MAX_DELAY = Duration.ofSeconds(1);
+    // 单次连接/读取的超时；服务器正在启动时连接会被直接拒绝，不会等满
+    private static final int ATTEMPT_TIMEOUT_MILLIS = 1000;
+
+    // 服务器握手包（HandshakeV10）中用到的字段
+    public static class Greeting {
+        private final int protocolVersion;
+        private final String serverVersion;
+        private final long connectionId;
+
+        Greeting(int protocolVersion, String serverVersion, long connectionId) {
+            this.protocolVersion = protocolVersion;
+            this.serverVersion = serverVersion;
+            this.connectionId = connectionId;
+        }
+
+        public int getProtocolVersion() { return protocolVersion; }
+        public String getServerVersion() { return serverVersion; }
+        public long getConnectionId() { return connectionId; }
+
+        @Override
+        public String toString() {
+            return "MySQL " + serverVersion + " (协议 " + protocolVersion + ")";
+        }
+    }
+
+    public static class Result {
+        private final Greeting greeting;
+        private final int attempts;
+        private final Duration elapsed;
+        private final String lastError;
+
+        Result(Greeting greeting, int attempts, Duration elapsed, String lastError) {
+            this.greeting = greeting;
+            this.attempts = attempts;
+            this.elapsed = elapsed;
+            this.lastError = lastError;
+        }
+
+        public boolean isReady() { return greeting != null; }
+        public Greeting getGreeting() { return greeting; }
+        public int getAttempts() { return attempts; }
+        public Duration getElapsed() { return elapsed; }
+        public String getLastError() { return lastError; }
+
+        @Override
+        public String toString() {
+            String text = isReady() ? greeting.toString() : "未就绪（" + lastError + "）";
+            return text + "，" + attempts + " 次尝试，用时 " + elapsed.toMillis() + " ms";
+        }
+    }
+
+    private final String host;
+    private final int port;
+    private Duration deadline = DEFAULT_DEADLINE;
+
+    public ReadinessProbe(String host, int port) {
+        this.host = host;
+        this.port = port;
+    }
+
+    public static ReadinessProbe localhost(String port) {
+        return new ReadinessProbe("localhost", Integer.parseInt(port));
+    }
+
+    public ReadinessProbe setDeadline(Duration deadline) {
+        this.deadline = deadline;
+        return this;
+    }
+
+    // 至少尝试一次；被中断时抛出 InterruptedException
+    public Result await() throws InterruptedException {
+        long start = System.nanoTime();
+        long end = start + deadline.toNanos();
+        long delay = INITIAL_DELAY.toNanos();
+        int attempts = 0;
+        String lastError = null;
+        while (true) {
+            attempts++;
+            try {
+                Greeting greeting = probeOnce();
+                return new Result(greeting, attempts, Duration.ofNanos(System.nanoTime() - start), null);
+            } catch (IOException e) {
+                lastError = e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName();
+            }
+            long remaining = end - System.nanoTime();
+            if (remaining <= 0) break;
+            Thread.sleep(Math.max(1, Math.min(delay, remaining) / 1_000_000));
+            delay = Math.min(delay * 2, MAX_DELAY.toNanos());
+        }
+        return new Result(null, attempts, Duration.ofNanos(System.nanoTime() - start), lastError);
+    }
+
+    // 连接一次并读取握手包，不发送任何数据（服务器会把这次连接记为中断的连接，不影响使用）
+    public Greeting probeOnce() throws IOException {
+        try (Socket socket = new Socket()) {
+            socket.connect(new InetSocketAddress(host, port), ATTEMPT_TIMEOUT_MILLIS);
+            socket.setSoTimeout(ATTEMPT_TIMEOUT_MILLIS);
+            return readGreeting(socket.getInputStream());
+        }
+    }
+
+    // 包头：3 字节小端长度 + 1 字节序号；负载：协议版本、以 0 结尾的服务器版本、4 字节连接 ID ...
+    // 第一个字节为 0xFF 时是错误包（如连接数已满），服务器在运行但不接受连接
+    static Greeting readGreeting(InputStream in) throws IOException {
+        byte[] header = readFully(in, 4);
+        int length = (header[0] & 0xFF) | (header[1] & 0xFF) << 8 | (header[2] & 0xFF) << 16;
+        if (length < 1 || length > 1024) throw new IOException("不是 MySQL 握手包（长度 " + length + "）");
+        byte[] payload = readFully(in, length);
+
+        int protocol = payload[0] & 0xFF;
+        if (protocol == 0xFF) {
+            int code = length >= 3 ? (payload[1] & 0xFF) | (payload[2] & 0xFF) << 8 : 0;
+            int messageStart = length > 9 && payload[3] == '#' ? 9 : 3;
+            String message = length > messageStart
+                    ? new String(payload, messageStart, length - messageStart, StandardCharsets.UTF_8) : "";
+            throw new IOException("服务器拒绝连接: " + code + " " + message);
+        }
+        if (protocol != 10) throw new IOException("不支持的协议版本: " + protocol);
+
+        int nul = 1;
+        while (nul < length && payload[nul] != 0) nul++;
+        if (nul + 4 >= length) throw new IOException("握手包不完整");
+        String version = new String(payload, 1, nul - 1, StandardCharsets.US_ASCII);
+        long connectionId = (payload[nul + 1] & 0xFFL) | (payload[nul + 2] & 0xFFL) << 8
+                | (payload[nul + 3] & 0xFFL) << 16 | (payload[nul + 4] & 0xFFL) << 24;
+        return new Greeting(protocol, version, connectionId);
+    }
+
+    private static byte[] readFully(InputStream in, int n) throws IOException {
+        byte[] buf = in.readNBytes(n);
+        if (buf.length < n) throw new EOFException("连接在握手包完整到达前关闭");
+        return buf;
+    }
+
+    // 同样的指数退避，用于等待其他条件（如服务删除完成）；条件满足返回 true，超过期限返回 false
+    public static boolean pollUntil(BooleanSupplier condition, Duration deadline) throws InterruptedException {
+        long end = System.nanoTime() + deadline.toNanos();
+        long delay = INITIAL_DELAY.toNanos();
+        while (!condition.getAsBoolean()) {
+            long remaining = end - System.nanoTime();
+            if (remaining <= 0) return false;
+            Thread.sleep(Math.max(1, Math.min(delay, remaining) / 1_000_000));
+            delay = Math.min(delay * 2, MAX_DELAY.toNanos());
+        }
+        return true;
+    }
+}
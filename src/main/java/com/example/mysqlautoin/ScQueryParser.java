@@ -0,0 +1,253 @@
+package com.example.mysqlautoin;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+// sc query 输出的流式解析器：逐行喂入，在原文上按区间做不区分大小写的匹配，不 trim、不 toLowerCase
+// 服务名被排除（MySQLRouter、计算机名前缀等）或服务名和显示名都不含 mysql 时，跳过该服务余下的所有行；
+// 只有最终被接受的服务才会分配字符串，大量非 MySQL 服务几乎不产生垃圾
+// 非线程安全；一个实例可以通过 reset() 反复使用
+public class ScQueryParser {
+
+    private static final String SERVICE_NAME = "SERVICE_NAME";
+    private static final String DISPLAY_NAME = "DISPLAY_NAME";
+    private static final String STATE = "STATE";
+
+    private enum BlockState { NONE, OPEN, SKIPPED }
+
+    private final Function<String, String> binPathLookup;
+    private final List<WindowsServiceChecker.ServiceInfo> result = new ArrayList<>();
+    // 当前服务的名称和显示名，复用缓冲区，接受时才转成字符串
+    private final StringBuilder name = new StringBuilder(64);
+    private final StringBuilder displayName = new StringBuilder(64);
+    // 从 Reader 读取时复用的行缓冲
+    private final StringBuilder line = new StringBuilder(128);
+    private final char[] readBuffer = new char[8192];
+
+    private BlockState block = BlockState.NONE;
+    private boolean nameMatches;
+    private boolean hasDisplayName;
+    private String state;
+
+    // binPathLookup 按服务名查询 bin 目录，只对接受的服务调用
+    public ScQueryParser(Function<String, String> binPathLookup) {
+        this.binPathLookup = binPathLookup;
+    }
+
+    public static List<WindowsServiceChecker.ServiceInfo> parse(CharSequence output, Function<String, String> binPathLookup) {
+        ScQueryParser parser = new ScQueryParser(binPathLookup);
+        parser.accept(output);
+        return parser.finish();
+    }
+
+    public static List<WindowsServiceChecker.ServiceInfo> parse(Reader reader, Function<String, String> binPathLookup) throws IOException {
+        ScQueryParser parser = new ScQueryParser(binPathLookup);
+        parser.accept(reader);
+        return parser.finish();
+    }
+
+    // 整段输出，按行切分但不复制
+    public void accept(CharSequence output) {
+        int length = output.length();
+        int start = 0;
+        while (start < length) {
+            int end = indexOfNewline(output, start, length);
+            acceptLine(output, start, end);
+            start = end + 1;
+        }
+    }
+
+    public void accept(Reader reader) throws IOException {
+        line.setLength(0);
+        int n;
+        while ((n = reader.read(readBuffer)) != -1) {
+            int start = 0;
+            for (int i = 0; i < n; i++) {
+                if (readBuffer[i] == '\n') {
+                    line.append(readBuffer, start, i - start);
+                    acceptLine(line, 0, line.length());
+                    line.setLength(0);
+                    start = i + 1;
+                }
+            }
+            line.append(readBuffer, start, n - start);
+        }
+        if (line.length() > 0) {
+            acceptLine(line, 0, line.length());
+            line.setLength(0);
+        }
+    }
+
+    private static int indexOfNewline(CharSequence text, int from, int to) {
+        if (text instanceof String) {
+            int i = ((String) text).indexOf('\n', from);
+            return i < 0 ? to : i;
+        }
+        for (int i = from; i < to; i++) {
+            if (text.charAt(i) == '\n') return i;
+        }
+        return to;
+    }
+
+    // 单行（可作为 ProcessCommand 的行回调，边读输出边解析）
+    public void acceptLine(CharSequence text) {
+        acceptLine(text, 0, text.length());
+    }
+
+    public void acceptLine(CharSequence text, int from, int to) {
+        int start = skipBlank(text, from, to);
+        int end = trimEnd(text, start, to);
+        if (start == end) return;
+
+        if (startsWithIgnoreCase(text, start, end, SERVICE_NAME)
+                && (start + SERVICE_NAME.length() < end && text.charAt(start + SERVICE_NAME.length()) == ':')) {
+            flush();
+            int valueStart = skipBlank(text, start + SERVICE_NAME.length() + 1, end);
+            if (isExcludedName(text, valueStart, end)) {
+                block = BlockState.SKIPPED;
+                return;
+            }
+            block = BlockState.OPEN;
+            name.append(text, valueStart, end);
+            nameMatches = containsMysql(text, valueStart, end);
+            return;
+        }
+        if (block != BlockState.OPEN) return;
+
+        if (startsWithIgnoreCase(text, start, end, DISPLAY_NAME)) {
+            int valueStart = skipBlank(text, skipColon(text, start + DISPLAY_NAME.length(), end), end);
+            if (!nameMatches && !containsMysql(text, valueStart, end)) {
+                // 服务名和显示名都不含 mysql，后面的 TYPE/STATE 等行不再检查
+                block = BlockState.SKIPPED;
+                return;
+            }
+            displayName.setLength(0);
+            displayName.append(text, valueStart, end);
+            hasDisplayName = true;
+        } else if (startsWithIgnoreCase(text, start, end, STATE)) {
+            state = parseState(text, start, end);
+        }
+    }
+
+    // 结束解析，返回所有接受的服务；之后可 reset() 复用
+    public List<WindowsServiceChecker.ServiceInfo> finish() {
+        flush();
+        return new ArrayList<>(result);
+    }
+
+    public void reset() {
+        result.clear();
+        clearBlock();
+    }
+
+    private void flush() {
+        if (block == BlockState.OPEN && state != null && (nameMatches || hasDisplayName)) {
+            String serviceName = name.toString();
+            result.add(new WindowsServiceChecker.ServiceInfo(serviceName, state, binPathLookup.apply(serviceName),
+                    hasDisplayName ? displayName.toString() : null));
+        }
+        clearBlock();
+    }
+
+    private void clearBlock() {
+        block = BlockState.NONE;
+        name.setLength(0);
+        displayName.setLength(0);
+        nameMatches = false;
+        hasDisplayName = false;
+        state = null;
+    }
+
+    // 解析一段或多段 sc query "服务名" 的输出（没有 DISPLAY_NAME，也不做 MySQL 筛选），只记录每个服务的状态
+    static void parseStates(CharSequence output, Map<String, String> states) {
+        int length = output.length();
+        int start = 0;
+        String current = null;
+        while (start < length) {
+            int lineEnd = indexOfNewline(output, start, length);
+            int from = skipBlank(output, start, lineEnd);
+            int to = trimEnd(output, from, lineEnd);
+            if (startsWithIgnoreCase(output, from, to, SERVICE_NAME + ":")) {
+                current = output.subSequence(skipBlank(output, from + SERVICE_NAME.length() + 1, to), to).toString();
+            } else if (current != null && startsWithIgnoreCase(output, from, to, STATE)) {
+                states.put(current, parseState(output, from, to));
+                current = null;
+            }
+            start = lineEnd + 1;
+        }
+    }
+
+    // 与原有实现一致，按此顺序判断，返回常量字符串
+    private static String parseState(CharSequence text, int from, int to) {
+        if (containsIgnoreCase(text, from, to, "running")) return "正在运行";
+        if (containsIgnoreCase(text, from, to, "stopped")) return "已停止";
+        if (containsIgnoreCase(text, from, to, "start_pending")) return "启动中";
+        if (containsIgnoreCase(text, from, to, "stop_pending")) return "停止中";
+        if (containsIgnoreCase(text, from, to, "paused")) return "已暂停";
+        return "其他状态";
+    }
+
+    // 不是 MySQL 服务器本身的 MySQL 组件，以及以计算机名前缀开头的服务
+    static boolean isExcludedName(CharSequence text, int from, int to) {
+        return equalsIgnoreCase(text, from, to, "mysqlrouter")
+                || equalsIgnoreCase(text, from, to, "mysqlnotifier")
+                || equalsIgnoreCase(text, from, to, "mysqlinstaller")
+                || equalsIgnoreCase(text, from, to, "mysqlworkbench")
+                || startsWithIgnoreCase(text, from, to, "desktop-")
+                || startsWithIgnoreCase(text, from, to, "win-")
+                || startsWithIgnoreCase(text, from, to, "pc-");
+    }
+
+    static boolean containsMysql(CharSequence text, int from, int to) {
+        return containsIgnoreCase(text, from, to, "mysql");
+    }
+
+    static boolean containsIgnoreCase(CharSequence text, int from, int to, String needle) {
+        int last = to - needle.length();
+        for (int i = from; i <= last; i++) {
+            if (regionMatches(text, i, needle)) return true;
+        }
+        return false;
+    }
+
+    static boolean startsWithIgnoreCase(CharSequence text, int from, int to, String prefix) {
+        return to - from >= prefix.length() && regionMatches(text, from, prefix);
+    }
+
+    static boolean equalsIgnoreCase(CharSequence text, int from, int to, String word) {
+        return to - from == word.length() && regionMatches(text, from, word);
+    }
+
+    private static boolean regionMatches(CharSequence text, int offset, String word) {
+        for (int j = 0; j < word.length(); j++) {
+            char c = text.charAt(offset + j);
+            char w = word.charAt(j);
+            if (c != w && Character.toLowerCase(c) != Character.toLowerCase(w)) return false;
+        }
+        return true;
+    }
+
+    private static int skipBlank(CharSequence text, int from, int to) {
+        while (from < to && isBlank(text.charAt(from))) from++;
+        return from;
+    }
+
+    private static int trimEnd(CharSequence text, int from, int to) {
+        while (to > from && isBlank(text.charAt(to - 1))) to--;
+        return to;
+    }
+
+    private static int skipColon(CharSequence text, int from, int to) {
+        int i = skipBlank(text, from, to);
+        return i < to && text.charAt(i) == ':' ? i + 1 : i;
+    }
+
+    // 与 String.trim() 相同的空白定义
+    private static boolean isBlank(char c) {
+        return c <= ' ';
+    }
+}
@@ -0,0 +1,231 @@
+package com.example.mysqlautoin;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.UnaryOperator;
+
+// 共享的 MySQL 服务列表缓存：快照在 TTL 内直接返回，过期后先返回旧快照并在后台刷新；
+// 同一时间最多只有一次服务发现在运行，重叠的刷新请求合并到同一次查询；
+// 每次结果与上一个快照按服务名比较，只把新增、消失和变化的服务通知给监听器
+public class ServiceRegistry {
+
+    static final Duration DEFAULT_TTL = Duration.ofSeconds(30);
+
+    // 一次刷新带来的变化；snapshot 为刷新后的完整列表
+    public static class Change {
+        private final List<WindowsServiceChecker.ServiceInfo> added;
+        private final List<WindowsServiceChecker.ServiceInfo> removed;
+        private final List<WindowsServiceChecker.ServiceInfo> updated;
+        private final List<WindowsServiceChecker.ServiceInfo> snapshot;
+
+        Change(List<WindowsServiceChecker.ServiceInfo> added, List<WindowsServiceChecker.ServiceInfo> removed,
+               List<WindowsServiceChecker.ServiceInfo> updated, List<WindowsServiceChecker.ServiceInfo> snapshot) {
+            this.added = added;
+            this.removed = removed;
+            this.updated = updated;
+            this.snapshot = snapshot;
+        }
+
+        public List<WindowsServiceChecker.ServiceInfo> getAdded() { return added; }
+        public List<WindowsServiceChecker.ServiceInfo> getRemoved() { return removed; }
+        public List<WindowsServiceChecker.ServiceInfo> getUpdated() { return updated; }
+        public List<WindowsServiceChecker.ServiceInfo> getSnapshot() { return snapshot; }
+
+        public boolean isEmpty() {
+            return added.isEmpty() && removed.isEmpty() && updated.isEmpty();
+        }
+    }
+
+    private static final ServiceRegistry DEFAULT = new ServiceRegistry(DEFAULT_TTL,
+            onUpdate -> WindowsServiceChecker.checkMysqlServices(WindowsServiceChecker.DiscoveryMode.fromSystemProperty(), onUpdate));
+
+    private static final ExecutorService REFRESH_POOL = Executors.newCachedThreadPool(r -> {
+        Thread t = new Thread(r, "service-registry");
+        t.setDaemon(true);
+        return t;
+    });
+
+    private final Duration ttl;
+    // 参数为慢速来源补充信息时的回调，返回首个结果
+    private final Function<Consumer<List<WindowsServiceChecker.ServiceInfo>>, List<WindowsServiceChecker.ServiceInfo>> discovery;
+    private final List<Consumer<Change>> listeners = new CopyOnWriteArrayList<>();
+    // 同一次查询的首个结果和补充结果来自不同线程，变化必须按计算顺序送达监听器
+    private final Object publishLock = new Object();
+
+    // 以下字段由 this 保护
+    private List<WindowsServiceChecker.ServiceInfo> snapshot = List.of();
+    private long fetchedAtNanos;
+    private boolean loaded;
+    private long generation;
+    private CompletableFuture<List<WindowsServiceChecker.ServiceInfo>> inFlight;
+    // 有查询在运行时又被强制刷新：运行中的查询可能早于调用方的改动，结束后再查一次，所有这类请求共用这一次
+    private CompletableFuture<List<WindowsServiceChecker.ServiceInfo>> queued;
+
+    public ServiceRegistry(Duration ttl,
+                           Function<Consumer<List<WindowsServiceChecker.ServiceInfo>>, List<WindowsServiceChecker.ServiceInfo>> discovery) {
+        this.ttl = ttl;
+        this.discovery = discovery;
+    }
+
+    public static ServiceRegistry getDefault() {
+        return DEFAULT;
+    }
+
+    public void addListener(Consumer<Change> listener) {
+        listeners.add(listener);
+    }
+
+    public void removeListener(Consumer<Change> listener) {
+        listeners.remove(listener);
+    }
+
+    // 当前快照，不阻塞；过期时顺带在后台刷新
+    public synchronized List<WindowsServiceChecker.ServiceInfo> getServices() {
+        if (!isFresh() && inFlight == null) startDiscovery();
+        return snapshot;
+    }
+
+    // 当前快照，不触发任何查询
+    public synchronized List<WindowsServiceChecker.ServiceInfo> peek() {
+        return snapshot;
+    }
+
+    // 快照未过期时立即完成，否则等待（或加入）正在运行的查询
+    public synchronized CompletableFuture<List<WindowsServiceChecker.ServiceInfo>> get() {
+        if (isFresh()) return CompletableFuture.completedFuture(snapshot);
+        if (inFlight != null) return inFlight;
+        return startDiscovery();
+    }
+
+    // 忽略 TTL 强制刷新，用于启动/停止/安装/卸载之后
+    public synchronized CompletableFuture<List<WindowsServiceChecker.ServiceInfo>> refresh() {
+        if (inFlight == null) return startDiscovery();
+        if (queued == null) queued = new CompletableFuture<>();
+        return queued;
+    }
+
+    // 标记快照过期，下一次 get()/getServices() 会重新查询
+    public synchronized void invalidate() {
+        loaded = false;
+    }
+
+    private boolean isFresh() {
+        return loaded && System.nanoTime() - fetchedAtNanos < ttl.toNanos();
+    }
+
+    // 调用方持有 this
+    private CompletableFuture<List<WindowsServiceChecker.ServiceInfo>> startDiscovery() {
+        Run run = new Run(++generation);
+        CompletableFuture<List<WindowsServiceChecker.ServiceInfo>> future = CompletableFuture.supplyAsync(
+                () -> run.initial(discovery.apply(run::update)), REFRESH_POOL);
+        inFlight = future;
+        future.whenComplete((services, e) -> {
+            synchronized (this) {
+                inFlight = null;
+                if (queued != null) {
+                    CompletableFuture<List<WindowsServiceChecker.ServiceInfo>> next = queued;
+                    queued = null;
+                    startDiscovery().whenComplete((s, ex) -> {
+                        if (ex != null) next.completeExceptionally(ex);
+                        else next.complete(s);
+                    });
+                }
+            }
+        });
+        return future;
+    }
+
+    // 一次查询的补充结果可能早于首个结果到达（来源在合并之后、返回之前完成，或回调同步执行），
+    // 首个结果发布之前只暂存最新的一份，发布后立即补发，否则信息更少的首个结果会覆盖补充结果
+    private final class Run {
+        private final long id;
+        // 以下字段由 Run 自身保护；持有期间发布，保证同一次查询的结果按到达顺序送达
+        private boolean initialPublished;
+        private List<WindowsServiceChecker.ServiceInfo> deferred;
+
+        Run(long id) {
+            this.id = id;
+        }
+
+        synchronized void update(List<WindowsServiceChecker.ServiceInfo> services) {
+            if (initialPublished) {
+                publish(id, services);
+            } else {
+                deferred = services;
+            }
+        }
+
+        synchronized List<WindowsServiceChecker.ServiceInfo> initial(List<WindowsServiceChecker.ServiceInfo> services) {
+            List<WindowsServiceChecker.ServiceInfo> published = publish(id, services);
+            initialPublished = true;
+            if (deferred != null) {
+                published = publish(id, deferred);
+                deferred = null;
+            }
+            return published;
+        }
+    }
+
+    // 只接受最近一次查询的结果（包括它稍后补充的信息），旧查询的迟到更新直接丢弃
+    private List<WindowsServiceChecker.ServiceInfo> publish(long run, List<WindowsServiceChecker.ServiceInfo> services) {
+        synchronized (publishLock) {
+            Change change;
+            synchronized (this) {
+                if (run != generation) return snapshot;
+                change = diff(snapshot, services);
+                snapshot = change.getSnapshot();
+                fetchedAtNanos = System.nanoTime();
+                loaded = true;
+            }
+            notifyListeners(change);
+            return change.getSnapshot();
+        }
+    }
+
+    // 用局部查询（如 ServiceWatcher 的状态轮询）得到的新信息更新快照：updater 作用于当前快照中的每个服务，
+    // 与并发的完整刷新互不覆盖对方的其他字段
+    public Change patch(UnaryOperator<WindowsServiceChecker.ServiceInfo> updater) {
+        synchronized (publishLock) {
+            Change change;
+            synchronized (this) {
+                List<WindowsServiceChecker.ServiceInfo> patched = new ArrayList<>(snapshot.size());
+                for (WindowsServiceChecker.ServiceInfo service : snapshot) patched.add(updater.apply(service));
+                change = diff(snapshot, patched);
+                snapshot = change.getSnapshot();
+            }
+            notifyListeners(change);
+            return change;
+        }
+    }
+
+    private void notifyListeners(Change change) {
+        if (change.isEmpty()) return;
+        for (Consumer<Change> listener : listeners) {
+            try {
+                listener.accept(change);
+            } catch (Exception e) {
+                System.err.println("服务列表监听器出错: " + e.getMessage());
+            }
+        }
+    }
+
+    static Change diff(List<WindowsServiceChecker.ServiceInfo> before, List<WindowsServiceChecker.ServiceInfo> after) {
+        Map<String, WindowsServiceChecker.ServiceInfo> old = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        for (WindowsServiceChecker.ServiceInfo service : before) old.put(service.getName(), service);
+
+        List<WindowsServiceChecker.ServiceInfo> added = new ArrayList<>();
+        List<WindowsServiceChecker.ServiceInfo> updated = new ArrayList<>();
+        for (WindowsServiceChecker.ServiceInfo service : after) {
+            WindowsServiceChecker.ServiceInfo previous = old.remove(service.getName());
+            if (previous == null) added.add(service);
+            else if (!previous.equals(service)) updated.add(service);
+        }
+        return new Change(added, new ArrayList<>(old.values()), updated, List.copyOf(after));
+    }
+}
@@ -0,0 +1,179 @@
+package com.example.mysqlautoin;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+// 服务状态监视：首次服务发现之后，只对 ServiceRegistry 中已知的服务做批量 sc query，不再重新扫描全部服务
+// 轮询间隔自适应：启动/停止之后以及有服务处于启动中/停止中时每 0.5 秒一次，空闲时 10 秒一次；
+// 空闲期间每秒在进程内检查一次 mysqld 进程列表（不启动进程），有进程出现或消失时立即查询
+// 状态变化写回 ServiceRegistry（界面列表随之更新），并作为事件通知监听器
+public class ServiceWatcher {
+
+    static final Duration FAST_INTERVAL = Duration.ofMillis(500);
+    static final Duration IDLE_INTERVAL = Duration.ofSeconds(10);
+    static final Duration PROCESS_CHECK_INTERVAL = Duration.ofSeconds(1);
+    // expectChange() 之后保持快速轮询的时长
+    static final Duration FAST_PERIOD = Duration.ofSeconds(20);
+
+    public static class StateChange {
+        private final WindowsServiceChecker.ServiceInfo service;
+        private final String previousState;
+
+        StateChange(WindowsServiceChecker.ServiceInfo service, String previousState) {
+            this.service = service;
+            this.previousState = previousState;
+        }
+
+        public WindowsServiceChecker.ServiceInfo getService() { return service; }
+        public String getPreviousState() { return previousState; }
+        public String getNewState() { return service.getState(); }
+
+        @Override
+        public String toString() {
+            return service.getName() + ": " + previousState + " → " + service.getState();
+        }
+    }
+
+    private static final ServiceWatcher DEFAULT = new ServiceWatcher(ServiceRegistry.getDefault());
+
+    private final ServiceRegistry registry;
+    private final Function<Collection<String>, Map<String, String>> stateQuery;
+    private final Supplier<List<MysqldProcesses.MysqldProcess>> processList;
+    private final List<Consumer<StateChange>> listeners = new CopyOnWriteArrayList<>();
+
+    private ScheduledExecutorService scheduler;
+    private volatile long fastUntilNanos;
+    private volatile boolean fastRequested;
+    private volatile boolean pollRequested = true;
+    private volatile long nextPollNanos;
+    // 以下字段只在调度线程上访问
+    private long nextProcessCheckNanos;
+    private Set<MysqldProcesses.MysqldProcess> lastProcesses;
+    private Set<String> lastMissing = Set.of();
+
+    public ServiceWatcher(ServiceRegistry registry) {
+        this(registry, WindowsServiceChecker::queryServiceStates, MysqldProcesses::list);
+    }
+
+    ServiceWatcher(ServiceRegistry registry, Function<Collection<String>, Map<String, String>> stateQuery,
+                   Supplier<List<MysqldProcesses.MysqldProcess>> processList) {
+        this.registry = registry;
+        this.stateQuery = stateQuery;
+        this.processList = processList;
+    }
+
+    public static ServiceWatcher getDefault() {
+        return DEFAULT;
+    }
+
+    public void addListener(Consumer<StateChange> listener) {
+        listeners.add(listener);
+    }
+
+    public void removeListener(Consumer<StateChange> listener) {
+        listeners.remove(listener);
+    }
+
+    public synchronized void start() {
+        if (scheduler != null) return;
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "service-watcher");
+            t.setDaemon(true);
+            return t;
+        });
+        scheduler.scheduleWithFixedDelay(this::tick, 0, FAST_INTERVAL.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    public synchronized void stop() {
+        if (scheduler == null) return;
+        scheduler.shutdownNow();
+        scheduler = null;
+    }
+
+    // 即将启动/停止服务时调用：立即查询一次，并在接下来一段时间内快速轮询
+    public synchronized void expectChange() {
+        fastUntilNanos = System.nanoTime() + FAST_PERIOD.toNanos();
+        fastRequested = true;
+        pollRequested = true;
+        if (scheduler != null) scheduler.execute(this::tick);
+    }
+
+    private void tick() {
+        try {
+            List<WindowsServiceChecker.ServiceInfo> known = registry.peek();
+            if (known.isEmpty()) return;
+
+            long now = System.nanoTime();
+            boolean due = pollRequested || now - nextPollNanos >= 0;
+            if (!due && now - nextProcessCheckNanos >= 0) {
+                due = processesChanged(now);
+            }
+            if (due) poll(known, now);
+        } catch (Exception e) {
+            System.err.println("监视服务状态时出错: " + e.getMessage());
+        }
+    }
+
+    private boolean processesChanged(long now) {
+        nextProcessCheckNanos = now + PROCESS_CHECK_INTERVAL.toNanos();
+        Set<MysqldProcesses.MysqldProcess> current = new HashSet<>(processList.get());
+        boolean changed = lastProcesses != null && !current.equals(lastProcesses);
+        lastProcesses = current;
+        return changed;
+    }
+
+    private void poll(List<WindowsServiceChecker.ServiceInfo> known, long now) {
+        // 查询期间再次 expectChange() 时，下一次 tick 会重新查询
+        pollRequested = false;
+        List<String> names = new ArrayList<>(known.size());
+        for (WindowsServiceChecker.ServiceInfo service : known) names.add(service.getName());
+        Map<String, String> states = stateQuery.apply(names);
+        List<MysqldProcesses.MysqldProcess> processes = processList.get();
+        lastProcesses = new HashSet<>(processes);
+        nextProcessCheckNanos = now + PROCESS_CHECK_INTERVAL.toNanos();
+
+        Set<String> missing = new TreeSet<>(String.CASE_INSENSITIVE_ORDER);
+        for (String name : names) {
+            if (!states.containsKey(name)) missing.add(name);
+        }
+
+        ServiceRegistry.Change change = registry.patch(service -> {
+            String state = states.getOrDefault(service.getName(), service.getState());
+            return service.withState(state).withProcess(MysqldProcesses.findFor(service, processes));
+        });
+
+        List<StateChange> changes = new ArrayList<>();
+        for (WindowsServiceChecker.ServiceInfo updated : change.getUpdated()) {
+            for (WindowsServiceChecker.ServiceInfo before : known) {
+                if (before.getName().equalsIgnoreCase(updated.getName()) && !before.getState().equals(updated.getState())) {
+                    changes.add(new StateChange(updated, before.getState()));
+                }
+            }
+        }
+        boolean pending = states.containsValue("启动中") || states.containsValue("停止中");
+
+        for (StateChange stateChange : changes) {
+            for (Consumer<StateChange> listener : listeners) {
+                try {
+                    listener.accept(stateChange);
+                } catch (Exception e) {
+                    System.err.println("服务状态监听器出错: " + e.getMessage());
+                }
+            }
+        }
+
+        // 查不到的服务可能已被删除，交给完整的服务发现确认；同一批服务只触发一次（进程检测得到的条目本来就查不到）
+        if (!missing.isEmpty() && !missing.equals(lastMissing)) registry.refresh();
+        lastMissing = missing;
+
+        boolean fast = pending || (fastRequested && now - fastUntilNanos < 0);
+        nextPollNanos = now + (fast ? FAST_INTERVAL : IDLE_INTERVAL).toNanos();
+    }
+}
@@ -0,0 +1,81 @@
+package com.example.mysqlautoin;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// 启动真实进程：stdin 立即关闭，合并后的输出在独立线程上持续读取（子进程不会因管道写满而阻塞），
+// 超过命令的超时时间后连同子孙进程一起强制结束
+public class SystemProcessRunner implements ProcessRunner {
+
+    private static final AtomicInteger THREAD_IDS = new AtomicInteger();
+
+    private final ExecutorService drainPool = Executors.newCachedThreadPool(r -> {
+        Thread t = new Thread(r, "process-drain-" + THREAD_IDS.incrementAndGet());
+        t.setDaemon(true);
+        return t;
+    });
+
+    private final ScheduledExecutorService watchdog = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "process-watchdog");
+        t.setDaemon(true);
+        return t;
+    });
+
+    @Override
+    public CompletableFuture<ProcessResult> start(ProcessCommand command) {
+        long startNanos = System.nanoTime();
+        ProcessBuilder pb = new ProcessBuilder(command.getCommand()).redirectErrorStream(true);
+        if (command.getDirectory() != null) pb.directory(command.getDirectory().toFile());
+        pb.environment().putAll(command.getEnvironment());
+
+        Process process;
+        try {
+            process = pb.start();
+            process.getOutputStream().close();
+        } catch (IOException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+
+        AtomicBoolean timedOut = new AtomicBoolean();
+        CompletableFuture<String> output = CompletableFuture.supplyAsync(() -> drain(process, command), drainPool);
+        ScheduledFuture<?> deadline = watchdog.schedule(() -> {
+            timedOut.set(true);
+            destroy(process);
+        }, command.getTimeout().toMillis(), TimeUnit.MILLISECONDS);
+
+        CompletableFuture<ProcessResult> result = process.onExit()
+                .thenCombine(output, (p, out) -> new ProcessResult(
+                        timedOut.get() ? -1 : p.exitValue(), out, timedOut.get(),
+                        TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos)));
+        result.whenComplete((r, e) -> {
+            deadline.cancel(false);
+            // 调用方取消（如界面上取消安装）时不留下孤儿进程
+            if (result.isCancelled()) destroy(process);
+        });
+        return result;
+    }
+
+    private static String drain(Process process, ProcessCommand command) {
+        StringBuilder out = new StringBuilder();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream(), command.getCharset()))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                out.append(line).append('\n');
+                if (command.getLineConsumer() != null) command.getLineConsumer().accept(line);
+            }
+        } catch (IOException e) {
+            // 进程被强制结束时管道会被关闭，保留已读到的输出
+        }
+        return out.toString();
+    }
+
+    // cmd.exe /c 启动的真正命令是 cmd 的子进程，只结束 cmd 会让子进程继续占着输出管道
+    private static void destroy(Process process) {
+        process.descendants().forEach(ProcessHandle::destroyForcibly);
+        process.destroyForcibly();
+    }
+}
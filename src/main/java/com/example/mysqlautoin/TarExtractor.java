@@ -0,0 +1,426 @@
+package com.example.mysqlautoin;
+
+import org.tukaani.xz.XZInputStream;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.nio.file.attribute.PosixFilePermission;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.util.*;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.function.Consumer;
+import java.util.zip.GZIPInputStream;
+
+// tar.gz / tar.xz 解压：解压缩和 tar 解析在独立线程上进行，通过有界队列把数据块交给写盘线程，CPU 与磁盘并行
+public class TarExtractor implements ArchiveExtractor {
+
+    private static final int BLOCK_SIZE = 512;
+    private static final int CHUNK_SIZE = 256 * 1024;
+    private static final int QUEUE_CAPACITY = 32;
+
+    private final ExtractionProfile profile;
+
+    public TarExtractor(ExtractionProfile profile) {
+        this.profile = profile;
+    }
+
+    @Override
+    public ExtractionProfile getProfile() { return profile; }
+
+    // 解析线程发给写盘线程的操作
+    private static final class Op {
+        enum Kind { DIR, FILE_START, DATA, FILE_END, SYMLINK, HARDLINK, DONE, FAILED }
+
+        final Kind kind;
+        final String name;
+        final String linkName;
+        final byte[] data;
+        final int length;
+        final int mode;
+        final Throwable error;
+
+        Op(Kind kind, String name, String linkName, byte[] data, int length, int mode, Throwable error) {
+            this.kind = kind;
+            this.name = name;
+            this.linkName = linkName;
+            this.data = data;
+            this.length = length;
+            this.mode = mode;
+            this.error = error;
+        }
+
+        static Op of(Kind kind, String name, int mode) {
+            return new Op(kind, name, null, null, 0, mode, null);
+        }
+    }
+
+    @Override
+    public ExtractStats extract(String archivePath, String destDir, ArchiveChecksum checksum,
+                                Consumer<String> logConsumer) throws IOException {
+        long start = System.nanoTime();
+        Path dest = Paths.get(destDir).toAbsolutePath().normalize();
+        Files.createDirectories(dest);
+
+        BlockingQueue<Op> queue = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+        BlockingQueue<byte[]> freeChunks = new ArrayBlockingQueue<>(QUEUE_CAPACITY + 2);
+        long[] skipped = new long[2];
+        String[] actualDigest = new String[1];
+
+        Thread decompressor = new Thread(() -> {
+            try {
+                actualDigest[0] = readArchive(archivePath, checksum, queue, freeChunks, skipped);
+                queue.put(Op.of(Op.Kind.DONE, null, 0));
+            } catch (InterruptedException e) {
+                // 写盘线程已放弃，直接退出
+            } catch (Throwable t) {
+                try {
+                    queue.put(new Op(Op.Kind.FAILED, null, null, null, 0, 0, t));
+                } catch (InterruptedException ignored) {
+                }
+            }
+        }, "untar-decompress");
+        decompressor.setDaemon(true);
+        decompressor.start();
+
+        ExtractionRollback rollback = new ExtractionRollback(dest);
+        int files = 0;
+        long bytes = 0;
+        boolean symlinkWarned = false;
+        OutputStream out = null;
+        Path current = null;
+        try {
+            while (true) {
+                Op op;
+                try {
+                    op = queue.take();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new InterruptedIOException("解压被中断");
+                }
+                if (op.kind == Op.Kind.DONE) break;
+                if (op.kind == Op.Kind.FAILED) {
+                    if (op.error instanceof IOException) throw (IOException) op.error;
+                    throw new IOException("解压失败: " + op.error.getMessage(), op.error);
+                }
+                if (op.kind == Op.Kind.DATA) {
+                    out.write(op.data, 0, op.length);
+                    bytes += op.length;
+                    freeChunks.offer(op.data);
+                    continue;
+                }
+                if (op.kind == Op.Kind.FILE_END) {
+                    out.close();
+                    out = null;
+                    applyMode(current, op.mode);
+                    files++;
+                    continue;
+                }
+
+                Path target = ZipExtractor.resolveEntry(dest, op.name);
+                if (target.equals(dest)) continue;
+                rollback.noteRoot(target);
+
+                switch (op.kind) {
+                    case DIR:
+                        rollback.createDirectories(target);
+                        break;
+                    case FILE_START:
+                        rollback.createDirectories(target.getParent());
+                        rollback.file(target);
+                        FileTrees.deleteFile(target);
+                        out = new BufferedOutputStream(Files.newOutputStream(target), CHUNK_SIZE);
+                        current = target;
+                        break;
+                    case SYMLINK:
+                        // 链接目标不能指向解压目录之外
+                        if (!target.getParent().resolve(op.linkName).normalize().startsWith(dest)) {
+                            logConsumer.accept("⚠️ 跳过指向目录外的符号链接: " + op.name + " -> " + op.linkName + "\n");
+                            break;
+                        }
+                        rollback.createDirectories(target.getParent());
+                        rollback.file(target);
+                        FileTrees.deleteFile(target);
+                        try {
+                            Files.createSymbolicLink(target, Paths.get(op.linkName));
+                        } catch (UnsupportedOperationException | IOException e) {
+                            if (!symlinkWarned) {
+                                logConsumer.accept("⚠️ 无法创建符号链接（可能缺少权限），已跳过: " + op.name + "\n");
+                                symlinkWarned = true;
+                            }
+                        }
+                        break;
+                    case HARDLINK:
+                        rollback.createDirectories(target.getParent());
+                        rollback.file(target);
+                        FileTrees.linkOrCopy(ZipExtractor.resolveEntry(dest, op.linkName), target);
+                        files++;
+                        break;
+                    default:
+                        break;
+                }
+            }
+        } finally {
+            if (out != null) {
+                try {
+                    out.close();
+                } catch (IOException ignored) {
+                }
+            }
+            decompressor.interrupt();
+        }
+
+        if (checksum != null) {
+            try {
+                checksum.verify(actualDigest[0]);
+                logConsumer.accept("✅ 发行包校验通过 (" + checksum.getAlgorithm() + ")\n");
+            } catch (ChecksumMismatchException e) {
+                logConsumer.accept("❌ " + e.getMessage() + "\n");
+                rollback.rollback(logConsumer);
+                throw e;
+            }
+        }
+
+        ExtractStats stats = new ExtractStats(files, bytes, System.nanoTime() - start, 2,
+                (int) skipped[0], skipped[1]);
+        logConsumer.accept("📦 tar 解压完成: " + archivePath + " (" + stats + ")\n");
+        if (stats.getSkippedEntries() > 0) {
+            logConsumer.accept("⏭ 解压配置 " + profile.getName() + ": " + stats.describeSavings() + "\n");
+        }
+        return stats;
+    }
+
+    // 在解压线程上运行：解压缩并解析 tar 流，返回压缩包摘要（未要求校验时为 null）
+    private String readArchive(String archivePath, ArchiveChecksum checksum, BlockingQueue<Op> queue,
+                               BlockingQueue<byte[]> freeChunks, long[] skipped)
+            throws IOException, InterruptedException {
+        MessageDigest digest = checksum != null ? checksum.newDigest() : null;
+        InputStream raw = Files.newInputStream(Paths.get(archivePath));
+        if (digest != null) raw = new DigestInputStream(raw, digest);
+        InputStream buffered = new BufferedInputStream(raw, 1 << 16);
+        String lower = archivePath.toLowerCase(Locale.ROOT);
+        try (InputStream tar = lower.endsWith(".xz") || lower.endsWith(".txz")
+                ? new XZInputStream(buffered)
+                : new GZIPInputStream(buffered, 1 << 16)) {
+
+            byte[] header = new byte[BLOCK_SIZE];
+            String longName = null;
+            String longLink = null;
+            Map<String, String> pax = Collections.emptyMap();
+
+            while (readBlock(tar, header)) {
+                if (isZeroBlock(header)) break;
+                verifyHeaderChecksum(header);
+
+                char type = (char) header[156];
+                long size = parseNumber(header, 124, 12);
+                int mode = (int) parseNumber(header, 100, 8);
+
+                String name = longName != null ? longName : headerName(header);
+                String linkName = longLink != null ? longLink : cString(header, 157, 100);
+                if (pax.containsKey("path")) name = pax.get("path");
+                if (pax.containsKey("linkpath")) linkName = pax.get("linkpath");
+                if (pax.containsKey("size")) size = Long.parseLong(pax.get("size"));
+
+                // 扩展头只作用于紧随其后的条目
+                if (type == 'L' || type == 'K' || type == 'x') {
+                    byte[] data = readData(tar, size);
+                    if (type == 'L') longName = cString(data, 0, data.length);
+                    else if (type == 'K') longLink = cString(data, 0, data.length);
+                    else pax = parsePax(data);
+                    continue;
+                }
+                longName = null;
+                longLink = null;
+                pax = Collections.emptyMap();
+
+                if (name.startsWith("./")) name = name.substring(2);
+                boolean regular = type == '0' || type == '\0' || type == '7';
+                if (name.isEmpty() || !profile.accepts(name)) {
+                    if (regular) {
+                        skipped[0]++;
+                        skipped[1] += size;
+                    }
+                    skipData(tar, size);
+                    continue;
+                }
+
+                switch (type) {
+                    case '5':
+                        queue.put(Op.of(Op.Kind.DIR, name, mode));
+                        skipData(tar, size);
+                        break;
+                    case '2':
+                        queue.put(new Op(Op.Kind.SYMLINK, name, linkName, null, 0, mode, null));
+                        break;
+                    case '1':
+                        queue.put(new Op(Op.Kind.HARDLINK, name, linkName, null, 0, mode, null));
+                        break;
+                    default:
+                        if (!regular) {
+                            // 设备文件、FIFO 等在 MySQL 发行包中不会出现，直接跳过
+                            skipData(tar, size);
+                            break;
+                        }
+                        queue.put(Op.of(Op.Kind.FILE_START, name, mode));
+                        long remaining = size;
+                        while (remaining > 0) {
+                            byte[] chunk = freeChunks.poll();
+                            if (chunk == null) chunk = new byte[CHUNK_SIZE];
+                            int len = (int) Math.min(remaining, CHUNK_SIZE);
+                            readFully(tar, chunk, len);
+                            queue.put(new Op(Op.Kind.DATA, name, null, chunk, len, mode, null));
+                            remaining -= len;
+                        }
+                        skipPadding(tar, size);
+                        queue.put(Op.of(Op.Kind.FILE_END, name, mode));
+                        break;
+                }
+            }
+
+            if (digest == null) return null;
+            // tar 结束标记之后还有压缩流尾部，读完才能得到完整摘要
+            byte[] drain = new byte[1 << 16];
+            while (tar.read(drain) > 0) {
+                // 仅用于推进摘要
+            }
+            while (buffered.read(drain) > 0) {
+                // 仅用于推进摘要
+            }
+            return ArchiveChecksum.toHex(digest.digest());
+        }
+    }
+
+    private static String headerName(byte[] header) {
+        String name = cString(header, 0, 100);
+        // ustar 格式中长路径被拆成 prefix + name
+        if (cString(header, 257, 5).equals("ustar")) {
+            String prefix = cString(header, 345, 155);
+            if (!prefix.isEmpty()) name = prefix + "/" + name;
+        }
+        return name;
+    }
+
+    private static String cString(byte[] b, int offset, int length) {
+        int end = offset;
+        while (end < offset + length && b[end] != 0) end++;
+        return new String(b, offset, end - offset, StandardCharsets.UTF_8);
+    }
+
+    // 数值字段通常是八进制文本；超大值使用 GNU base-256 编码（首字节最高位为 1）
+    private static long parseNumber(byte[] b, int offset, int length) throws IOException {
+        if ((b[offset] & 0x80) != 0) {
+            long value = b[offset] & 0x7F;
+            for (int i = offset + 1; i < offset + length; i++) {
+                value = (value << 8) | (b[i] & 0xFF);
+            }
+            return value;
+        }
+        long value = 0;
+        for (int i = offset; i < offset + length; i++) {
+            byte c = b[i];
+            if (c == 0 || c == ' ') {
+                if (value != 0) break;
+                continue;
+            }
+            if (c < '0' || c > '7') {
+                throw new IOException("tar 头数值字段无效");
+            }
+            value = (value << 3) | (c - '0');
+        }
+        return value;
+    }
+
+    private static void verifyHeaderChecksum(byte[] header) throws IOException {
+        long expected = parseNumber(header, 148, 8);
+        long sum = 0;
+        for (int i = 0; i < BLOCK_SIZE; i++) {
+            sum += (i >= 148 && i < 156) ? ' ' : (header[i] & 0xFF);
+        }
+        if (sum != expected) {
+            throw new IOException("tar 头校验失败，压缩包可能已损坏");
+        }
+    }
+
+    // pax 扩展头格式: "<长度> <key>=<value>\n"
+    private static Map<String, String> parsePax(byte[] data) {
+        Map<String, String> result = new HashMap<>();
+        int pos = 0;
+        while (pos < data.length) {
+            int space = pos;
+            while (space < data.length && data[space] != ' ') space++;
+            if (space >= data.length) break;
+            int recordLength;
+            try {
+                recordLength = Integer.parseInt(new String(data, pos, space - pos, StandardCharsets.US_ASCII));
+            } catch (NumberFormatException e) {
+                break;
+            }
+            if (recordLength <= 0 || pos + recordLength > data.length) break;
+            String record = new String(data, space + 1, pos + recordLength - space - 2, StandardCharsets.UTF_8);
+            int eq = record.indexOf('=');
+            if (eq > 0) result.put(record.substring(0, eq), record.substring(eq + 1));
+            pos += recordLength;
+        }
+        return result;
+    }
+
+    private static boolean isZeroBlock(byte[] block) {
+        for (byte b : block) {
+            if (b != 0) return false;
+        }
+        return true;
+    }
+
+    private static boolean readBlock(InputStream in, byte[] block) throws IOException {
+        int read = in.readNBytes(block, 0, BLOCK_SIZE);
+        if (read == 0) return false;
+        if (read < BLOCK_SIZE) throw new EOFException("tar 流意外结束");
+        return true;
+    }
+
+    private static byte[] readData(InputStream in, long size) throws IOException {
+        if (size > Integer.MAX_VALUE) throw new IOException("tar 扩展头过大: " + size);
+        byte[] data = new byte[(int) size];
+        readFully(in, data, data.length);
+        skipPadding(in, size);
+        return data;
+    }
+
+    private static void readFully(InputStream in, byte[] buffer, int length) throws IOException {
+        if (in.readNBytes(buffer, 0, length) < length) {
+            throw new EOFException("tar 流意外结束");
+        }
+    }
+
+    private static void skipData(InputStream in, long size) throws IOException {
+        skipFully(in, size);
+        skipPadding(in, size);
+    }
+
+    private static void skipPadding(InputStream in, long size) throws IOException {
+        skipFully(in, (BLOCK_SIZE - size % BLOCK_SIZE) % BLOCK_SIZE);
+    }
+
+    private static void skipFully(InputStream in, long n) throws IOException {
+        in.skipNBytes(n);
+    }
+
+    // 只在支持 POSIX 权限的文件系统上还原可执行位（Linux 的 bin/mysqld 依赖它）
+    private static void applyMode(Path file, int mode) throws IOException {
+        if ((mode & 0111) == 0) return;
+        if (!FileSystems.getDefault().supportedFileAttributeViews().contains("posix")) return;
+        Set<PosixFilePermission> permissions = EnumSet.noneOf(PosixFilePermission.class);
+        PosixFilePermission[] bits = {
+                PosixFilePermission.OTHERS_EXECUTE, PosixFilePermission.OTHERS_WRITE, PosixFilePermission.OTHERS_READ,
+                PosixFilePermission.GROUP_EXECUTE, PosixFilePermission.GROUP_WRITE, PosixFilePermission.GROUP_READ,
+                PosixFilePermission.OWNER_EXECUTE, PosixFilePermission.OWNER_WRITE, PosixFilePermission.OWNER_READ
+        };
+        for (int i = 0; i < bits.length; i++) {
+            if ((mode & (1 << i)) != 0) permissions.add(bits[i]);
+        }
+        Files.setPosixFilePermissions(file, permissions);
+    }
+}
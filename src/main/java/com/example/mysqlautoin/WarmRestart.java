@@ -0,0 +1,269 @@
+package com.example.mysqlautoin;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.function.Consumer;
+import java.util.function.DoubleConsumer;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// 热重启：停止前把缓冲池中的页号导出到 ib_buffer_pool（innodb_buffer_pool_dump_now），启动后由 mysqld 按导出的页号
+// 预读回缓冲池；握手成功只说明可以连接，要等 Innodb_buffer_pool_load_status 显示加载完成才报告就绪
+// 查询通过 mysql.exe 执行，密码经 MYSQL_PWD 环境变量传入，不出现在命令行中
+public class WarmRestart {
+
+    static final Duration POLL_INTERVAL = Duration.ofMillis(500);
+    static final Duration DUMP_TIMEOUT = Duration.ofMinutes(2);
+    static final Duration DEFAULT_LOAD_TIMEOUT = Duration.ofMinutes(30);
+    private static final Duration RUNNING_CHECK_DEADLINE = Duration.ofSeconds(2);
+    private static final String DEFAULT_PORT = "3306";
+
+    private static final Pattern LOADED = Pattern.compile("Loaded (\\d+)/(\\d+) pages");
+
+    public enum LoadState { NOT_STARTED, LOADING, COMPLETED, ABORTED, FAILED }
+
+    // Innodb_buffer_pool_load_status 的取值，如 "Loaded 5121/65536 pages"、"Buffer pool(s) load completed at 250101 10:00:00"、
+    // "Cannot open '...ib_buffer_pool' for reading: No such file or directory"（没有导出文件）
+    public static class LoadStatus {
+        private final LoadState state;
+        private final long loaded;
+        private final long total;
+        private final String text;
+
+        LoadStatus(LoadState state, long loaded, long total, String text) {
+            this.state = state;
+            this.loaded = loaded;
+            this.total = total;
+            this.text = text;
+        }
+
+        public LoadState getState() { return state; }
+        public String getText() { return text; }
+
+        // 加载进度 0~1，总页数未知时为 -1
+        public double getFraction() {
+            if (state == LoadState.COMPLETED) return 1;
+            return total > 0 ? Math.min(1, loaded / (double) total) : -1;
+        }
+
+        public boolean isFinished() {
+            return state == LoadState.COMPLETED || state == LoadState.ABORTED || state == LoadState.FAILED;
+        }
+
+        @Override
+        public String toString() {
+            return text;
+        }
+    }
+
+    static LoadStatus parseLoadStatus(String text) {
+        String value = text == null ? "" : text.trim();
+        String lower = value.toLowerCase(Locale.ROOT);
+        Matcher m = LOADED.matcher(value);
+        if (m.find()) return new LoadStatus(LoadState.LOADING, Long.parseLong(m.group(1)), Long.parseLong(m.group(2)), value);
+        if (lower.contains("load completed")) return new LoadStatus(LoadState.COMPLETED, 0, 0, value);
+        if (lower.contains("aborted")) return new LoadStatus(LoadState.ABORTED, 0, 0, value);
+        if (lower.startsWith("cannot") || lower.startsWith("error") || lower.contains("failed")) {
+            return new LoadStatus(LoadState.FAILED, 0, 0, value);
+        }
+        if (lower.startsWith("loading")) return new LoadStatus(LoadState.LOADING, 0, 0, value);
+        return new LoadStatus(LoadState.NOT_STARTED, 0, 0, value);
+    }
+
+    private final ProcessRunner runner;
+    private final Path binPath;
+    private final String port;
+    private final String password;
+    private final Consumer<String> log;
+    private DoubleConsumer progress = fraction -> { };
+    private Duration loadTimeout = DEFAULT_LOAD_TIMEOUT;
+
+    public WarmRestart(ProcessRunner runner, Path binPath, String port, String password, Consumer<String> log) {
+        this.runner = runner;
+        this.binPath = binPath;
+        this.port = port;
+        this.password = password;
+        this.log = log;
+    }
+
+    // 从服务的 --defaults-file 中读取端口；找不到服务的 bin 目录时返回 null
+    public static WarmRestart forService(WindowsServiceChecker.ServiceInfo service, String password, Consumer<String> log) {
+        if (service.getBinPath() == null) return null;
+        Path myIni = WindowsServiceChecker.extractDefaultsFile(WindowsServiceChecker.getServiceCommandLine(service.getName()));
+        String port = DEFAULT_PORT;
+        if (myIni != null) {
+            try {
+                port = readPort(myIni);
+            } catch (IOException e) {
+                log.accept("⚠️ 读取 " + myIni + " 失败，按默认端口 " + DEFAULT_PORT + " 连接: " + e.getMessage() + "\n");
+            }
+        }
+        return new WarmRestart(ProcessRunner.getDefault(), Paths.get(service.getBinPath()), port, password, log);
+    }
+
+    // [mysqld] 段中的 port，没有时为 3306
+    static String readPort(Path myIni) throws IOException {
+        boolean inMysqld = false;
+        try (BufferedReader reader = Files.newBufferedReader(myIni, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String trimmed = line.trim();
+                if (trimmed.startsWith("[")) {
+                    inMysqld = trimmed.equalsIgnoreCase("[mysqld]");
+                } else if (inMysqld && trimmed.matches("port\\s*=\\s*\\d+")) {
+                    return trimmed.substring(trimmed.indexOf('=') + 1).trim();
+                }
+            }
+        }
+        return DEFAULT_PORT;
+    }
+
+    // 加载进度回调，参数为 0~1，总页数未知时为 -1
+    public WarmRestart setProgress(DoubleConsumer progress) {
+        this.progress = progress;
+        return this;
+    }
+
+    public WarmRestart setLoadTimeout(Duration loadTimeout) {
+        this.loadTimeout = loadTimeout;
+        return this;
+    }
+
+    public String getPort() { return port; }
+
+    // 返回 true 表示服务已重新启动并且缓冲池加载完成（或没有可加载的内容）
+    public boolean restart(String serviceName) throws InterruptedException {
+        log.accept("♨️ 热重启 " + serviceName + "（端口 " + port + "）\n");
+        boolean loadAtStartup = true;
+        if (ReadinessProbe.localhost(port).setDeadline(RUNNING_CHECK_DEADLINE).await().isReady()) {
+            dumpNow();
+            // 旧实例的 my.ini 可能关闭了启动时加载，启动后手动触发
+            loadAtStartup = !"0".equals(queryValue("SELECT @@innodb_buffer_pool_load_at_startup"));
+        } else {
+            log.accept("⚠️ 服务未在运行，直接启动并加载上次导出的缓冲池\n");
+        }
+
+        StringBuilder serviceLog = new StringBuilder();
+        boolean stopped = WindowsServiceChecker.startStopService(serviceName, false, serviceLog);
+        boolean started = WindowsServiceChecker.startStopService(serviceName, true, serviceLog);
+        log.accept(serviceLog.toString());
+        if (!started) {
+            log.accept("❌ 服务" + (stopped ? "已停止但未能启动" : "未能重启") + "\n");
+            return false;
+        }
+
+        ReadinessProbe.Result ready = ReadinessProbe.localhost(port).await();
+        if (!ready.isReady()) {
+            log.accept("❌ 等待 MySQL 就绪超时: " + ready + "\n");
+            return false;
+        }
+        log.accept("🔌 MySQL 已接受连接: " + ready + "，等待缓冲池加载\n");
+        if (!loadAtStartup) execute("SET GLOBAL innodb_buffer_pool_load_now=ON");
+        return awaitLoad();
+    }
+
+    // 先导出一次，停止时的导出（innodb_buffer_pool_dump_at_shutdown）未开启或失败时也有可用的导出文件
+    private void dumpNow() throws InterruptedException {
+        String before = queryStatus("Innodb_buffer_pool_dump_status");
+        if (!execute("SET GLOBAL innodb_buffer_pool_dump_now=ON")) return;
+        long deadline = System.nanoTime() + DUMP_TIMEOUT.toNanos();
+        while (System.nanoTime() < deadline) {
+            String status = queryStatus("Innodb_buffer_pool_dump_status");
+            if (status != null && !status.equals(before) && status.toLowerCase(Locale.ROOT).contains("dump completed")) {
+                log.accept("💾 已导出缓冲池: " + status + "\n");
+                return;
+            }
+            Thread.sleep(POLL_INTERVAL.toMillis());
+        }
+        log.accept("⚠️ 导出缓冲池超时，依赖停止服务时的导出\n");
+    }
+
+    private boolean awaitLoad() throws InterruptedException {
+        long start = System.nanoTime();
+        long deadline = start + loadTimeout.toNanos();
+        int lastReported = -1;
+        LoadStatus status = null;
+        while (System.nanoTime() < deadline) {
+            String text = queryStatus("Innodb_buffer_pool_load_status");
+            if (text != null) {
+                status = parseLoadStatus(text);
+                double fraction = status.getFraction();
+                progress.accept(fraction);
+                int percent = fraction < 0 ? -1 : (int) (fraction * 100);
+                // 每 10% 记一次日志，界面进度条每次轮询都更新
+                if (status.getState() == LoadState.LOADING && percent / 10 != lastReported / 10) {
+                    log.accept("⏳ 缓冲池加载中: " + status + (percent >= 0 ? "（" + percent + "%）" : "") + "\n");
+                    lastReported = percent;
+                }
+                if (status.isFinished()) break;
+            }
+            Thread.sleep(POLL_INTERVAL.toMillis());
+        }
+
+        double seconds = (System.nanoTime() - start) / 1e9;
+        if (status == null) {
+            log.accept("⚠️ 无法查询缓冲池加载状态，请检查 root 密码\n");
+            return false;
+        }
+        switch (status.getState()) {
+            case COMPLETED:
+                log.accept(String.format("✅ 缓冲池加载完成，服务已就绪（等待 %.1f s）: %s%n", seconds, status));
+                return true;
+            case FAILED:
+                // 第一次启动或从未导出过时没有 ib_buffer_pool，不影响使用
+                log.accept("⚠️ 没有可加载的缓冲池导出，服务已就绪: " + status + "\n");
+                return true;
+            case ABORTED:
+                log.accept("⚠️ 缓冲池加载被中止: " + status + "\n");
+                return false;
+            default:
+                log.accept(String.format("⚠️ 等待缓冲池加载超时（%.0f s）: %s%n", seconds, status));
+                return false;
+        }
+    }
+
+    private String queryStatus(String name) {
+        String output = queryValue("SHOW GLOBAL STATUS LIKE '" + name + "'");
+        if (output == null) return null;
+        int tab = output.indexOf('\t');
+        return tab >= 0 ? output.substring(tab + 1) : output;
+    }
+
+    // -N -B：不输出列名，列之间以制表符分隔；返回最后一行，失败时为 null
+    private String queryValue(String sql) {
+        try {
+            ProcessResult result = runner.run(mysql(sql));
+            if (!result.isSuccess()) return null;
+            String[] lines = result.getOutput().trim().split("\r?\n");
+            return lines[lines.length - 1].trim();
+        } catch (Exception e) {
+            if (e instanceof InterruptedException) Thread.currentThread().interrupt();
+            return null;
+        }
+    }
+
+    private boolean execute(String sql) {
+        try {
+            ProcessResult result = runner.run(mysql(sql));
+            if (!result.isSuccess()) log.accept("⚠️ 执行 " + sql + " 失败，" + result + "\n");
+            return result.isSuccess();
+        } catch (Exception e) {
+            if (e instanceof InterruptedException) Thread.currentThread().interrupt();
+            log.accept("⚠️ 执行 " + sql + " 时出错: " + e.getMessage() + "\n");
+            return false;
+        }
+    }
+
+    private ProcessCommand mysql(String sql) {
+        return ProcessCommand.of(MySQLInstaller.executable(binPath, "mysql").toString(),
+                        "-u", "root", "--protocol=tcp", "--port=" + port, "-N", "-B", "--execute", sql)
+                .setEnvironment("MYSQL_PWD", password)
+                .setTimeout(WindowsServiceChecker.QUERY_TIMEOUT);
+    }
+}
@@ -2,38 +2,140 @@ package com.example.mysqlautoin;
 
 import java.io.BufferedReader;
 import java.io.File;
-import java.io.InputStreamReader;
+import java.io.IOException;
+import java.io.StringReader;
 import java.nio.file.*;
-import java.util.ArrayList;
-import java.util.List;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.function.Function;
 
 public class WindowsServiceChecker {
 
+    // sc query / sc qc / wmic 等查询命令的超时
+    static final Duration QUERY_TIMEOUT = Duration.ofSeconds(15);
+    // cmd.exe 单条命令行上限 8191 个字符，批量 sc qc 按此留余量分批
+    private static final int MAX_BATCH_COMMAND_LENGTH = 7000;
+    // net start / net stop 会等待服务进入目标状态，mysqld 崩溃恢复时可能较慢
+    static final Duration SERVICE_CONTROL_TIMEOUT = Duration.ofSeconds(120);
+
     public static class ServiceInfo {
         private final String name;
         private final String state;
         private final String binPath;
         private final String displayName;
+        private final Boolean processAlive;
+        private final MysqldProcesses.MysqldProcess process;
 
         public ServiceInfo(String name, String state, String binPath, String displayName) {
+            this(name, state, binPath, displayName, null);
+        }
+
+        public ServiceInfo(String name, String state, String binPath, String displayName, Boolean processAlive) {
+            this(name, state, binPath, displayName, processAlive, null);
+        }
+
+        private ServiceInfo(String name, String state, String binPath, String displayName, Boolean processAlive,
+                            MysqldProcesses.MysqldProcess process) {
             this.name = name;
             this.state = state;
             this.binPath = binPath;
             this.displayName = displayName;
+            this.processAlive = processAlive;
+            this.process = process;
         }
 
         public String getName() { return name; }
         public String getState() { return state; }
         public String getBinPath() { return binPath; }
         public String getDisplayName() { return displayName; }
+        // 进程列表中是否有对应的 mysqld；为 null 表示尚未检查
+        public Boolean getProcessAlive() { return processAlive; }
+        // 匹配到的 mysqld 进程（PID、启动时间、CPU 时间）；未匹配或尚未检查时为 null
+        public MysqldProcesses.MysqldProcess getProcess() { return process; }
+
+        public ServiceInfo withState(String state) {
+            return new ServiceInfo(name, state, binPath, displayName, processAlive, process);
+        }
+
+        public ServiceInfo withBinPath(String binPath) {
+            return new ServiceInfo(name, state, binPath, displayName, processAlive, process);
+        }
+
+        public ServiceInfo withProcessAlive(Boolean processAlive) {
+            return new ServiceInfo(name, state, binPath, displayName, processAlive, process);
+        }
+
+        public ServiceInfo withProcess(MysqldProcesses.MysqldProcess process) {
+            return new ServiceInfo(name, state, binPath, displayName, process != null, process);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof ServiceInfo)) return false;
+            ServiceInfo other = (ServiceInfo) o;
+            return name.equals(other.name) && Objects.equals(state, other.state)
+                    && Objects.equals(binPath, other.binPath) && Objects.equals(displayName, other.displayName)
+                    && Objects.equals(processAlive, other.processAlive) && Objects.equals(process, other.process);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(name, state, binPath, displayName, processAlive, process);
+        }
 
         @Override
         public String toString() {
-            return (displayName != null ? displayName : name) + " (" + state + ")";
+            String text = (displayName != null ? displayName : name) + " (" + state;
+            if (process != null) text += ", PID " + process.getPid();
+            text += ")";
+            if ("正在运行".equals(state) && Boolean.FALSE.equals(processAlive)) {
+                text += " ⚠️ 未找到 mysqld 进程";
+            }
+            return text;
+        }
+    }
+
+    // PARALLEL：SC、WMIC、进程检测同时启动，先到的有效结果立即返回，其余结果到达后补充信息
+    // SEQUENTIAL_FALLBACK：原有行为，SC 为空才尝试 WMIC，仍为空才检测进程
+    public enum DiscoveryMode {
+        PARALLEL, SEQUENTIAL_FALLBACK;
+
+        // -Dmysqlauto.discovery=sequential 可切回原有的顺序回退
+        public static DiscoveryMode fromSystemProperty() {
+            String value = System.getProperty("mysqlauto.discovery", "parallel");
+            return value.equalsIgnoreCase("sequential") ? SEQUENTIAL_FALLBACK : PARALLEL;
         }
     }
 
+    private static final ExecutorService DISCOVERY_POOL = Executors.newCachedThreadPool(r -> {
+        Thread t = new Thread(r, "service-discovery");
+        t.setDaemon(true);
+        return t;
+    });
+
     public static List<ServiceInfo> checkMysqlServices() {
+        return checkMysqlServices(DiscoveryMode.fromSystemProperty(), null);
+    }
+
+    // onUpdate 只在 PARALLEL 模式下、慢的检测方式补充了信息时调用，参数为完整的新列表，按计算顺序依次调用；
+    // 来源可能在首个结果合并之后、返回之前完成，因此回调可能早于返回，也可能在调用线程上同步执行
+    public static List<ServiceInfo> checkMysqlServices(DiscoveryMode mode, Consumer<List<ServiceInfo>> onUpdate) {
+        if (mode == DiscoveryMode.PARALLEL) {
+            try {
+                return discoverInParallel(onUpdate);
+            } catch (Exception e) {
+                System.err.println("并行检查MySQL服务时出错: " + e.getMessage());
+                return new ArrayList<>();
+            }
+        }
+
         List<ServiceInfo> result = new ArrayList<>();
         try {
             // 方法1: 使用SC命令查找所有状态的服务
@@ -56,190 +158,291 @@ public class WindowsServiceChecker {
         return result;
     }
 
-    // 使用SC命令查找服务
-    private static List<ServiceInfo> findServicesWithSC() {
-        List<ServiceInfo> result = new ArrayList<>();
-        try {
-            Process process = new ProcessBuilder("cmd.exe", "/c", "sc query type= service state= all").start();
-            BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream(), "GBK"));
-
-            String line;
-            String currentService = null;
-            String state = null;
-            String displayName = null;
-
-            while ((line = reader.readLine()) != null) {
-                line = line.trim();
-
-                if (line.startsWith("SERVICE_NAME:")) {
-                    // 保存上一个服务的处理结果
-                    if (currentService != null && state != null) {
-                        if (isValidMysqlService(currentService, displayName, null)) {
-                            String binPath = getServiceBinPath(currentService);
-                            result.add(new ServiceInfo(currentService, state, binPath, displayName));
+    // SC 和 WMIC 的结果是权威的服务列表；进程列表用于确认每个服务的 mysqld 是否存活
+    private static List<ServiceInfo> discoverInParallel(Consumer<List<ServiceInfo>> onUpdate) {
+        CompletableFuture<List<ServiceInfo>> sc = CompletableFuture.supplyAsync(WindowsServiceChecker::findServicesWithSC, DISCOVERY_POOL);
+        CompletableFuture<List<ServiceInfo>> wmic = CompletableFuture.supplyAsync(WindowsServiceChecker::findServicesWithWMIC, DISCOVERY_POOL);
+        CompletableFuture<List<MysqldProcesses.MysqldProcess>> processes = CompletableFuture.supplyAsync(WindowsServiceChecker::listMysqldProcesses, DISCOVERY_POOL);
+
+        // 第一个非空的权威结果；两个都为空时为空列表
+        CompletableFuture<List<ServiceInfo>> first = new CompletableFuture<>();
+        AtomicInteger pending = new AtomicInteger(2);
+        for (CompletableFuture<List<ServiceInfo>> source : List.of(sc, wmic)) {
+            source.whenComplete((list, e) -> {
+                if (list != null && !list.isEmpty()) {
+                    first.complete(list);
+                } else if (pending.decrementAndGet() == 0) {
+                    first.complete(new ArrayList<>());
+                }
+            });
+        }
+
+        List<ServiceInfo> base = first.join();
+        if (base.isEmpty()) {
+            // 与顺序模式一致：没有服务但有 mysqld 进程时返回一个占位条目
+            return servicesFromProcesses(processes.join());
+        }
+
+        List<ServiceInfo> initial = merge(base, doneValue(sc), doneValue(wmic), doneValue(processes));
+        if (onUpdate != null) {
+            // 已完成的来源也注册：它可能恰好在上面的合并之后完成，结果未变化时不会回调
+            AtomicReference<List<ServiceInfo>> latest = new AtomicReference<>(initial);
+            for (CompletableFuture<?> late : List.of(sc, wmic, processes)) {
+                late.whenComplete((v, e) -> {
+                    synchronized (latest) {
+                        List<ServiceInfo> merged = merge(base, doneValue(sc), doneValue(wmic), doneValue(processes));
+                        if (!merged.equals(latest.get())) {
+                            latest.set(merged);
+                            onUpdate.accept(merged);
                         }
                     }
+                });
+            }
+        }
+        return initial;
+    }
 
-                    // 开始处理新服务
-                    currentService = line.substring("SERVICE_NAME:".length()).trim();
-                    state = null;
-                    displayName = null;
-                }
-                else if (currentService != null && line.startsWith("STATE")) {
-                    if (line.contains("RUNNING")) state = "正在运行";
-                    else if (line.contains("STOPPED")) state = "已停止";
-                    else if (line.contains("START_PENDING")) state = "启动中";
-                    else if (line.contains("STOP_PENDING")) state = "停止中";
-                    else if (line.contains("PAUSED")) state = "已暂停";
-                    else state = "其他状态";
-                }
-                else if (currentService != null && line.startsWith("DISPLAY_NAME")) {
-                    displayName = line.substring("DISPLAY_NAME:".length()).trim();
+    // 尚未完成或失败的来源视为没有数据
+    private static <T> T doneValue(CompletableFuture<T> future) {
+        return future.isDone() && !future.isCompletedExceptionally() ? future.join() : null;
+    }
+
+    // 以 base 为准合并：补上缺失的 bin 目录、另一来源独有的服务，以及各服务对应的 mysqld 进程
+    static List<ServiceInfo> merge(List<ServiceInfo> base, List<ServiceInfo> sc, List<ServiceInfo> wmic,
+                                   List<MysqldProcesses.MysqldProcess> mysqldProcesses) {
+        Map<String, ServiceInfo> byName = new LinkedHashMap<>();
+        for (ServiceInfo service : base) byName.put(service.getName().toLowerCase(), service);
+        for (List<ServiceInfo> other : Arrays.asList(sc, wmic)) {
+            if (other == null || other == base) continue;
+            for (ServiceInfo service : other) {
+                String key = service.getName().toLowerCase();
+                ServiceInfo existing = byName.get(key);
+                if (existing == null) {
+                    byName.put(key, service);
+                } else if (existing.getBinPath() == null && service.getBinPath() != null) {
+                    byName.put(key, existing.withBinPath(service.getBinPath()));
                 }
             }
+        }
 
-            // 处理最后一个服务
-            if (currentService != null && state != null) {
-                if (isValidMysqlService(currentService, displayName, null)) {
-                    String binPath = getServiceBinPath(currentService);
-                    result.add(new ServiceInfo(currentService, state, binPath, displayName));
-                }
+        List<ServiceInfo> result = new ArrayList<>(byName.size());
+        for (ServiceInfo service : byName.values()) {
+            if (mysqldProcesses != null) {
+                // 按服务名参数或 bin 目录匹配；“运行中”却匹配不到进程说明服务状态已过期
+                service = service.withProcess(MysqldProcesses.findFor(service, mysqldProcesses));
             }
+            result.add(service);
+        }
+        return result;
+    }
 
+    // 使用SC命令查找服务
+    private static List<ServiceInfo> findServicesWithSC() {
+        try {
+            ProcessResult query = ProcessRunner.getDefault().run(
+                    ProcessCommand.shell("sc query type= service state= all").setTimeout(QUERY_TIMEOUT));
+            List<ServiceInfo> services = ScQueryParser.parse(query.getOutput(), name -> null);
+            return withBinPaths(services);
         } catch (Exception e) {
             System.err.println("使用SC命令查找服务时出错: " + e.getMessage());
         }
-        return result;
+        return new ArrayList<>();
+    }
+
+    // 解析 sc query 输出，binPathLookup 按服务名查询 bin 目录（基准测试中传入不查询的实现）
+    static List<ServiceInfo> parseScQuery(BufferedReader reader, Function<String, String> binPathLookup) throws IOException {
+        return ScQueryParser.parse(reader, binPathLookup);
     }
 
     // 使用WMIC查找MySQL服务
     private static List<ServiceInfo> findServicesWithWMIC() {
         List<ServiceInfo> result = new ArrayList<>();
         try {
-            Process process = new ProcessBuilder("cmd.exe", "/c",
-                    "wmic service where \"name like '%mysql%' or displayname like '%mysql%' or pathname like '%mysql%'\" get name, displayname, state, pathname /format:csv").start();
-
-            BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream(), "GBK"));
-            String line;
-            boolean firstLine = true;
+            ProcessResult query = ProcessRunner.getDefault().run(ProcessCommand.shell(
+                    "wmic service where \"name like '%mysql%' or displayname like '%mysql%' or pathname like '%mysql%'\" get name, displayname, state, pathname /format:csv")
+                    .setTimeout(QUERY_TIMEOUT));
 
-            while ((line = reader.readLine()) != null) {
-                line = line.trim();
-                if (line.isEmpty()) continue;
+            result = parseWmicCsv(query.getOutput());
+        } catch (Exception e) {
+            System.err.println("使用WMIC查找服务时出错: " + e.getMessage());
+        }
+        return result;
+    }
 
-                if (firstLine) {
-                    firstLine = false;
-                    continue; // 跳过标题行
+    // wmic /format:csv 的列顺序由 wmic 决定（Node,DisplayName,Name,PathName,State），按标题行定位各列；
+    // 路径中可能含逗号，多出的字段都归入 PathName
+    static List<ServiceInfo> parseWmicCsv(String output) {
+        List<ServiceInfo> result = new ArrayList<>();
+        String[] header = null;
+        int nameCol = 0, displayCol = 1, stateCol = 2, pathCol = 3;
+
+        for (String line : output.split("\r?\n")) {
+            line = line.trim();
+            if (line.isEmpty()) continue;
+
+            String[] parts = line.split(",", -1);
+            if (header == null) {
+                header = parts;
+                for (int i = 0; i < header.length; i++) {
+                    String column = header[i].trim();
+                    if (column.equalsIgnoreCase("Name")) nameCol = i;
+                    else if (column.equalsIgnoreCase("DisplayName")) displayCol = i;
+                    else if (column.equalsIgnoreCase("State")) stateCol = i;
+                    else if (column.equalsIgnoreCase("PathName")) pathCol = i;
                 }
+                continue; // 跳过标题行
+            }
 
-                String[] parts = line.split(",");
-                if (parts.length >= 4) {
-                    String name = parts[0].trim();
-                    String displayName = parts[1].trim();
-                    String state = parts[2].trim().equalsIgnoreCase("Running") ? "正在运行" : "已停止";
-                    String pathname = parts[3].trim();
-
-                    // 进一步验证这是否真的是MySQL服务
-                    if (isValidMysqlService(name, displayName, pathname)) {
-                        String binPath = extractBinPath(pathname);
-                        result.add(new ServiceInfo(name, state, binPath, displayName));
-                    }
-                }
+            int extra = parts.length - header.length;
+            if (extra < 0 || parts.length < 4) continue;
+            String pathname = String.join(",", Arrays.copyOfRange(parts, pathCol, pathCol + extra + 1)).trim();
+            String name = parts[column(nameCol, pathCol, extra)].trim();
+            String displayName = parts[column(displayCol, pathCol, extra)].trim();
+            String state = parts[column(stateCol, pathCol, extra)].trim().equalsIgnoreCase("Running") ? "正在运行" : "已停止";
+
+            // 进一步验证这是否真的是MySQL服务
+            if (isValidMysqlService(name, displayName, pathname)) {
+                String binPath = extractBinPath(pathname);
+                result.add(new ServiceInfo(name, state, binPath, displayName));
             }
-        } catch (Exception e) {
-            System.err.println("使用WMIC查找服务时出错: " + e.getMessage());
         }
         return result;
     }
 
+    // PathName 之后的列因路径中的逗号整体后移
+    private static int column(int index, int pathCol, int extra) {
+        return index > pathCol ? index + extra : index;
+    }
+
     // 通过进程查找MySQL服务
     private static List<ServiceInfo> findServicesByProcess() {
+        return servicesFromProcesses(listMysqldProcesses());
+    }
+
+    // 没有注册为服务的 mysqld（如手动启动的实例），每个进程生成一个虚拟的服务信息
+    private static List<ServiceInfo> servicesFromProcesses(List<MysqldProcesses.MysqldProcess> processes) {
         List<ServiceInfo> result = new ArrayList<>();
+        for (MysqldProcesses.MysqldProcess process : processes) {
+            String binPath = process.getBinDir() != null ? process.getBinDir().toString() : null;
+            result.add(new ServiceInfo("MySQL (进程 " + process.getPid() + ")", "正在运行", binPath, "MySQL (从进程检测)")
+                    .withProcess(process));
+        }
+        return result;
+    }
+
+    private static List<MysqldProcesses.MysqldProcess> listMysqldProcesses() {
         try {
-            // 查找mysqld进程
-            Process process = new ProcessBuilder("cmd.exe", "/c", "tasklist /fi \"imagename eq mysqld.exe\" /fo csv /nh").start();
-            BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream(), "GBK"));
-
-            String line;
-            while ((line = reader.readLine()) != null) {
-                line = line.trim();
-                if (line.isEmpty() || !line.contains("mysqld.exe")) continue;
-
-                // 找到mysqld进程，创建一个虚拟的服务信息
-                result.add(new ServiceInfo("MySQL (进程)", "正在运行", null, "MySQL (从进程检测)"));
-                break;
-            }
+            return MysqldProcesses.list();
         } catch (Exception e) {
             System.err.println("通过进程查找服务时出错: " + e.getMessage());
+            return new ArrayList<>();
         }
-        return result;
     }
 
-    // 验证是否为有效的MySQL服务
-    private static boolean isValidMysqlService(String serviceName, String displayName, String pathname) {
+    // 验证是否为有效的MySQL服务：排除 MySQL 的周边组件和计算机名前缀，服务名、显示名或路径中含 mysql 即可
+    // 直接在原字符串上不区分大小写地比较，不创建小写副本
+    static boolean isValidMysqlService(String serviceName, String displayName, String pathname) {
         if (serviceName == null) return false;
+        if (ScQueryParser.isExcludedName(serviceName, 0, serviceName.length())) return false;
+
+        return ScQueryParser.containsMysql(serviceName, 0, serviceName.length())
+                || (displayName != null && ScQueryParser.containsMysql(displayName, 0, displayName.length()))
+                || (pathname != null && ScQueryParser.containsMysql(pathname, 0, pathname.length()));
+    }
 
-        String lowerServiceName = serviceName.toLowerCase();
-        String lowerDisplayName = (displayName != null) ? displayName.toLowerCase() : "";
-        String lowerPathname = (pathname != null) ? pathname.toLowerCase() : "";
+    // 为 sc query 找到的服务补上 bin 目录，所有服务的 sc qc 合并成一到几次进程调用
+    private static List<ServiceInfo> withBinPaths(List<ServiceInfo> services) {
+        List<String> names = new ArrayList<>();
+        for (ServiceInfo service : services) names.add(service.getName());
+        Map<String, String> commandLines = getServiceCommandLines(names);
 
-        // 排除明显不是MySQL服务的名称
-        if (lowerServiceName.equals("mysqlrouter") ||
-                lowerServiceName.equals("mysqlnotifier") ||
-                lowerServiceName.equals("mysqlinstaller") ||
-                lowerServiceName.equals("mysqlworkbench")) {
-            return false;
+        List<ServiceInfo> result = new ArrayList<>(services.size());
+        for (ServiceInfo service : services) {
+            String binPath = extractBinPath(commandLines.get(service.getName()));
+            result.add(new ServiceInfo(service.getName(), service.getState(), binPath, service.getDisplayName()));
         }
+        return result;
+    }
 
-        // 检查服务名称、显示名称或路径是否包含MySQL相关关键词
-        boolean isMysql = lowerServiceName.contains("mysql") ||
-                lowerDisplayName.contains("mysql") ||
-                lowerPathname.contains("mysql") ||
-                lowerServiceName.contains("mysqld") ||
-                lowerDisplayName.contains("mysqld") ||
-                lowerPathname.contains("mysqld");
+    // 获取服务完整的启动命令行（sc qc 输出中 BINARY_PATH_NAME 的原文）
+    public static String getServiceCommandLine(String serviceName) {
+        return getServiceCommandLines(List.of(serviceName)).get(serviceName);
+    }
 
-        // 排除计算机名等误判
-        if (isMysql) {
-            // 检查服务名称是否看起来像计算机名（不包含mysql但被误判）
-            if (lowerServiceName.length() > 12 && !lowerServiceName.contains("mysql") &&
-                    !lowerDisplayName.contains("mysql") && !lowerPathname.contains("mysql")) {
-                return false;
+    // 批量获取启动命令行：多个 "sc qc" 用 & 串在同一条 cmd 命令里，超长时分批并发执行
+    // 返回的 Map 键不区分大小写；查询失败的服务不在结果中
+    public static Map<String, String> getServiceCommandLines(Collection<String> serviceNames) {
+        Map<String, String> result = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        if (serviceNames.isEmpty()) return result;
+
+        // 8192 为返回缓冲区大小，默认缓冲区放不下较长的 BINARY_PATH_NAME
+        List<CompletableFuture<ProcessResult>> batches = startBatched(serviceNames, name -> "sc qc \"" + name + "\" 8192");
+        for (CompletableFuture<ProcessResult> future : batches) {
+            try {
+                parseScQc(new BufferedReader(new StringReader(future.join().getOutput())), result);
+            } catch (Exception e) {
+                System.err.println("获取服务详情时出错: " + e.getMessage());
             }
+        }
+        return result;
+    }
 
-            // 检查服务名称是否包含常见计算机名前缀
-            if (lowerServiceName.startsWith("desktop-") ||
-                    lowerServiceName.startsWith("win-") ||
-                    lowerServiceName.startsWith("pc-")) {
-                return false;
+    // 只查询指定服务的当前状态（批量 sc query），比完整的服务发现便宜得多
+    // 返回的 Map 键不区分大小写；已不存在或查询失败的服务不在结果中
+    public static Map<String, String> queryServiceStates(Collection<String> serviceNames) {
+        Map<String, String> result = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        if (serviceNames.isEmpty()) return result;
+
+        for (CompletableFuture<ProcessResult> future : startBatched(serviceNames, name -> "sc query \"" + name + "\"")) {
+            try {
+                ScQueryParser.parseStates(future.join().getOutput(), result);
+            } catch (Exception e) {
+                System.err.println("查询服务状态时出错: " + e.getMessage());
             }
         }
+        return result;
+    }
 
-        return isMysql;
+    // 轮询直到服务不再存在（sc query 查不到），超过期限返回 false
+    public static boolean waitForServiceRemoval(String serviceName, Duration timeout) throws InterruptedException {
+        return ReadinessProbe.pollUntil(() -> !queryServiceStates(List.of(serviceName)).containsKey(serviceName), timeout);
     }
 
-    // 获取服务的二进制路径
-    private static String getServiceBinPath(String serviceName) {
-        try {
-            Process p = new ProcessBuilder("cmd.exe", "/c", "sc qc \"" + serviceName + "\"").start();
-            BufferedReader reader = new BufferedReader(new InputStreamReader(p.getInputStream(), "GBK"));
-            String line;
-            while ((line = reader.readLine()) != null) {
-                line = line.trim();
-
-                if (line.startsWith("BINARY_PATH_NAME")) {
-                    String path = line.split(":", 2)[1].trim();
-                    return extractBinPath(path);
-                }
+    // 每个服务一条命令，用 & 串在同一条 cmd 命令里，超长时分批并发执行
+    private static List<CompletableFuture<ProcessResult>> startBatched(Collection<String> serviceNames,
+                                                                       Function<String, String> commandFor) {
+        List<CompletableFuture<ProcessResult>> batches = new ArrayList<>();
+        StringBuilder batch = new StringBuilder();
+        for (String name : serviceNames) {
+            String command = commandFor.apply(name);
+            if (batch.length() > 0 && batch.length() + command.length() + 3 > MAX_BATCH_COMMAND_LENGTH) {
+                batches.add(ProcessRunner.getDefault().start(ProcessCommand.shell(batch.toString()).setTimeout(QUERY_TIMEOUT)));
+                batch.setLength(0);
+            }
+            if (batch.length() > 0) batch.append(" & ");
+            batch.append(command);
+        }
+        batches.add(ProcessRunner.getDefault().start(ProcessCommand.shell(batch.toString()).setTimeout(QUERY_TIMEOUT)));
+        return batches;
+    }
+
+    // 解析一段或多段 sc qc 输出，每段以 SERVICE_NAME 开头
+    static void parseScQc(BufferedReader reader, Map<String, String> commandLines) throws IOException {
+        String line;
+        String currentService = null;
+        while ((line = reader.readLine()) != null) {
+            line = line.trim();
+            if (line.startsWith("SERVICE_NAME")) {
+                currentService = line.split(":", 2)[1].trim();
+            } else if (currentService != null && line.startsWith("BINARY_PATH_NAME")) {
+                commandLines.put(currentService, line.split(":", 2)[1].trim());
+                currentService = null;
             }
-        } catch (Exception e) {
-            System.err.println("获取服务详情时出错: " + e.getMessage());
         }
-        return null;
     }
 
     // 从完整路径中提取可执行文件路径
-    private static String extractBinPath(String pathname) {
+    static String extractBinPath(String pathname) {
         if (pathname == null || pathname.isEmpty()) {
             return null;
         }
@@ -280,37 +483,24 @@ public class WindowsServiceChecker {
     public static boolean startStopService(String serviceName, boolean start, StringBuilder log) {
         try {
             String command = start ? "net start \"" + serviceName + "\"" : "net stop \"" + serviceName + "\"";
-            Process process = new ProcessBuilder("cmd.exe", "/c", command).start();
-
-            // 读取命令输出
-            StringBuilder output = new StringBuilder();
-            try (BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream(), "GBK"))) {
-                String line;
-                while ((line = reader.readLine()) != null) {
-                    output.append(line).append("\n");
-                }
-            }
+            ProcessResult result = ProcessRunner.getDefault().run(
+                    ProcessCommand.shell(command).setTimeout(SERVICE_CONTROL_TIMEOUT));
 
-            int exitCode = process.waitFor();
-
-            if (exitCode == 0) {
+            if (result.isSuccess()) {
                 log.append("✅ ").append(start ? "启动" : "停止").append("服务成功: ").append(serviceName).append("\n");
                 return true;
             } else {
                 log.append("❌ ").append(start ? "启动" : "停止").append("服务失败: ").append(serviceName).append("\n");
-                log.append("错误输出: ").append(output.toString()).append("\n");
+                if (result.isTimedOut()) {
+                    log.append("⏱ 命令超时 (").append(SERVICE_CONTROL_TIMEOUT.getSeconds()).append(" 秒)\n");
+                }
+                log.append("错误输出: ").append(result.getOutput()).append("\n");
 
                 // 如果是启动失败，尝试使用SC命令获取更多信息
                 if (start) {
-                    Process scProcess = new ProcessBuilder("cmd.exe", "/c", "sc query \"" + serviceName + "\"").start();
-                    StringBuilder scOutput = new StringBuilder();
-                    try (BufferedReader scReader = new BufferedReader(new InputStreamReader(scProcess.getInputStream(), "GBK"))) {
-                        String line;
-                        while ((line = scReader.readLine()) != null) {
-                            scOutput.append(line).append("\n");
-                        }
-                    }
-                    log.append("服务状态详情: \n").append(scOutput.toString()).append("\n");
+                    ProcessResult sc = ProcessRunner.getDefault().run(
+                            ProcessCommand.shell("sc query \"" + serviceName + "\"").setTimeout(QUERY_TIMEOUT));
+                    log.append("服务状态详情: \n").append(sc.getOutput()).append("\n");
                 }
 
                 return false;
@@ -325,32 +515,24 @@ public class WindowsServiceChecker {
     public static boolean tryAutoStartMysqlService(String serviceName, StringBuilder log) {
         try {
             // 检查服务是否存在
-            Process checkProcess = new ProcessBuilder("cmd.exe", "/c", "sc query \"" + serviceName + "\"").start();
-            int exitCode = checkProcess.waitFor();
+            ProcessResult check = ProcessRunner.getDefault().run(
+                    ProcessCommand.shell("sc query \"" + serviceName + "\"").setTimeout(QUERY_TIMEOUT));
 
-            if (exitCode != 0) {
+            if (!check.isSuccess()) {
                 log.append("❌ 服务不存在: ").append(serviceName).append("\n");
                 return false;
             }
 
             // 尝试启动服务
-            Process startProcess = new ProcessBuilder("cmd.exe", "/c", "net start \"" + serviceName + "\"").start();
-            int startExitCode = startProcess.waitFor();
+            ProcessResult startResult = ProcessRunner.getDefault().run(
+                    ProcessCommand.shell("net start \"" + serviceName + "\"").setTimeout(SERVICE_CONTROL_TIMEOUT));
 
-            if (startExitCode == 0) {
+            if (startResult.isSuccess()) {
                 log.append("✅ 服务启动成功: ").append(serviceName).append("\n");
                 return true;
             } else {
-                // 读取错误输出
-                StringBuilder errorOutput = new StringBuilder();
-                try (BufferedReader reader = new BufferedReader(new InputStreamReader(startProcess.getInputStream(), "GBK"))) {
-                    String line;
-                    while ((line = reader.readLine()) != null) {
-                        errorOutput.append(line).append("\n");
-                    }
-                }
                 log.append("❌ 服务启动失败: ").append(serviceName).append("\n");
-                log.append("错误信息: ").append(errorOutput.toString()).append("\n");
+                log.append("错误信息: ").append(startResult.getOutput()).append("\n");
                 return false;
             }
         } catch (Exception e) {
@@ -370,14 +552,13 @@ public class WindowsServiceChecker {
             if (service.getBinPath() != null) {
                 File mysqldExe = new File(service.getBinPath(), "mysqld.exe");
                 if (mysqldExe.exists()) {
-                    Process removeProcess = new ProcessBuilder(
+                    ProcessResult remove = ProcessRunner.getDefault().run(ProcessCommand.of(
                             mysqldExe.getAbsolutePath(),
                             "--remove",
                             service.getName()
-                    ).start();
+                    ).setTimeout(QUERY_TIMEOUT));
 
-                    int removeExitCode = removeProcess.waitFor();
-                    if (removeExitCode == 0) {
+                    if (remove.isSuccess()) {
                         log.append("✅ 使用MySQL自带工具卸载服务成功: ").append(service.getName()).append("\n");
                         return true;
                     }
@@ -394,10 +575,10 @@ public class WindowsServiceChecker {
             }
 
             // 删除服务
-            Process deleteProcess = new ProcessBuilder("cmd.exe", "/c", "sc delete \"" + service.getName() + "\"").start();
-            int deleteExitCode = deleteProcess.waitFor();
+            ProcessResult delete = ProcessRunner.getDefault().run(
+                    ProcessCommand.shell("sc delete \"" + service.getName() + "\"").setTimeout(QUERY_TIMEOUT));
 
-            if (deleteExitCode == 0) {
+            if (delete.isSuccess()) {
                 log.append("✅ 服务删除成功: ").append(service.getName()).append("\n");
                 return true;
             } else {
@@ -411,7 +592,8 @@ public class WindowsServiceChecker {
         }
     }
 
-    public static void deleteInstallDir(ServiceInfo service, StringBuilder log) {
+    // commandLine 为卸载前取得的服务命令行（sc qc 的 BINARY_PATH_NAME），用于找到 --defaults-file
+    public static void deleteInstallDir(ServiceInfo service, String commandLine, StringBuilder log) {
         String binPath = service.getBinPath();
         if (binPath == null) {
             log.append("⚠️ 未找到服务对应安装目录\n");
@@ -421,6 +603,24 @@ public class WindowsServiceChecker {
         File binDir = new File(binPath);
         File installDir = binDir.getParentFile();
 
+        // 批量安装的实例：my.ini 和数据目录在共享程序目录之外，只删除实例目录；
+        // 程序目录仍被其他服务使用时保留
+        Path defaultsFile = extractDefaultsFile(commandLine);
+        if (defaultsFile != null && defaultsFile.getParent() != null
+                && !defaultsFile.toAbsolutePath().startsWith(installDir.toPath().toAbsolutePath())) {
+            File instanceDir = defaultsFile.getParent().toFile();
+            if (instanceDir.exists() && isLikelyMysqlDir(instanceDir)) {
+                deleteDirectory(instanceDir, log);
+                deleteIfEmpty(defaultsFile.getParent().getParent(), log);
+            }
+            List<String> sharing = servicesUsingBinPath(binPath, service.getName());
+            if (!sharing.isEmpty()) {
+                log.append("ℹ️ 程序目录仍被 ").append(String.join("、", sharing)).append(" 使用，保留: ")
+                        .append(installDir.getAbsolutePath()).append("\n");
+                return;
+            }
+        }
+
         try {
             if (!installDir.exists()) {
                 log.append("⚠️ 目录不存在: ").append(installDir.getAbsolutePath()).append("\n");
@@ -440,11 +640,11 @@ public class WindowsServiceChecker {
                 log.append("⚠️ 正常删除失败，尝试强制删除...\n");
 
                 // 使用命令行强制删除
-                Process process = new ProcessBuilder("cmd.exe", "/c",
-                        "rd /s /q \"" + installDir.getAbsolutePath() + "\"").start();
-                int exitCode = process.waitFor();
+                ProcessResult rd = ProcessRunner.getDefault().run(
+                        ProcessCommand.shell("rd /s /q \"" + installDir.getAbsolutePath() + "\"")
+                                .setTimeout(Duration.ofMinutes(5)));
 
-                if (exitCode == 0) {
+                if (rd.isSuccess()) {
                     log.append("✅ 强制删除成功: ").append(installDir.getAbsolutePath()).append("\n");
                 } else {
                     log.append("❌ 强制删除也失败: ").append(installDir.getAbsolutePath()).append("\n");
@@ -461,6 +661,50 @@ public class WindowsServiceChecker {
         }
     }
 
+    // --defaults-file="C:\...\my.ini" 或 --defaults-file=C:\...\my.ini
+    static Path extractDefaultsFile(String commandLine) {
+        if (commandLine == null) return null;
+        int index = commandLine.toLowerCase().indexOf("--defaults-file=");
+        if (index < 0) return null;
+        int start = index + "--defaults-file=".length();
+        int end;
+        if (start < commandLine.length() && commandLine.charAt(start) == '"') {
+            start++;
+            end = commandLine.indexOf('"', start);
+            if (end < 0) end = commandLine.length();
+        } else {
+            end = start;
+            while (end < commandLine.length() && !Character.isWhitespace(commandLine.charAt(end))) end++;
+        }
+        if (end <= start) return null;
+        try {
+            return Paths.get(commandLine.substring(start, end));
+        } catch (InvalidPathException e) {
+            return null;
+        }
+    }
+
+    // 服务列表中除 exclude 外使用同一 bin 目录的服务
+    private static List<String> servicesUsingBinPath(String binPath, String exclude) {
+        List<String> names = new ArrayList<>();
+        for (ServiceInfo other : ServiceRegistry.getDefault().peek()) {
+            if (!other.getName().equalsIgnoreCase(exclude) && binPath.equalsIgnoreCase(other.getBinPath())) {
+                names.add(other.getName());
+            }
+        }
+        return names;
+    }
+
+    private static void deleteIfEmpty(Path dir, StringBuilder log) {
+        if (dir == null) return;
+        try (DirectoryStream<Path> children = Files.newDirectoryStream(dir)) {
+            if (children.iterator().hasNext()) return;
+        } catch (IOException e) {
+            return;
+        }
+        deleteDirectory(dir.toFile(), log);
+    }
+
     private static boolean isLikelyMysqlDir(File dir) {
         // 检查目录是否包含典型的MySQL文件和目录
         File binDir = new File(dir, "bin");
@@ -486,6 +730,8 @@ public class WindowsServiceChecker {
             }
         }
 
+        // 从发行包缓存硬链接过来的文件是只读的，Windows 上要先去掉只读属性才能删除
+        if (dir.isFile() && !dir.canWrite()) dir.setWritable(true);
         boolean deleted = dir.delete();
         if (deleted) {
             log.append("🗑 删除: ").append(dir.getAbsolutePath()).append("\n");
@@ -498,8 +744,8 @@ public class WindowsServiceChecker {
     private static void removeFromPath(String pathToRemove, StringBuilder log) {
         try {
             // 获取系统PATH
-            Process getPath = new ProcessBuilder("cmd.exe", "/c", "echo %PATH%").start();
-            String path = new BufferedReader(new InputStreamReader(getPath.getInputStream(), "GBK")).readLine();
+            ProcessResult echo = ProcessRunner.getDefault().run(ProcessCommand.shell("echo %PATH%").setTimeout(QUERY_TIMEOUT));
+            String path = echo.lines().isEmpty() ? null : echo.lines().get(0);
 
             if (path == null || path.isEmpty()) {
                 log.append("⚠️ 无法获取PATH环境变量\n");
@@ -524,11 +770,10 @@ public class WindowsServiceChecker {
 
             if (found) {
                 // 更新PATH
-                Process setPath = new ProcessBuilder("cmd.exe", "/c",
-                        "setx PATH \"" + newPath.toString() + "\" /M").start();
-                int exitCode = setPath.waitFor();
+                ProcessResult setx = ProcessRunner.getDefault().run(
+                        ProcessCommand.shell("setx PATH \"" + newPath.toString() + "\" /M").setTimeout(QUERY_TIMEOUT));
 
-                if (exitCode == 0) {
+                if (setx.isSuccess()) {
                     log.append("✅ 已从 PATH 移除: ").append(pathToRemove).append("\n");
                 } else {
                     log.append("❌ 更新PATH失败\n");
@@ -544,8 +789,8 @@ public class WindowsServiceChecker {
     public static boolean isAdmin() {
         try {
             // 使用更可靠的管理员权限检查方法
-            Process p = new ProcessBuilder("cmd.exe", "/c", "net session >nul 2>&1").start();
-            return p.waitFor() == 0;
+            return ProcessRunner.getDefault().run(
+                    ProcessCommand.shell("net session >nul 2>&1").setTimeout(Duration.ofSeconds(5))).isSuccess();
         } catch (Exception e) {
             return false;
         }
@@ -0,0 +1,173 @@
+package com.example.mysqlautoin;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+// 直接读取 ZIP 中央目录，拿到 java.util.zip 不暴露的本地文件头偏移，供零拷贝写出使用
+public class ZipCentralDirectory {
+
+    public static final int METHOD_STORED = 0;
+    public static final int METHOD_DEFLATED = 8;
+
+    private static final int EOCD_SIG = 0x06054b50;
+    private static final int ZIP64_EOCD_LOCATOR_SIG = 0x07064b50;
+    private static final int ZIP64_EOCD_SIG = 0x06064b50;
+    private static final int CEN_SIG = 0x02014b50;
+    private static final int LOC_SIG = 0x04034b50;
+
+    private static final int EOCD_SIZE = 22;
+    private static final int CEN_SIZE = 46;
+    static final int LOC_SIZE = 30;
+    private static final long ZIP64_MAGIC = 0xFFFFFFFFL;
+
+    public static class Entry {
+        private final String name;
+        private final int method;
+        private final int flags;
+        private final long crc;
+        private final long compressedSize;
+        private final long size;
+        private final long localHeaderOffset;
+
+        public Entry(String name, int method, int flags, long crc, long compressedSize, long size, long localHeaderOffset) {
+            this.name = name;
+            this.method = method;
+            this.flags = flags;
+            this.crc = crc;
+            this.compressedSize = compressedSize;
+            this.size = size;
+            this.localHeaderOffset = localHeaderOffset;
+        }
+
+        public String getName() { return name; }
+        public int getMethod() { return method; }
+        public long getCrc() { return crc; }
+        public long getCompressedSize() { return compressedSize; }
+        public long getSize() { return size; }
+        public long getLocalHeaderOffset() { return localHeaderOffset; }
+        public boolean isDirectory() { return name.endsWith("/"); }
+        public boolean isEncrypted() { return (flags & 1) != 0; }
+
+        @Override
+        public String toString() {
+            return name + " (" + size + " bytes)";
+        }
+    }
+
+    public static List<Entry> read(FileChannel channel) throws IOException {
+        long fileSize = channel.size();
+        if (fileSize < EOCD_SIZE) {
+            throw new IOException("不是有效的 ZIP 文件: 文件过小");
+        }
+
+        // 从文件尾部向前查找中央目录结束记录（注释最长 65535 字节）
+        int tailSize = (int) Math.min(fileSize, EOCD_SIZE + 0xFFFF);
+        ByteBuffer tail = readFully(channel, fileSize - tailSize, tailSize);
+        int eocd = -1;
+        for (int i = tailSize - EOCD_SIZE; i >= 0; i--) {
+            if (tail.getInt(i) == EOCD_SIG) {
+                eocd = i;
+                break;
+            }
+        }
+        if (eocd < 0) {
+            throw new IOException("不是有效的 ZIP 文件: 未找到中央目录");
+        }
+
+        long total = Short.toUnsignedInt(tail.getShort(eocd + 10));
+        long cenSize = Integer.toUnsignedLong(tail.getInt(eocd + 12));
+        long cenOffset = Integer.toUnsignedLong(tail.getInt(eocd + 16));
+
+        // ZIP64：真实数值在 ZIP64 中央目录结束记录中
+        if ((total == 0xFFFF || cenSize == ZIP64_MAGIC || cenOffset == ZIP64_MAGIC) && eocd >= 20
+                && tail.getInt(eocd - 20) == ZIP64_EOCD_LOCATOR_SIG) {
+            long zip64Eocd = tail.getLong(eocd - 20 + 8);
+            ByteBuffer z = readFully(channel, zip64Eocd, 56);
+            if (z.getInt(0) != ZIP64_EOCD_SIG) {
+                throw new IOException("ZIP64 中央目录结束记录损坏");
+            }
+            total = z.getLong(32);
+            cenSize = z.getLong(40);
+            cenOffset = z.getLong(48);
+        }
+
+        if (cenSize > Integer.MAX_VALUE) {
+            throw new IOException("中央目录过大: " + cenSize);
+        }
+        ByteBuffer cen = readFully(channel, cenOffset, (int) cenSize);
+        List<Entry> entries = new ArrayList<>((int) Math.min(total, 1 << 16));
+        int pos = 0;
+        while (pos + CEN_SIZE <= cen.limit()) {
+            if (cen.getInt(pos) != CEN_SIG) {
+                throw new IOException("中央目录条目损坏，偏移: " + (cenOffset + pos));
+            }
+            int flags = Short.toUnsignedInt(cen.getShort(pos + 8));
+            int method = Short.toUnsignedInt(cen.getShort(pos + 10));
+            long crc = Integer.toUnsignedLong(cen.getInt(pos + 16));
+            long compressedSize = Integer.toUnsignedLong(cen.getInt(pos + 20));
+            long size = Integer.toUnsignedLong(cen.getInt(pos + 24));
+            int nameLen = Short.toUnsignedInt(cen.getShort(pos + 28));
+            int extraLen = Short.toUnsignedInt(cen.getShort(pos + 30));
+            int commentLen = Short.toUnsignedInt(cen.getShort(pos + 32));
+            long offset = Integer.toUnsignedLong(cen.getInt(pos + 42));
+
+            byte[] nameBytes = new byte[nameLen];
+            cen.get(pos + CEN_SIZE, nameBytes);
+            String name = new String(nameBytes, StandardCharsets.UTF_8);
+
+            // ZIP64 扩展字段只包含被置为 0xFFFFFFFF 的那几个值，且顺序固定
+            int extra = pos + CEN_SIZE + nameLen;
+            int extraEnd = extra + extraLen;
+            while (extra + 4 <= extraEnd) {
+                int id = Short.toUnsignedInt(cen.getShort(extra));
+                int len = Short.toUnsignedInt(cen.getShort(extra + 2));
+                if (id == 0x0001) {
+                    int p = extra + 4;
+                    if (size == ZIP64_MAGIC) { size = cen.getLong(p); p += 8; }
+                    if (compressedSize == ZIP64_MAGIC) { compressedSize = cen.getLong(p); p += 8; }
+                    if (offset == ZIP64_MAGIC) { offset = cen.getLong(p); }
+                    break;
+                }
+                extra += 4 + len;
+            }
+
+            entries.add(new Entry(name, method, flags, crc, compressedSize, size, offset));
+            pos += CEN_SIZE + nameLen + extraLen + commentLen;
+        }
+        return entries;
+    }
+
+    // 本地文件头的扩展字段长度可能与中央目录不同，只能读取本地头计算数据起点
+    public static long dataOffset(FileChannel channel, Entry entry) throws IOException {
+        return dataOffset(entry, readFully(channel, entry.getLocalHeaderOffset(), LOC_SIZE));
+    }
+
+    // loc 为已读出的 LOC_SIZE 字节本地文件头
+    static long dataOffset(Entry entry, ByteBuffer loc) throws IOException {
+        loc.order(ByteOrder.LITTLE_ENDIAN);
+        if (loc.getInt(0) != LOC_SIG) {
+            throw new IOException("本地文件头损坏: " + entry.getName());
+        }
+        int nameLen = Short.toUnsignedInt(loc.getShort(26));
+        int extraLen = Short.toUnsignedInt(loc.getShort(28));
+        return entry.getLocalHeaderOffset() + LOC_SIZE + nameLen + extraLen;
+    }
+
+    private static ByteBuffer readFully(FileChannel channel, long position, int length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(length).order(ByteOrder.LITTLE_ENDIAN);
+        while (buffer.hasRemaining()) {
+            int n = channel.read(buffer, position + buffer.position());
+            if (n < 0) {
+                throw new EOFException("ZIP 文件意外结束，偏移: " + (position + buffer.position()));
+            }
+        }
+        buffer.flip();
+        return buffer;
+    }
+}
@@ -0,0 +1,197 @@
+package com.example.mysqlautoin;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+// 解压的 I/O 层：STORED 条目走 FileChannel.transferTo 零拷贝，DEFLATED 条目在池化的直接缓冲区中解压
+public class ZipEntryWriter {
+
+    public static final int DEFAULT_BUFFER_SIZE = 1024 * 1024;
+
+    // 超过该大小的目标文件先预分配长度，减少文件系统反复扩展
+    private static final long PREALLOCATE_THRESHOLD = 8L * 1024 * 1024;
+
+    private static final ThreadLocal<Inflater> INFLATERS = ThreadLocal.withInitial(() -> new Inflater(true));
+
+    private final FileChannel source;
+    private final DirectBufferPool bufferPool;
+
+    public ZipEntryWriter(FileChannel source, DirectBufferPool bufferPool) {
+        this.source = source;
+        this.bufferPool = bufferPool;
+    }
+
+    public static boolean supports(ZipCentralDirectory.Entry entry) {
+        return !entry.isEncrypted() && (entry.getMethod() == ZipCentralDirectory.METHOD_STORED
+                || entry.getMethod() == ZipCentralDirectory.METHOD_DEFLATED);
+    }
+
+    // 将条目写到目标文件，返回写出的字节数
+    public long write(ZipCentralDirectory.Entry entry, Path target) throws IOException {
+        return write(entry, null, target);
+    }
+
+    // data 为已经读入内存的压缩数据（本地文件头之后、长度为压缩大小），为 null 时从压缩包中读取
+    public long write(ZipCentralDirectory.Entry entry, ByteBuffer data, Path target) throws IOException {
+        if (Thread.currentThread().isInterrupted()) {
+            throw new InterruptedIOException("解压已取消: " + entry.getName());
+        }
+        long dataOffset = data == null ? ZipCentralDirectory.dataOffset(source, entry) : -1;
+        // 目标可能是指向缓存或其他安装的硬链接，先断开再新建，不能原地改写共用的文件
+        FileTrees.deleteFile(target);
+        try (RandomAccessFile raf = new RandomAccessFile(target.toFile(), "rw")) {
+            if (entry.getSize() >= PREALLOCATE_THRESHOLD) {
+                raf.setLength(entry.getSize());
+            } else {
+                raf.setLength(0);
+            }
+            FileChannel out = raf.getChannel();
+            long written;
+            if (entry.getMethod() == ZipCentralDirectory.METHOD_STORED) {
+                written = data != null ? writeStored(entry, data, out) : transferStored(entry, dataOffset, out);
+            } else {
+                written = inflate(entry, dataOffset, data, out);
+            }
+            if (written != entry.getSize()) {
+                throw new IOException("条目大小不一致: " + entry.getName() + "，期望 " + entry.getSize() + "，实际 " + written);
+            }
+            return written;
+        }
+    }
+
+    // 断点续传时判断磁盘上已有文件是否完好：大小一致且 CRC32 与中央目录记录相同
+    public boolean isIntact(ZipCentralDirectory.Entry entry, Path target) throws IOException {
+        if (!Files.isRegularFile(target) || Files.size(target) != entry.getSize()) {
+            return false;
+        }
+        try (FileChannel in = FileChannel.open(target, StandardOpenOption.READ)) {
+            return crc(in, entry.getSize()) == entry.getCrc();
+        }
+    }
+
+    // 从头读取 channel 中 size 字节计算 CRC32
+    private long crc(FileChannel channel, long size) throws IOException {
+        ByteBuffer buf = bufferPool.acquire();
+        CRC32 crc = new CRC32();
+        long position = 0;
+        try {
+            while (position < size) {
+                if (size - position < buf.capacity()) buf.limit((int) (size - position));
+                int n = channel.read(buf, position);
+                if (n <= 0) break;
+                position += n;
+                buf.flip();
+                crc.update(buf);
+                buf.clear();
+            }
+        } finally {
+            bufferPool.release(buf);
+        }
+        return crc.getValue();
+    }
+
+    private long transferStored(ZipCentralDirectory.Entry entry, long dataOffset, FileChannel out) throws IOException {
+        long size = entry.getSize();
+        long done = 0;
+        while (done < size) {
+            long n = source.transferTo(dataOffset + done, size - done, out);
+            if (n <= 0) {
+                throw new EOFException("ZIP 文件意外结束: " + entry.getName());
+            }
+            done += n;
+        }
+        // 零拷贝不经过用户态缓冲区，无法边写边算；写完后从目标文件读回校验（刚写入的数据在页缓存中）
+        if (crc(out, size) != entry.getCrc()) {
+            throw new IOException("CRC 校验失败: " + entry.getName());
+        }
+        return done;
+    }
+
+    // 数据已在内存中，先校验再写出，损坏的内容不落盘
+    private static long writeStored(ZipCentralDirectory.Entry entry, ByteBuffer data, FileChannel out) throws IOException {
+        CRC32 crc = new CRC32();
+        crc.update(data.duplicate());
+        if (crc.getValue() != entry.getCrc()) {
+            throw new IOException("CRC 校验失败: " + entry.getName());
+        }
+        long written = 0;
+        while (data.hasRemaining()) {
+            written += out.write(data);
+        }
+        return written;
+    }
+
+    private long inflate(ZipCentralDirectory.Entry entry, long dataOffset, ByteBuffer data, FileChannel out) throws IOException {
+        Inflater inflater = INFLATERS.get();
+        inflater.reset();
+        ByteBuffer in = data == null ? bufferPool.acquire() : null;
+        ByteBuffer buf = bufferPool.acquire();
+        CRC32 crc = new CRC32();
+        long position = dataOffset;
+        long remaining = data == null ? entry.getCompressedSize() : 0;
+        long written = 0;
+        try {
+            if (data != null) {
+                inflater.setInput(data);
+            } else {
+                in.limit(0);
+            }
+            while (!inflater.finished()) {
+                if (inflater.needsInput()) {
+                    if (remaining <= 0) {
+                        throw new EOFException("压缩数据不完整: " + entry.getName());
+                    }
+                    in.clear();
+                    if (remaining < in.capacity()) in.limit((int) remaining);
+                    int n = source.read(in, position);
+                    if (n < 0) {
+                        throw new EOFException("ZIP 文件意外结束: " + entry.getName());
+                    }
+                    position += n;
+                    remaining -= n;
+                    in.flip();
+                    inflater.setInput(in);
+                }
+                inflater.inflate(buf);
+                if (inflater.needsDictionary()) {
+                    throw new IOException("不支持带预置字典的压缩条目: " + entry.getName());
+                }
+                if (!buf.hasRemaining() || inflater.finished()) {
+                    written += flush(buf, crc, out);
+                }
+            }
+        } catch (DataFormatException e) {
+            throw new IOException("压缩数据损坏: " + entry.getName() + " (" + e.getMessage() + ")", e);
+        } finally {
+            bufferPool.release(in);
+            bufferPool.release(buf);
+        }
+
+        if (crc.getValue() != entry.getCrc()) {
+            throw new IOException("CRC 校验失败: " + entry.getName());
+        }
+        return written;
+    }
+
+    private static long flush(ByteBuffer buf, CRC32 crc, FileChannel out) throws IOException {
+        buf.flip();
+        int length = buf.remaining();
+        crc.update(buf);
+        buf.rewind();
+        while (buf.hasRemaining()) {
+            out.write(buf);
+        }
+        buf.clear();
+        return length;
+    }
+}
@@ -0,0 +1,481 @@
+package com.example.mysqlautoin;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.*;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import java.util.zip.ZipInputStream;
+
+// 基于 ZIP 中央目录的并行解压引擎：目录先行创建，文件条目按大小降序分发到工作线程池
+public class ZipExtractor implements ArchiveExtractor {
+
+    public static final int DEFAULT_WORKERS = Math.max(1, Runtime.getRuntime().availableProcessors());
+
+    // 需要校验和时，已读入内存、尚未写出的压缩数据上限
+    static final int READ_AHEAD_BYTES = 64 * 1024 * 1024;
+    private static final long MAX_BUFFERED_ENTRY = Integer.MAX_VALUE - 8;
+
+    // 所有解压（包括缓存填充和增量升级）共用的直接缓冲区：每个工作线程同时最多用两块，另有一块用于顺序读取
+    private static final DirectBufferPool BUFFER_POOL =
+            new DirectBufferPool(ZipEntryWriter.DEFAULT_BUFFER_SIZE, DEFAULT_WORKERS * 2 + 1);
+
+    private final int workers;
+    private final ExtractionProfile profile;
+    private final boolean journaled;
+
+    public ZipExtractor() {
+        this(DEFAULT_WORKERS);
+    }
+
+    public ZipExtractor(int workers) {
+        this(workers, ExtractionProfile.FULL);
+    }
+
+    public ZipExtractor(int workers, ExtractionProfile profile) {
+        this(workers, profile, false);
+    }
+
+    // journaled 为 true 时在目标目录维护解压日志，中断后重跑只解压缺失或损坏的条目
+    public ZipExtractor(int workers, ExtractionProfile profile, boolean journaled) {
+        if (workers < 1) {
+            throw new IllegalArgumentException("解压线程数必须大于 0: " + workers);
+        }
+        this.workers = workers;
+        this.profile = profile;
+        this.journaled = journaled;
+    }
+
+    public int getWorkers() { return workers; }
+    @Override
+    public ExtractionProfile getProfile() { return profile; }
+    public boolean isJournaled() { return journaled; }
+
+    public ExtractStats extract(String zipFilePath, String destDir, Consumer<String> logConsumer) throws IOException {
+        return extract(zipFilePath, destDir, null, logConsumer);
+    }
+
+    // checksum 不为空时，摘要与解压共用同一遍顺序读取（见 readInOrder）；不匹配则中止解压并回滚本次新建的内容
+    @Override
+    public ExtractStats extract(String zipFilePath, String destDir, ArchiveChecksum checksum,
+                                Consumer<String> logConsumer) throws IOException {
+        return extract(zipFilePath, destDir, checksum, null, null, logConsumer);
+    }
+
+    // 增量解压：newBase 是新版本的发行包根目录（解压到它的上级目录），baselineRoot 是旧版本的发行包根目录，
+    // CRC32 与大小都未变化的条目直接硬链接复用，只写出变化的条目
+    public ExtractStats extractDelta(String zipFilePath, Path newBase, Path baselineRoot,
+                                     Consumer<String> logConsumer) throws IOException {
+        return extract(zipFilePath, newBase.toAbsolutePath().normalize().getParent().toString(), null,
+                newBase.toAbsolutePath().normalize(), baselineRoot.toAbsolutePath().normalize(), logConsumer);
+    }
+
+    private ExtractStats extract(String zipFilePath, String destDir, ArchiveChecksum checksum, Path newBase,
+                                 Path baselineRoot, Consumer<String> logConsumer) throws IOException {
+        long start = System.nanoTime();
+        Path dest = Paths.get(destDir).toAbsolutePath().normalize();
+        AtomicLong bytes = new AtomicLong();
+        AtomicInteger resumedEntries = new AtomicInteger();
+        AtomicLong resumedBytes = new AtomicLong();
+        AtomicInteger reusedEntries = new AtomicInteger();
+        AtomicLong reusedBytes = new AtomicLong();
+        List<ZipCentralDirectory.Entry> files = new ArrayList<>();
+        ExtractionRollback rollback = new ExtractionRollback(dest);
+        int skippedEntries = 0;
+        long skippedBytes = 0;
+
+        try (FileChannel source = FileChannel.open(Paths.get(zipFilePath), StandardOpenOption.READ)) {
+            // 先按中央目录创建所有目录，避免工作线程并发创建同一父目录
+            Set<Path> dirs = new LinkedHashSet<>();
+            for (ZipCentralDirectory.Entry entry : ZipCentralDirectory.read(source)) {
+                if (!profile.accepts(entry.getName())) {
+                    if (!entry.isDirectory()) {
+                        skippedEntries++;
+                        skippedBytes += entry.getSize();
+                    }
+                    continue;
+                }
+                Path target = resolveEntry(dest, entry.getName());
+                // 增量解压与旧版本目录同级，条目只能落在新版本目录中，复用的旧文件也只能来自旧版本目录；写出任何文件之前检查
+                if (newBase != null) {
+                    if (!target.startsWith(newBase)) {
+                        throw new IOException("增量解压的条目不在新版本目录 " + newBase.getFileName() + " 中: " + entry.getName());
+                    }
+                    resolveEntry(baselineRoot, stripRoot(entry.getName()));
+                }
+                rollback.noteRoot(target);
+                if (entry.isDirectory()) {
+                    dirs.add(target);
+                } else {
+                    dirs.add(target.getParent());
+                    files.add(entry);
+                }
+            }
+            for (Path dir : dirs) {
+                rollback.createDirectories(dir);
+            }
+
+            int poolSize = Math.min(workers, Math.max(1, files.size()));
+            ZipEntryWriter writer = new ZipEntryWriter(source, BUFFER_POOL);
+            ExecutorService pool = Executors.newFixedThreadPool(poolSize, r -> {
+                Thread t = new Thread(r, "unzip-worker");
+                t.setDaemon(true);
+                return t;
+            });
+            try (FallbackReader fallback = new FallbackReader(zipFilePath);
+                 ExtractionJournal journal = journaled ? ExtractionJournal.open(dest, zipFilePath) : null) {
+                if (journal != null && journal.size() > 0) {
+                    logConsumer.accept("📒 发现未完成的解压日志，已记录 " + journal.size() + " 个条目，校验后续传\n");
+                }
+
+                // data 为已读入内存的压缩数据，为 null 时由 writer 自己从压缩包读取
+                EntryWork work = (entry, data) -> {
+                    Path target = resolveEntry(dest, entry.getName());
+                    rollback.file(target);
+                    if (journal != null && journal.isRecorded(entry) && writer.isIntact(entry, target)) {
+                        resumedEntries.incrementAndGet();
+                        resumedBytes.addAndGet(entry.getSize());
+                        return;
+                    }
+                    if (baselineRoot != null) {
+                        Path previous = resolveEntry(baselineRoot, stripRoot(entry.getName()));
+                        if (writer.isIntact(entry, previous)) {
+                            FileTrees.linkOrCopy(previous, target);
+                            reusedEntries.incrementAndGet();
+                            reusedBytes.addAndGet(entry.getSize());
+                            if (journal != null) journal.record(entry);
+                            return;
+                        }
+                    }
+                    bytes.addAndGet(ZipEntryWriter.supports(entry)
+                            ? writer.write(entry, data, target)
+                            : fallback.write(entry.getName(), target));
+                    if (journal != null) journal.record(entry);
+                };
+
+                List<Future<?>> futures = new ArrayList<>(files.size());
+                String actualDigest = null;
+                if (checksum != null) {
+                    try {
+                        actualDigest = readInOrder(source, checksum.newDigest(), files, BUFFER_POOL, pool, work, futures);
+                    } catch (IOException | RuntimeException e) {
+                        futures.forEach(f -> f.cancel(true));
+                        throw e;
+                    }
+                } else {
+                    // 大文件优先，避免最后只剩一个线程在解压大 DLL
+                    files.sort(Comparator.comparingLong(ZipCentralDirectory.Entry::getSize).reversed());
+                    for (ZipCentralDirectory.Entry entry : files) {
+                        futures.add(pool.submit(() -> {
+                            work.run(entry, null);
+                            return null;
+                        }));
+                    }
+                }
+
+                try {
+                    awaitAll(futures);
+                } catch (IOException | RuntimeException e) {
+                    // 损坏的压缩包通常先在解压时报错，此时以校验结果为准决定是否回滚
+                    if (actualDigest != null) verifyOrRollback(checksum, actualDigest, rollback, journal, logConsumer);
+                    throw e;
+                }
+                if (checksum != null) {
+                    verifyOrRollback(checksum, actualDigest, rollback, journal, logConsumer);
+                }
+                if (journal != null) journal.complete();
+            } finally {
+                pool.shutdownNow();
+            }
+        }
+
+        ExtractStats stats = new ExtractStats(files.size(), bytes.get(), System.nanoTime() - start, workers,
+                skippedEntries, skippedBytes);
+        logConsumer.accept("📦 ZIP 解压完成: " + zipFilePath + " (" + stats + ")\n");
+        if (resumedEntries.get() > 0) {
+            logConsumer.accept(String.format("♻️ 断点续传: %d 个条目已完好, 免解压 %.1f MB%n",
+                    resumedEntries.get(), resumedBytes.get() / (1024.0 * 1024.0)));
+        }
+        if (baselineRoot != null) {
+            logConsumer.accept(String.format("🔁 增量解压: %d 个条目未变化已复用 (%.1f MB), 写出 %d 个变化条目%n",
+                    reusedEntries.get(), reusedBytes.get() / (1024.0 * 1024.0), files.size() - reusedEntries.get()));
+        }
+        logSavings(stats, profile, logConsumer);
+        return stats;
+    }
+
+    // 原有的单流解压路径，保留用于吞吐对比
+    public static ExtractStats extractSequential(String zipFilePath, String destDir, Consumer<String> logConsumer) throws IOException {
+        return extractSequential(zipFilePath, destDir, ExtractionProfile.FULL, logConsumer);
+    }
+
+    public static ExtractStats extractSequential(String zipFilePath, String destDir, ExtractionProfile profile,
+                                                 Consumer<String> logConsumer) throws IOException {
+        return extractSequential(zipFilePath, destDir, profile, null, logConsumer);
+    }
+
+    public static ExtractStats extractSequential(String zipFilePath, String destDir, ExtractionProfile profile,
+                                                 ArchiveChecksum checksum, Consumer<String> logConsumer) throws IOException {
+        long start = System.nanoTime();
+        Path dest = Paths.get(destDir).toAbsolutePath().normalize();
+        byte[] buffer = new byte[4096];
+        int count = 0;
+        long bytes = 0;
+        int skippedEntries = 0;
+        long skippedBytes = 0;
+        ExtractionRollback rollback = new ExtractionRollback(dest);
+        MessageDigest digest = checksum != null ? checksum.newDigest() : null;
+        InputStream raw = new FileInputStream(zipFilePath);
+        if (digest != null) raw = new DigestInputStream(raw, digest);
+        try (ZipInputStream zis = new ZipInputStream(raw)) {
+            ZipEntry entry;
+            while ((entry = zis.getNextEntry()) != null) {
+                // 单流模式下被跳过的条目仍需读过压缩数据，但不会解压和写盘
+                if (!profile.accepts(entry.getName())) {
+                    if (!entry.isDirectory()) {
+                        skippedEntries++;
+                        skippedBytes += Math.max(0, entry.getSize());
+                    }
+                    zis.closeEntry();
+                    continue;
+                }
+                Path filePath = resolveEntry(dest, entry.getName());
+                rollback.noteRoot(filePath);
+
+                if (entry.isDirectory()) {
+                    rollback.createDirectories(filePath);
+                } else {
+                    // 创建父目录
+                    rollback.createDirectories(filePath.getParent());
+                    rollback.file(filePath);
+
+                    try (FileOutputStream fos = new FileOutputStream(filePath.toFile());
+                         BufferedOutputStream bos = new BufferedOutputStream(fos, buffer.length)) {
+
+                        int len;
+                        while ((len = zis.read(buffer)) > 0) {
+                            bos.write(buffer, 0, len);
+                            bytes += len;
+                        }
+                    }
+                    count++;
+                }
+                zis.closeEntry();
+            }
+            if (digest != null) {
+                // 中央目录不属于任何条目，读完剩余字节摘要才完整
+                while (raw.read(buffer) > 0) {
+                    // 仅用于推进摘要
+                }
+                verifyOrRollback(checksum, ArchiveChecksum.toHex(digest.digest()), rollback, null, logConsumer);
+            }
+        }
+
+        ExtractStats stats = new ExtractStats(count, bytes, System.nanoTime() - start, 1, skippedEntries, skippedBytes);
+        logConsumer.accept("📦 ZIP 解压完成(单流): " + zipFilePath + " (" + stats + ")\n");
+        logSavings(stats, profile, logConsumer);
+        return stats;
+    }
+
+    @FunctionalInterface
+    private interface EntryWork {
+        void run(ZipCentralDirectory.Entry entry, ByteBuffer data) throws IOException;
+    }
+
+    // 校验和与解压共用一遍读取：按本地文件头的位置从头到尾顺序读取整个压缩包，每个字节只读一次并计入摘要，
+    // 条目的压缩数据读入内存后交给工作线程，工作线程不再访问压缩包；读入内存但尚未写出的数据不超过 READ_AHEAD_BYTES，
+    // 单个条目超过该上限时独占全部额度。返回摘要；某个条目失败时提前停止读取并返回 null，由 awaitAll 抛出原始异常
+    private static String readInOrder(FileChannel source, MessageDigest digest, List<ZipCentralDirectory.Entry> files,
+                                      DirectBufferPool bufferPool, ExecutorService pool, EntryWork work,
+                                      List<Future<?>> futures) throws IOException {
+        List<ZipCentralDirectory.Entry> ordered = new ArrayList<>(files);
+        ordered.sort(Comparator.comparingLong(ZipCentralDirectory.Entry::getLocalHeaderOffset));
+        Semaphore readAhead = new Semaphore(READ_AHEAD_BYTES);
+        AtomicBoolean failed = new AtomicBoolean();
+        ByteBuffer scratch = bufferPool.acquire();
+        long position = 0;
+        try {
+            for (ZipCentralDirectory.Entry entry : ordered) {
+                if (failed.get()) return null;
+                if (entry.getLocalHeaderOffset() < position) {
+                    throw new IOException("ZIP 条目数据相互重叠: " + entry.getName());
+                }
+                position = hashRange(source, digest, scratch, position, entry.getLocalHeaderOffset());
+                ByteBuffer loc = readHashed(source, digest, position, ZipCentralDirectory.LOC_SIZE);
+                long dataOffset = ZipCentralDirectory.dataOffset(entry, loc);
+                position = hashRange(source, digest, scratch, position + ZipCentralDirectory.LOC_SIZE, dataOffset);
+
+                long length = entry.getCompressedSize();
+                if (!ZipEntryWriter.supports(entry) || length > MAX_BUFFERED_ENTRY) {
+                    // 少见的压缩方式交给 java.util.zip；超过 2 GB 的条目放不进一个缓冲区，由 writer 再读一次
+                    position = hashRange(source, digest, scratch, position, dataOffset + length);
+                    futures.add(pool.submit(() -> {
+                        run(work, entry, null, failed);
+                        return null;
+                    }));
+                    continue;
+                }
+                int permits = (int) Math.min(length, READ_AHEAD_BYTES);
+                try {
+                    readAhead.acquire(permits);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new InterruptedIOException("解压被中断");
+                }
+                ByteBuffer data;
+                try {
+                    data = readHashed(source, digest, position, (int) length);
+                } catch (IOException | RuntimeException e) {
+                    readAhead.release(permits);
+                    throw e;
+                }
+                position += length;
+                futures.add(pool.submit(() -> {
+                    try {
+                        run(work, entry, data, failed);
+                    } finally {
+                        readAhead.release(permits);
+                    }
+                    return null;
+                }));
+            }
+            // 数据描述符、中央目录等条目之后的内容
+            hashRange(source, digest, scratch, position, source.size());
+        } finally {
+            bufferPool.release(scratch);
+        }
+        return ArchiveChecksum.toHex(digest.digest());
+    }
+
+    private static void run(EntryWork work, ZipCentralDirectory.Entry entry, ByteBuffer data, AtomicBoolean failed)
+            throws IOException {
+        try {
+            work.run(entry, data);
+        } catch (IOException | RuntimeException e) {
+            failed.set(true);
+            throw e;
+        }
+    }
+
+    // 读取 [from, to) 只用于计算摘要，返回 to
+    private static long hashRange(FileChannel source, MessageDigest digest, ByteBuffer scratch, long from, long to)
+            throws IOException {
+        long position = from;
+        while (position < to) {
+            scratch.clear();
+            if (to - position < scratch.capacity()) scratch.limit((int) (to - position));
+            int n = source.read(scratch, position);
+            if (n < 0) throw new EOFException("ZIP 文件意外结束，偏移: " + position);
+            position += n;
+            scratch.flip();
+            digest.update(scratch);
+        }
+        return to;
+    }
+
+    private static ByteBuffer readHashed(FileChannel source, MessageDigest digest, long position, int length)
+            throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        while (buffer.hasRemaining()) {
+            int n = source.read(buffer, position + buffer.position());
+            if (n < 0) throw new EOFException("ZIP 文件意外结束，偏移: " + (position + buffer.position()));
+        }
+        buffer.flip();
+        digest.update(buffer.duplicate());
+        return buffer;
+    }
+
+    private static void verifyOrRollback(ArchiveChecksum checksum, String actual, ExtractionRollback rollback,
+                                         ExtractionJournal journal, Consumer<String> logConsumer) throws IOException {
+        try {
+            checksum.verify(actual);
+            logConsumer.accept("✅ 发行包校验通过 (" + checksum.getAlgorithm() + ")\n");
+        } catch (ChecksumMismatchException e) {
+            logConsumer.accept("❌ " + e.getMessage() + "\n");
+            // 日志中的条目已随回滚删除；有文件没能删除时保留日志，下次续传仍会逐个校验磁盘上的文件
+            if (rollback.rollback(logConsumer) && journal != null) journal.complete();
+            throw e;
+        }
+    }
+
+    private static void logSavings(ExtractStats stats, ExtractionProfile profile, Consumer<String> logConsumer) {
+        if (stats.getSkippedEntries() > 0) {
+            logConsumer.accept("⏭ 解压配置 " + profile.getName() + ": " + stats.describeSavings() + "\n");
+        }
+    }
+
+    // 少见的压缩方式（或加密条目）交给 java.util.zip 处理，仅在首次遇到时打开
+    private static class FallbackReader implements Closeable {
+        private final String zipFilePath;
+        private ZipFile zipFile;
+
+        FallbackReader(String zipFilePath) {
+            this.zipFilePath = zipFilePath;
+        }
+
+        private synchronized ZipFile zipFile() throws IOException {
+            if (zipFile == null) zipFile = new ZipFile(zipFilePath);
+            return zipFile;
+        }
+
+        long write(String name, Path target) throws IOException {
+            ZipFile zf = zipFile();
+            ZipEntry entry = zf.getEntry(name);
+            if (entry == null) {
+                throw new IOException("ZIP 条目不存在: " + name);
+            }
+            try (InputStream in = zf.getInputStream(entry)) {
+                return Files.copy(in, target, StandardCopyOption.REPLACE_EXISTING);
+            }
+        }
+
+        @Override
+        public synchronized void close() throws IOException {
+            if (zipFile != null) zipFile.close();
+        }
+    }
+
+    // 等待所有条目完成；任一条目失败则取消剩余任务并抛出原始异常
+    private static void awaitAll(List<Future<?>> futures) throws IOException {
+        try {
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } catch (ExecutionException e) {
+            futures.forEach(f -> f.cancel(true));
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) throw (IOException) cause;
+            if (cause instanceof RuntimeException) throw (RuntimeException) cause;
+            throw new IOException("解压失败: " + cause.getMessage(), cause);
+        } catch (InterruptedException e) {
+            futures.forEach(f -> f.cancel(true));
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("解压被中断");
+        }
+    }
+
+    // MySQL 发行包只有一个顶层目录，返回去掉它之后的相对路径
+    static String stripRoot(String entryName) {
+        String name = entryName.replace('\\', '/');
+        int slash = name.indexOf('/');
+        return slash < 0 ? name : name.substring(slash + 1);
+    }
+
+    // 防止条目名称包含 ../ 逃逸出目标目录
+    static Path resolveEntry(Path dest, String name) throws IOException {
+        Path target = dest.resolve(name).normalize();
+        if (!target.startsWith(dest)) {
+            throw new IOException("非法的 ZIP 条目路径: " + name);
+        }
+        return target;
+    }
+}
@@ -6,6 +6,8 @@ module com.example.mysqlautoin {
     requires javafx.media;
     requires javafx.swing;
     requires javafx.web;
+    requires org.tukaani.xz;
+    requires jdk.management;
 
     opens com.example.mysqlautoin to javafx.fxml;
     exports com.example.mysqlautoin;